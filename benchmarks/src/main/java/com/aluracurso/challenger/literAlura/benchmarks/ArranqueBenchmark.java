@@ -0,0 +1,52 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.principal.Principal;
+import com.aluracurso.challenger.literAlura.service.ConsultaCatalogo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Arranque en frío contra H2 embebido: cada medición es una JVM nueva que levanta el contexto una sola vez.
+// hastaElMenu termina cuando el menú podría mostrarse (contexto refrescado e índices cargados) y
+// hastaLaPrimeraConsulta añade la primera página del listado por título. Las opciones de las JVM
+// medidas se cambian con -jvmArgsAppend (ver README).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ArranqueBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+
+    @TearDown(Level.Iteration)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Principal hastaElMenu() {
+        contexto = ContextoBenchmark.iniciar(ContextoBenchmark.h2("arranque"));
+        return contexto.getBean(Principal.class);
+    }
+
+    @Benchmark
+    public List<LibroResumen> hastaLaPrimeraConsulta() {
+        contexto = ContextoBenchmark.iniciar(ContextoBenchmark.h2("arranque"));
+        return contexto.getBean(ConsultaCatalogo.class).paginaPorTitulo("", 10);
+    }
+}
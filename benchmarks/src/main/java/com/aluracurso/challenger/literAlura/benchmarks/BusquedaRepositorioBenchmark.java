@@ -0,0 +1,93 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import com.aluracurso.challenger.literAlura.service.ConsultaCatalogo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Consultas del repositorio sobre PostgreSQL real (Testcontainers, necesita Docker) con 1k, 10k y 100k
+// libros: texto completo con el índice GIN, página keyset por título y top de descargas por índice
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaRepositorioBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int libros;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext contexto;
+    private LibroRepository libroRepository;
+    private ConsultaCatalogo consultaCatalogo;
+    private CatalogoSintetico catalogo;
+    private String tituloMedio;
+
+    @Setup
+    public void iniciar() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        contexto = ContextoBenchmark.iniciar(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl(),
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword(),
+                // El índice en memoria se carga al arrancar: con la tabla vacía no añade coste
+                "literalura.busqueda.motor", "base-datos"));
+        libroRepository = contexto.getBean(LibroRepository.class);
+        consultaCatalogo = contexto.getBean(ConsultaCatalogo.class);
+
+        catalogo = new CatalogoSintetico(42);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        List<Object[]> filas = new ArrayList<>(libros);
+        for (int i = 1; i <= libros; i++) {
+            var libro = catalogo.libro(i, i);
+            filas.add(new Object[]{i, (long) i, libro.titulo(), libro.numeroDeDescargas()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO libros (id, id_gutendex, titulo, numero_de_descargas) VALUES (?, ?, ?, ?)", filas);
+        jdbcTemplate.execute("ANALYZE libros");
+        tituloMedio = jdbcTemplate.queryForObject(
+                "SELECT titulo FROM libros ORDER BY titulo OFFSET ? LIMIT 1", String.class, libros / 2);
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<Long> buscarIdsPorPalabra() {
+        return libroRepository.findIdsPorPalabra(catalogo.palabra());
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaPorTitulo() {
+        return consultaCatalogo.paginaPorTitulo(tituloMedio, 20);
+    }
+
+    @Benchmark
+    public List<LibroResumen> masDescargados() {
+        return consultaCatalogo.masDescargados(10);
+    }
+}
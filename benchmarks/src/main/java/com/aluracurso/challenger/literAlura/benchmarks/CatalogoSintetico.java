@@ -0,0 +1,64 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+
+import java.util.List;
+import java.util.Random;
+
+// Títulos y autores con la forma de los de Gutendex (signos de puntuación, subtítulos tras ';',
+// nombres "Apellido, Nombre"), generados con semilla fija para que cada ejecución mida lo mismo
+final class CatalogoSintetico {
+
+    static final List<String> PALABRAS = List.of(
+            "the", "of", "and", "a", "in", "to", "history", "adventures", "tale", "life", "war", "peace",
+            "voyage", "letters", "poems", "memoirs", "journey", "island", "king", "queen", "great", "little",
+            "new", "old", "world", "love", "death", "city", "house", "sea", "mystery", "secret", "garden",
+            "don", "quijote", "novelas", "historia", "vida", "cuentos", "viaje", "guerra", "amor", "la", "el",
+            "de", "del", "y", "los", "las", "comte", "monte-cristo", "tome", "les", "misérables", "der", "und");
+
+    static final List<String> APELLIDOS = List.of(
+            "Austen", "Dickens", "Shelley", "Melville", "Cervantes Saavedra", "Dumas", "Tolstoy", "Kafka",
+            "Doyle", "Hawthorne", "Twain", "Wilde", "Verne", "Hugo", "Pérez Galdós", "Goethe", "Poe",
+            "Stevenson", "Kipling", "Conrad", "Eliot", "Brontë", "Hardy", "Wells", "London");
+
+    static final List<String> NOMBRES = List.of(
+            "Jane", "Charles", "Mary", "Herman", "Miguel de", "Alexandre", "Leo", "Franz", "Arthur Conan",
+            "Nathaniel", "Mark", "Oscar", "Jules", "Victor", "Benito", "Johann Wolfgang von", "Edgar Allan",
+            "Robert Louis", "Rudyard", "Joseph", "George", "Charlotte", "Thomas", "H. G.", "Jack");
+
+    private final Random aleatorio;
+
+    CatalogoSintetico(long semilla) {
+        this.aleatorio = new Random(semilla);
+    }
+
+    String titulo(int numero) {
+        StringBuilder titulo = new StringBuilder();
+        int palabras = 2 + aleatorio.nextInt(7);
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                titulo.append(i == 2 && aleatorio.nextInt(4) == 0 ? "; " : " ");
+            }
+            String palabra = palabra();
+            titulo.append(i == 0 ? Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1) : palabra);
+        }
+        return titulo.append(", volumen ").append(numero).toString();
+    }
+
+    String palabra() {
+        return PALABRAS.get(aleatorio.nextInt(PALABRAS.size()));
+    }
+
+    DatosAutor autor() {
+        int indice = aleatorio.nextInt(APELLIDOS.size());
+        int nacimiento = 1500 + aleatorio.nextInt(400);
+        return new DatosAutor(APELLIDOS.get(indice) + ", " + NOMBRES.get(indice), nacimiento, nacimiento + 30 + aleatorio.nextInt(50));
+    }
+
+    DatosLibros libro(long idGutendex, int numero) {
+        List<DatosAutor> autores = aleatorio.nextInt(5) == 0 ? List.of(autor(), autor()) : List.of(autor());
+        List<String> idiomas = aleatorio.nextInt(3) == 0 ? List.of("es") : List.of("en");
+        return new DatosLibros(idGutendex, titulo(numero), autores, idiomas, (double) aleatorio.nextInt(100_000));
+    }
+}
@@ -0,0 +1,43 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.LiterAluraApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Arranca la aplicación sin menú, sin servidor web y sin tareas programadas para medirla desde JMH
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(Map<String, Object> propiedades) {
+        Map<String, Object> todas = new HashMap<>();
+        todas.put("literalura.consola.habilitada", "false");
+        todas.put("literalura.descargas.habilitada", "false");
+        todas.put("literalura.instantanea.archivo", "");
+        todas.put("logging.level.root", "WARN");
+        todas.putAll(propiedades);
+        return new SpringApplicationBuilder(LiterAluraApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(todas)
+                .run();
+    }
+
+    // Base de datos H2 en memoria, sin los índices de PostgreSQL
+    static Map<String, Object> h2(String nombre) {
+        return Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.jpa.hibernate.ddl-auto", "create-drop",
+                "spring.sql.init.mode", "never");
+    }
+}
@@ -0,0 +1,58 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.Datos;
+import com.aluracurso.challenger.literAlura.model.DatosPagina;
+import com.aluracurso.challenger.literAlura.service.ConvierteDatos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Conversión de una página de Gutendex grabada (gutendex/pagina-muestra.json): el árbol completo
+// con obtenerDatos frente a la lectura en streaming de obtenerLibros
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private final ConvierteDatos conversor = new ConvierteDatos();
+    private String json;
+    private byte[] bytes;
+
+    @Setup
+    public void leerPagina() throws IOException {
+        try (InputStream pagina = getClass().getResourceAsStream("/gutendex/pagina-muestra.json")) {
+            if (pagina == null) {
+                throw new IllegalStateException("No se encontró gutendex/pagina-muestra.json");
+            }
+            bytes = pagina.readAllBytes();
+        }
+        json = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Datos obtenerDatos() {
+        return conversor.obtenerDatos(json, Datos.class);
+    }
+
+    @Benchmark
+    public DatosPagina obtenerLibrosEnStreaming(Blackhole agujero) {
+        return conversor.obtenerLibros(new ByteArrayInputStream(bytes), agujero::consume);
+    }
+}
@@ -0,0 +1,32 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Ejecuta los benchmarks con las opciones de línea de comandos de JMH y guarda siempre el resultado en JSON
+// (resultados/jmh-AAAAMMDD-HHMMSS.json salvo que se indique -rff), para comparar una ejecución con la anterior
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaDeComandos = new CommandLineOptions(args);
+        String archivo = lineaDeComandos.getResult().orElse("resultados/jmh-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new File(archivo).getAbsoluteFile().getParentFile().mkdirs();
+
+        var opciones = new OptionsBuilder()
+                .parent(lineaDeComandos)
+                .resultFormat(ResultFormatType.JSON)
+                .result(archivo)
+                .build();
+        new Runner(opciones).run();
+        System.out.println("Resultados guardados en " + archivo);
+    }
+}
@@ -0,0 +1,110 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.service.MotorBusquedaEnMemoria;
+import com.aluracurso.challenger.literAlura.service.PalabrasCompletas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coincidencia por palabra completa sobre títulos realistas: el filtro de la opción 1
+// (PalabrasCompletas, preparado una vez por búsqueda) frente a la versión anterior que separaba
+// cada título con split, y la búsqueda de autores del índice en memoria, que sustituyó al
+// recorrido de nombres con contienePalabraCompletaEnNombre
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PalabrasBenchmark {
+
+    private static final int TITULOS = 1_000;
+
+    private final List<String> titulos = new ArrayList<>(TITULOS);
+    private final MotorBusquedaEnMemoria motor = new MotorBusquedaEnMemoria();
+    private final PalabrasCompletas frecuente = PalabrasCompletas.de("the");
+    private final PalabrasCompletas ausente = PalabrasCompletas.de("zaragoza");
+
+    @Setup
+    public void generarTitulos() {
+        CatalogoSintetico catalogo = new CatalogoSintetico(42);
+        List<LibroResumen> libros = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            var datos = catalogo.libro(i, i);
+            if (i <= TITULOS) {
+                titulos.add(datos.titulo().toLowerCase());
+            }
+            List<AutorResumen> autores = datos.autor().stream()
+                    .map(autor -> new AutorResumen((long) autor.nombre().hashCode(), autor.nombre().toLowerCase(),
+                            autor.fechaDeNacimiento(), autor.fechaDeFallecimiento()))
+                    .distinct()
+                    .toList();
+            libros.add(new LibroResumen((long) i, datos.titulo(), datos.idiomas(), datos.numeroDeDescargas(), autores));
+        }
+        motor.cargar(libros);
+    }
+
+    // Palabra frecuente: casi todos los títulos se recorren solo hasta la primera coincidencia
+    @Benchmark
+    public void coincidePalabraFrecuente(Blackhole agujero) {
+        for (String titulo : titulos) {
+            agujero.consume(frecuente.coincide(titulo));
+        }
+    }
+
+    // Palabra ausente: el peor caso, cada título se recorre entero
+    @Benchmark
+    public void coincidePalabraAusente(Blackhole agujero) {
+        for (String titulo : titulos) {
+            agujero.consume(ausente.coincide(titulo));
+        }
+    }
+
+    @Benchmark
+    public void splitPalabraFrecuente(Blackhole agujero) {
+        for (String titulo : titulos) {
+            agujero.consume(contienePalabraConSplit(titulo, "the"));
+        }
+    }
+
+    @Benchmark
+    public void splitPalabraAusente(Blackhole agujero) {
+        for (String titulo : titulos) {
+            agujero.consume(contienePalabraConSplit(titulo, "zaragoza"));
+        }
+    }
+
+    @Benchmark
+    public List<AutorResumen> buscarAutoresEnMemoria() {
+        return motor.buscarAutores("dickens", 50);
+    }
+
+    @Benchmark
+    public List<LibroResumen> buscarLibrosEnMemoria() {
+        return motor.buscarLibros("history", 50);
+    }
+
+    // Versión anterior de Principal.contienePalabraCompleta, como referencia
+    private static boolean contienePalabraConSplit(String texto, String palabraClave) {
+        for (String palabra : texto.split("\\s+")) {
+            if (palabra.equalsIgnoreCase(palabraClave)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
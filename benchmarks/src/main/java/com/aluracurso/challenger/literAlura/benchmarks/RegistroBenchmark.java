@@ -0,0 +1,68 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.service.RegistroLibros;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Registro de un libro de la API (lo que hace registrarLibroDesdeAPI en la opción 1) contra H2 embebido:
+// libro nuevo con autores ya guardados y libro repetido, que se descarta por la consulta de títulos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistroBenchmark {
+
+    private static final int LIBROS_INICIALES = 1_000;
+
+    private ConfigurableApplicationContext contexto;
+    private RegistroLibros registroLibros;
+    private CatalogoSintetico catalogo;
+    private DatosLibros repetido;
+    private int siguiente;
+
+    @Setup
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(ContextoBenchmark.h2("registro"));
+        registroLibros = contexto.getBean(RegistroLibros.class);
+        catalogo = new CatalogoSintetico(7);
+        List<DatosLibros> iniciales = new ArrayList<>(LIBROS_INICIALES);
+        for (siguiente = 1; siguiente <= LIBROS_INICIALES; siguiente++) {
+            iniciales.add(catalogo.libro(siguiente, siguiente));
+        }
+        registroLibros.registrarLote(iniciales);
+        repetido = iniciales.get(0);
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public boolean registrarLibroNuevo() {
+        int numero = siguiente++;
+        return registroLibros.registrar(catalogo.libro(numero, numero));
+    }
+
+    @Benchmark
+    public boolean registrarLibroRepetido() {
+        return registroLibros.registrar(repetido);
+    }
+}
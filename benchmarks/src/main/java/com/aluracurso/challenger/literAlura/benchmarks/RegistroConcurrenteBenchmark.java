@@ -0,0 +1,138 @@
+package com.aluracurso.challenger.literAlura.benchmarks;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.service.IndicesCatalogo;
+import com.aluracurso.challenger.literAlura.service.RegistroLibros;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// RegistroLibros.registrarLote con uno o varios escritores a la vez sobre PostgreSQL real (Testcontainers,
+// necesita Docker). Todas las combinaciones hacen el mismo trabajo: INTENTOS libros en lotes de TAMANO_LOTE,
+// repartidos a partes iguales entre los escritores. Con reparto "disjunto" cada libro lo intenta un solo
+// escritor; con "solapado" cada libro lo intentan dos (la mitad de los intentos son duplicados), que es lo
+// que pasa cuando dos importaciones coinciden. Cada medición parte de las tablas vacías; libros por
+// segundo = INTENTOS / tiempo de la medición.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RegistroConcurrenteBenchmark {
+
+    private static final int INTENTOS = 4_000;
+    private static final int TAMANO_LOTE = 25;
+
+    @Param({"1", "4", "8"})
+    public int escritores;
+
+    @Param({"disjunto", "solapado"})
+    public String reparto;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext contexto;
+    private RegistroLibros registroLibros;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private IndicesCatalogo indicesCatalogo;
+    private ExecutorService ejecutor;
+    private List<List<DatosLibros>> porEscritor;
+
+    @Setup
+    public void iniciar() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        contexto = ContextoBenchmark.iniciar(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl(),
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword(),
+                "spring.datasource.hikari.maximum-pool-size", String.valueOf(escritores + 4)));
+        registroLibros = contexto.getBean(RegistroLibros.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+        indicesCatalogo = contexto.getBean(IndicesCatalogo.class);
+        ejecutor = Executors.newFixedThreadPool(escritores);
+
+        // Disjunto: INTENTOS libros distintos. Solapado: la mitad, y cada escritor empieza su tramo a
+        // mitad del tramo del anterior sobre la lista circular, así cada libro aparece en dos tramos
+        CatalogoSintetico catalogo = new CatalogoSintetico(11);
+        int distintos = reparto.equals("solapado") ? INTENTOS / 2 : INTENTOS;
+        List<DatosLibros> libros = new ArrayList<>(distintos);
+        for (int i = 1; i <= distintos; i++) {
+            libros.add(catalogo.libro(i, i));
+        }
+        int tramo = INTENTOS / escritores;
+        int paso = reparto.equals("solapado") ? distintos / escritores : tramo;
+        porEscritor = new ArrayList<>(escritores);
+        for (int escritor = 0; escritor < escritores; escritor++) {
+            List<DatosLibros> propio = new ArrayList<>(tramo);
+            for (int i = 0; i < tramo; i++) {
+                propio.add(libros.get((escritor * paso + i) % distintos));
+            }
+            porEscritor.add(propio);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void vaciar() {
+        jdbcTemplate.execute("TRUNCATE bibliografias, idiomas_libro, libros, autores");
+        entityManagerFactory.getCache().evictAll();
+        indicesCatalogo.cargar();
+    }
+
+    @TearDown
+    public void cerrar() {
+        ejecutor.shutdownNow();
+        contexto.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int registrar() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Integer>> tareas = new ArrayList<>(escritores);
+        for (List<DatosLibros> propio : porEscritor) {
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                int registrados = 0;
+                for (int i = 0; i < propio.size(); i += TAMANO_LOTE) {
+                    registrados += (int) registroLibros.registrarLote(propio.subList(i, Math.min(i + TAMANO_LOTE, propio.size())))
+                            .stream()
+                            .filter(resultado -> resultado.estado() == RegistroLibros.EstadoRegistro.REGISTRADO)
+                            .count();
+                }
+                return registrados;
+            }));
+        }
+        salida.countDown();
+        int registrados = 0;
+        for (Future<Integer> tarea : tareas) {
+            registrados += tarea.get();
+        }
+        return registrados;
+    }
+}
@@ -1,23 +1,47 @@
 package com.aluracurso.challenger.literAlura;
 
+import com.aluracurso.challenger.literAlura.principal.LineaDeComandos;
 import com.aluracurso.challenger.literAlura.principal.Principal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LiterAluraApplication implements CommandLineRunner {
 
 	@Autowired
 	private Principal principal;
 
+	@Autowired
+	private LineaDeComandos lineaDeComandos;
+
+	@Value("${literalura.consola.habilitada:true}")
+	private boolean consolaHabilitada;
+
 	public static void main(String[] args) {
-		SpringApplication.run(LiterAluraApplication.class, args);
+		if (!LineaDeComandos.esSubcomando(args)) {
+			SpringApplication.run(LiterAluraApplication.class, args);
+			return;
+		}
+		// Modo por lotes: sin servidor web, la salida estándar solo para el JSON de LineaDeComandos
+		// (los mensajes y el registro van a la de errores) y al terminar se cierra la aplicación
+		System.setOut(System.err);
+		SpringApplication aplicacion = new SpringApplication(LiterAluraApplication.class);
+		aplicacion.setWebApplicationType(WebApplicationType.NONE);
+		System.exit(SpringApplication.exit(aplicacion.run(args)));
 	}
 
 	@Override
 	public void run(String... args) {
-		principal.muestraElMenu();
+		if (LineaDeComandos.esSubcomando(args)) {
+			lineaDeComandos.ejecutar(args);
+		} else if (consolaHabilitada) {
+			principal.muestraElMenu();
+		}
 	}
 }
@@ -0,0 +1,54 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import com.aluracurso.challenger.literAlura.model.AutorNombre;
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.service.IMotorBusqueda;
+import com.aluracurso.challenger.literAlura.service.IndiceVidasAutores;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/autores")
+public class AutoresController {
+
+    private final IMotorBusqueda motorBusqueda;
+    private final IndiceVidasAutores indiceVidasAutores;
+
+    public AutoresController(IMotorBusqueda motorBusqueda, IndiceVidasAutores indiceVidasAutores) {
+        this.motorBusqueda = motorBusqueda;
+        this.indiceVidasAutores = indiceVidasAutores;
+    }
+
+    // Búsqueda por palabras completas en el nombre (opción 2)
+    @GetMapping("/buscar")
+    public List<AutorResumen> buscar(@RequestParam String q, @RequestParam(defaultValue = "20") int limite) {
+        return motorBusqueda.buscarAutores(Parametros.consulta(q), Parametros.tamano(limite));
+    }
+
+    // Autores vivos en un año, o en algún momento entre desde y hasta (opción 3)
+    @GetMapping("/vivos")
+    public List<AutorNombre> vivos(@RequestParam(required = false) Integer ano,
+                                   @RequestParam(required = false) Integer desde,
+                                   @RequestParam(required = false) Integer hasta) {
+        if (ano != null && desde == null && hasta == null) {
+            return indiceVidasAutores.vivosEnAno(ano);
+        }
+        if (ano == null && desde != null && hasta != null && desde <= hasta) {
+            return indiceVidasAutores.vivosEntre(desde, hasta);
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indique ano, o desde y hasta con desde <= hasta");
+    }
+
+    @GetMapping("/{id}/libros")
+    public List<LibroResumen> libros(@PathVariable Long id) {
+        return motorBusqueda.librosDeAutor(id);
+    }
+}
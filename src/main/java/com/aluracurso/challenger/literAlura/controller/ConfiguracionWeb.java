@@ -0,0 +1,21 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ConfiguracionWeb {
+
+    // ETag calculado sobre el cuerpo de cada respuesta de la API: un cliente que repite la petición
+    // con If-None-Match recibe 304 sin cuerpo si el resultado no cambió. La consulta se ejecuta
+    // igualmente, pero la mayoría de las respuestas salen de los índices en memoria.
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> filtroEtag() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/api/*");
+        registro.setName("filtroEtag");
+        return registro;
+    }
+}
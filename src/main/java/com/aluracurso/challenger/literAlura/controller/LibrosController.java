@@ -0,0 +1,99 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.service.ConsultaCatalogo;
+import com.aluracurso.challenger.literAlura.service.FacetaIdiomas;
+import com.aluracurso.challenger.literAlura.service.IMotorBusqueda;
+import com.aluracurso.challenger.literAlura.service.RankingDescargas;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Consultas del catálogo local en JSON. Usa los mismos servicios que el menú de consola
+// y no llama a Gutendex: registrar libros sigue siendo cosa de las opciones 1 y 7.
+@RestController
+@RequestMapping("/api/libros")
+public class LibrosController {
+
+    private final ConsultaCatalogo consultaCatalogo;
+    private final IMotorBusqueda motorBusqueda;
+    private final FacetaIdiomas facetaIdiomas;
+    private final RankingDescargas rankingDescargas;
+
+    public LibrosController(ConsultaCatalogo consultaCatalogo, IMotorBusqueda motorBusqueda,
+                            FacetaIdiomas facetaIdiomas, RankingDescargas rankingDescargas) {
+        this.consultaCatalogo = consultaCatalogo;
+        this.motorBusqueda = motorBusqueda;
+        this.facetaIdiomas = facetaIdiomas;
+        this.rankingDescargas = rankingDescargas;
+    }
+
+    public record PaginaIdiomas(List<LibroResumen> contenido, String siguiente, Map<String, Integer> conteos) {
+    }
+
+    // Listado alfabético por páginas (opción 5)
+    @GetMapping
+    public Pagina<LibroResumen> listar(@RequestParam(defaultValue = "") String despuesDe,
+                                       @RequestParam(defaultValue = "20") int tamano) {
+        List<LibroResumen> libros = consultaCatalogo.paginaPorTitulo(despuesDe, Parametros.tamano(tamano));
+        String siguiente = libros.size() < tamano ? null : libros.getLast().titulo();
+        return new Pagina<>(libros, siguiente);
+    }
+
+    // Búsqueda por palabras completas en el título (opción 1, sin consultar la API)
+    @GetMapping("/buscar")
+    public List<LibroResumen> buscar(@RequestParam String q, @RequestParam(defaultValue = "20") int limite) {
+        return motorBusqueda.buscarLibros(Parametros.consulta(q), Parametros.tamano(limite));
+    }
+
+    // Idiomas con su número de libros (menú de la opción 4)
+    @GetMapping("/idiomas")
+    public Map<String, Integer> idiomas() {
+        return facetaIdiomas.conteos();
+    }
+
+    // Libros en cualquiera de los idiomas indicados, por páginas de id (opción 4)
+    @GetMapping("/por-idioma")
+    public PaginaIdiomas porIdioma(@RequestParam List<String> idiomas,
+                                   @RequestParam(defaultValue = "0") long despuesDe,
+                                   @RequestParam(defaultValue = "20") int tamano) {
+        Set<String> seleccionados = new LinkedHashSet<>();
+        idiomas.forEach(idioma -> {
+            if (!idioma.isBlank()) {
+                seleccionados.add(idioma.trim().toLowerCase());
+            }
+        });
+        if (seleccionados.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indique al menos un idioma");
+        }
+        var pagina = consultaCatalogo.paginaPorIdiomas(seleccionados, despuesDe, Parametros.tamano(tamano));
+        String siguiente = pagina.libros().size() < tamano ? null : Long.toString(pagina.libros().getLast().id());
+        return new PaginaIdiomas(pagina.libros(), siguiente, pagina.conteos());
+    }
+
+    // Más descargados: general, de un idioma o de un autor (opción 6)
+    @GetMapping("/top")
+    public List<LibroResumen> top(@RequestParam(defaultValue = "10") int n,
+                                  @RequestParam(required = false) String idioma,
+                                  @RequestParam(required = false) Long autor) {
+        Parametros.tamano(n);
+        if (idioma != null && autor != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indique idioma o autor, no ambos");
+        }
+        if (idioma != null) {
+            return rankingDescargas.topPorIdioma(idioma.trim().toLowerCase(), n);
+        }
+        if (autor != null) {
+            return rankingDescargas.topPorAutor(autor, n);
+        }
+        return rankingDescargas.top(n);
+    }
+}
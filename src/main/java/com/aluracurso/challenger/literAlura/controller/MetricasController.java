@@ -0,0 +1,23 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import com.aluracurso.challenger.literAlura.service.MetricasAplicacion;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Métricas en el formato de texto de Prometheus, para que un servidor Prometheus las recoja
+@RestController
+public class MetricasController {
+
+    private static final String FORMATO_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricasAplicacion metricas;
+
+    public MetricasController(MetricasAplicacion metricas) {
+        this.metricas = metricas;
+    }
+
+    @GetMapping(value = "/metrics", produces = FORMATO_PROMETHEUS)
+    public String metricas() {
+        return metricas.formatoPrometheus();
+    }
+}
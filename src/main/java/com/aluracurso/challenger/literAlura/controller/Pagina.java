@@ -0,0 +1,11 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import java.util.List;
+
+// Página de un listado por clave: "siguiente" es el valor a pasar como despuesDe para pedir
+// la página siguiente, o null si esta es la última
+public record Pagina<T>(
+        List<T> contenido,
+        String siguiente
+) {
+}
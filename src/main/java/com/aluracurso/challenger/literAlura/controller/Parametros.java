@@ -0,0 +1,28 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Validación común de los parámetros de la API; un valor fuera de rango responde 400
+final class Parametros {
+
+    static final int TAMANO_MAXIMO = 100;
+
+    private Parametros() {
+    }
+
+    static int tamano(int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El tamaño debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        return tamano;
+    }
+
+    static String consulta(String consulta) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La consulta no puede estar vacía");
+        }
+        return consulta.trim().toLowerCase();
+    }
+}
@@ -1,25 +1,36 @@
 package com.aluracurso.challenger.literAlura.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "autores")
+@Table(name = "autores", indexes = @Index(name = "idx_autores_clave", columnList = "clave", unique = true))
+// En la caché de segundo nivel (CacheSegundoNivel); Hibernate la actualiza al guardar
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Autor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con bloques de 50 ids para que Hibernate pueda agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autores_seq")
+    @SequenceGenerator(name = "autores_seq", sequenceName = "autores_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String nombre;
 
+    // Clave canónica del nombre (ClavesAutores.clave): identifica al autor aunque cambie la forma de escribirlo.
+    // Vacía en los autores guardados antes de existir, hasta que FusionAutores la completa.
+    private String clave;
+
     private Integer fechaDeNacimiento;
     private Integer fechaDeFallecimiento;
 
-    @OneToMany(mappedBy = "autor", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "autor", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Bibliografia> bibliografias;
 
 
@@ -49,6 +60,14 @@ public class Autor {
         this.nombre = nombre.toLowerCase().trim();
     }
 
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
     public Integer getFechaDeNacimiento() {
         return fechaDeNacimiento;
     }
@@ -0,0 +1,8 @@
+package com.aluracurso.challenger.literAlura.model;
+
+// Proyección mínima de un autor para listados: solo identificador y nombre
+public record AutorNombre(
+        Long id,
+        String nombre
+) {
+}
@@ -0,0 +1,15 @@
+package com.aluracurso.challenger.literAlura.model;
+
+// Vista inmutable de un autor, sin relaciones JPA, para índices en memoria y presentación
+public record AutorResumen(
+        Long id,
+        String nombre,
+        Integer fechaDeNacimiento,
+        Integer fechaDeFallecimiento
+) {
+
+    public static AutorResumen de(Autor autor) {
+        return new AutorResumen(autor.getId(), autor.getNombre(),
+                autor.getFechaDeNacimiento(), autor.getFechaDeFallecimiento());
+    }
+}
@@ -7,6 +7,8 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record Datos(
+        @JsonAlias("count") Integer total,
+        @JsonAlias("next") String siguiente,
         @JsonAlias("results") List<DatosLibros> resultados
 ) {
 
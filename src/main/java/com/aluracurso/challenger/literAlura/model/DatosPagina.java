@@ -0,0 +1,8 @@
+package com.aluracurso.challenger.literAlura.model;
+
+// Metadatos de una página de Gutendex leída en streaming (los libros se entregan uno a uno)
+public record DatosPagina(
+        Integer total,
+        String siguiente
+) {
+}
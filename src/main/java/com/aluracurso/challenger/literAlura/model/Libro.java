@@ -1,39 +1,65 @@
 package com.aluracurso.challenger.literAlura.model;
 
 import jakarta.persistence.*;
-import java.util.ArrayList;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "libros")
+// Libro, sus idiomas y sus bibliografías van a la caché de segundo nivel: repetir una página
+// de idiomas o un detalle no vuelve a la base de datos mientras no cambie nada
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Libro {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libros_seq")
+    @SequenceGenerator(name = "libros_seq", sequenceName = "libros_seq", allocationSize = 50)
     private Long id;
 
+    // Identificador del libro en Gutendex, para refrescar sus descargas con el filtro ids=.
+    // Vacío en los libros registrados antes de guardarlo.
+    @Column(unique = true)
+    private Long idGutendex;
+
     @Column(unique = true, nullable = false, length = 1024)
     private String titulo;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "idiomas_libro", joinColumns = @JoinColumn(name = "libro_id"))
+    // Perezosos: cada caso de uso declara qué carga (ver LibroRepository y ConsultaCatalogo).
+    // Los idiomas de todos los libros de una consulta llegan juntos en una única subconsulta.
+    // Idiomas y bibliografías son Set ordenados (no List) para que un cursor pueda traer
+    // ambos con fetch join sin producto cartesiano repetido en la colección.
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "idiomas_libro", joinColumns = @JoinColumn(name = "libro_id"),
+            indexes = @Index(name = "idx_idiomas_libro_idioma", columnList = "idioma, libro_id"))
     @Column(name = "idioma")
-    private List<String> idiomas;
+    @OrderBy
+    private Set<String> idiomas;
 
     private Double numeroDeDescargas;
 
-    @OneToMany(mappedBy = "libro", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
-    private List<Bibliografia> bibliografias;
+    @OneToMany(mappedBy = "libro", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @OrderBy("id")
+    private Set<Bibliografia> bibliografias;
 
     public Libro() {
     }
 
     public Libro(DatosLibros datosLibro) {
+        this.idGutendex = datosLibro.idGutendex();
         this.titulo = datosLibro.titulo();
-        this.idiomas = datosLibro.idiomas();
+        setIdiomas(datosLibro.idiomas());
         this.numeroDeDescargas = datosLibro.numeroDeDescargas();
-        this.bibliografias = new ArrayList<>();
+        this.bibliografias = new LinkedHashSet<>();
     }
 
     public Long getId() {
@@ -44,6 +70,14 @@ public class Libro {
         this.id = id;
     }
 
+    public Long getIdGutendex() {
+        return idGutendex;
+    }
+
+    public void setIdGutendex(Long idGutendex) {
+        this.idGutendex = idGutendex;
+    }
+
     public String getTitulo() {
         return titulo;
     }
@@ -53,11 +87,11 @@ public class Libro {
     }
 
     public List<String> getIdiomas() {
-        return idiomas;
+        return idiomas == null ? List.of() : List.copyOf(idiomas);
     }
 
     public void setIdiomas(List<String> idiomas) {
-        this.idiomas = idiomas;
+        this.idiomas = idiomas == null ? new LinkedHashSet<>() : new LinkedHashSet<>(idiomas);
     }
 
     public Double getNumeroDeDescargas() {
@@ -68,11 +102,11 @@ public class Libro {
         this.numeroDeDescargas = numeroDeDescargas;
     }
 
-    public List<Bibliografia> getBibliografias() {
+    public Set<Bibliografia> getBibliografias() {
         return bibliografias;
     }
 
-    public void setBibliografias(List<Bibliografia> bibliografias) {
+    public void setBibliografias(Set<Bibliografia> bibliografias) {
         this.bibliografias = bibliografias;
     }
 
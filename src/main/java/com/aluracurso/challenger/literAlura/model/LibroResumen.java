@@ -0,0 +1,19 @@
+package com.aluracurso.challenger.literAlura.model;
+
+import java.util.List;
+
+// Vista inmutable de un libro con sus autores, sin relaciones JPA, para índices en memoria y presentación
+public record LibroResumen(
+        Long id,
+        String titulo,
+        List<String> idiomas,
+        Double numeroDeDescargas,
+        List<AutorResumen> autores
+) {
+
+    public static LibroResumen de(Libro libro) {
+        return new LibroResumen(libro.getId(), libro.getTitulo(),
+                libro.getIdiomas(), libro.getNumeroDeDescargas(),
+                libro.getAutores().stream().map(AutorResumen::de).toList());
+    }
+}
@@ -0,0 +1,284 @@
+package com.aluracurso.challenger.literAlura.principal;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.service.CompletarIdsGutendex;
+import com.aluracurso.challenger.literAlura.service.ConsultaCatalogo;
+import com.aluracurso.challenger.literAlura.service.FusionAutores;
+import com.aluracurso.challenger.literAlura.service.IMotorBusqueda;
+import com.aluracurso.challenger.literAlura.service.ImportadorVolcado;
+import com.aluracurso.challenger.literAlura.service.IndiceVidasAutores;
+import com.aluracurso.challenger.literAlura.service.MetricasAplicacion;
+import com.aluracurso.challenger.literAlura.service.RankingDescargas;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Modo por lotes, sin menú: java -jar literAlura.jar <subcomando> [consulta] [--entrada=<archivo|->] [--hilos=N]
+//   buscar <palabra>          libros del catálogo local por palabra completa del título (sin llamar a la API)
+//   autores-vivos <año>       autores vivos en ese año
+//   por-idioma <en,es,...>    primera página de libros en esos idiomas, con sus conteos
+//   top [idioma|autor:<palabra>]  más descargados: general, por idioma o por autor
+//   importar <archivo>        catálogo de Project Gutenberg (pg_catalog.csv[.gz])
+//   fusionar-autores          une una sola vez los autores repetidos guardados antes de la clave canónica
+//   completar-ids-gutendex    busca por título el id de Gutendex de los libros guardados sin él
+//   lote                      cada línea de la entrada lleva su propio subcomando ("buscar frankenstein")
+// Sin consulta en los argumentos se lee una por línea de --entrada (la entrada estándar por defecto),
+// para reproducir registros de consultas como prueba de carga. Las consultas se reparten entre
+// --hilos hilos con como mucho dos por hilo en espera, y cada una escribe una línea JSON en la salida
+// estándar, en el orden en que termina: número de línea, subcomando, consulta, milisegundos y resultados o error.
+@Service
+public class LineaDeComandos implements ExitCodeGenerator {
+
+    private static final Set<String> SUBCOMANDOS = Set.of("buscar", "autores-vivos", "por-idioma", "top", "importar",
+            "fusionar-autores", "completar-ids-gutendex", "lote");
+    // Tareas que no llevan consulta: sin argumentos se ejecutan una vez en lugar de leer la entrada
+    private static final Set<String> SIN_CONSULTA = Set.of("fusionar-autores", "completar-ids-gutendex");
+    private static final int LIMITE_RESULTADOS = 20;
+    private static final int TAMANO_PAGINA = 20;
+
+    private final IMotorBusqueda motorBusqueda;
+    private final IndiceVidasAutores indiceVidasAutores;
+    private final ConsultaCatalogo consultaCatalogo;
+    private final RankingDescargas rankingDescargas;
+    private final ImportadorVolcado importadorVolcado;
+    private final FusionAutores fusionAutores;
+    private final CompletarIdsGutendex completarIdsGutendex;
+    private final MetricasAplicacion metricas;
+    private final int hilosPorDefecto;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private volatile int codigoSalida;
+
+    public LineaDeComandos(IMotorBusqueda motorBusqueda, IndiceVidasAutores indiceVidasAutores,
+                           ConsultaCatalogo consultaCatalogo, RankingDescargas rankingDescargas,
+                           ImportadorVolcado importadorVolcado, FusionAutores fusionAutores,
+                           CompletarIdsGutendex completarIdsGutendex, MetricasAplicacion metricas,
+                           @Value("${literalura.cli.hilos:4}") int hilosPorDefecto) {
+        this.motorBusqueda = motorBusqueda;
+        this.indiceVidasAutores = indiceVidasAutores;
+        this.consultaCatalogo = consultaCatalogo;
+        this.rankingDescargas = rankingDescargas;
+        this.importadorVolcado = importadorVolcado;
+        this.fusionAutores = fusionAutores;
+        this.completarIdsGutendex = completarIdsGutendex;
+        this.metricas = metricas;
+        this.hilosPorDefecto = Math.max(1, hilosPorDefecto);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Respuesta(long linea, String subcomando, String consulta, double milisegundos,
+                            Integer resultados, Object datos, String error) {
+    }
+
+    public record Resumen(long consultas, long errores, double segundos, double consultasPorSegundo) {
+    }
+
+    // El primer argumento que no es una opción (--clave=valor) elige el modo por lotes
+    public static boolean esSubcomando(String... argumentos) {
+        return Arrays.stream(argumentos)
+                .filter(argumento -> !argumento.startsWith("--"))
+                .findFirst()
+                .filter(SUBCOMANDOS::contains)
+                .isPresent();
+    }
+
+    // Punto de entrada desde LiterAluraApplication: escribe directamente en el descriptor de la salida
+    // estándar, que así solo lleva JSON aunque System.out se haya desviado a la salida de errores
+    public void ejecutar(String... argumentos) {
+        List<String> consulta = new ArrayList<>();
+        String entrada = "-";
+        int hilos = hilosPorDefecto;
+        for (String argumento : argumentos) {
+            if (argumento.startsWith("--entrada=")) {
+                entrada = argumento.substring("--entrada=".length());
+            } else if (argumento.startsWith("--hilos=")) {
+                String valor = argumento.substring("--hilos=".length());
+                try {
+                    hilos = Integer.parseInt(valor);
+                } catch (NumberFormatException e) {
+                    System.err.println("Uso: --hilos=N con N un número entero de hilos (se recibió \"" + valor + "\")");
+                    codigoSalida = 2;
+                    return;
+                }
+            } else if (!argumento.startsWith("--")) {
+                consulta.add(argumento);
+            }
+        }
+        String subcomando = consulta.remove(0);
+        if (consulta.isEmpty() && SIN_CONSULTA.contains(subcomando)) {
+            consulta.add(subcomando);
+            subcomando = "lote";
+        }
+
+        Writer salida = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+        try (BufferedReader lector = consulta.isEmpty() ? abrir(entrada) : new BufferedReader(new StringReader(String.join(" ", consulta)))) {
+            Resumen resumen = ejecutar(subcomando, lector, hilos, salida);
+            System.err.printf("%d consultas, %d con error, %.2f s (%.1f consultas/s)%n",
+                    resumen.consultas(), resumen.errores(), resumen.segundos(), resumen.consultasPorSegundo());
+            codigoSalida = resumen.errores() > 0 ? 1 : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la entrada " + entrada, e);
+        }
+    }
+
+    // Con hilos <= 0 se usa uno solo
+    public Resumen ejecutar(String subcomando, BufferedReader entrada, int hilos, Writer salida) throws IOException {
+        hilos = Math.max(1, hilos);
+        long inicio = System.nanoTime();
+        Semaphore enEspera = new Semaphore(hilos * 2);
+        AtomicInteger errores = new AtomicInteger();
+        long consultas = 0;
+        long lineas = 0;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos,
+                Thread.ofPlatform().name("cli-", 1).daemon().factory());
+        try {
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                long numero = ++lineas;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                consultas++;
+                String texto = linea.strip();
+                enEspera.acquire();
+                ejecutor.execute(() -> {
+                    try {
+                        Respuesta respuesta = responder(numero, subcomando, texto);
+                        if (respuesta.error() != null) {
+                            errores.incrementAndGet();
+                        }
+                        escribir(salida, respuesta);
+                    } finally {
+                        enEspera.release();
+                    }
+                });
+            }
+            ejecutor.shutdown();
+            ejecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ejecución por lotes interrumpida", e);
+        } finally {
+            ejecutor.shutdownNow();
+            salida.flush();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return new Resumen(consultas, errores.get(), segundos, segundos > 0 ? consultas / segundos : 0);
+    }
+
+    private Respuesta responder(long numero, String subcomando, String consulta) {
+        if (subcomando.equals("lote")) {
+            String[] partes = consulta.split("\\s+", 2);
+            subcomando = partes[0];
+            consulta = partes.length > 1 ? partes[1] : "";
+        }
+        long inicio = System.nanoTime();
+        try {
+            String elegido = subcomando;
+            String argumento = consulta;
+            Object datos = metricas.medir("literalura_cli_segundos", () -> consultar(elegido, argumento), "subcomando", elegido);
+            Integer resultados = datos instanceof List<?> lista ? lista.size() : null;
+            return new Respuesta(numero, subcomando, consulta, milisegundos(inicio), resultados, datos, null);
+        } catch (RuntimeException e) {
+            return new Respuesta(numero, subcomando, consulta, milisegundos(inicio), null, null,
+                    e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    private Object consultar(String subcomando, String consulta) {
+        return switch (subcomando) {
+            case "buscar" -> motorBusqueda.buscarLibros(consulta.toLowerCase(), LIMITE_RESULTADOS);
+            case "autores-vivos" -> indiceVidasAutores.vivosEnAno(Integer.parseInt(consulta));
+            case "por-idioma" -> {
+                Set<String> idiomas = new LinkedHashSet<>();
+                for (String idioma : consulta.split("[,\\s]+")) {
+                    if (!idioma.isBlank()) {
+                        idiomas.add(idioma.toLowerCase());
+                    }
+                }
+                yield consultaCatalogo.paginaPorIdiomas(idiomas, 0, TAMANO_PAGINA);
+            }
+            case "top" -> top(consulta);
+            case "importar" -> {
+                Path archivo = Path.of(consulta);
+                if (!Files.isRegularFile(archivo)) {
+                    throw new IllegalArgumentException("No existe el archivo " + archivo.toAbsolutePath());
+                }
+                yield importadorVolcado.importar(archivo);
+            }
+            case "fusionar-autores" -> fusionAutores.fusionar();
+            case "completar-ids-gutendex" -> completarIdsGutendex.completar();
+            default -> throw new IllegalArgumentException("Subcomando desconocido: " + subcomando);
+        };
+    }
+
+    private List<LibroResumen> top(String consulta) {
+        if (consulta.isEmpty()) {
+            return rankingDescargas.top(10);
+        }
+        if (consulta.startsWith("autor:")) {
+            var autores = motorBusqueda.buscarAutores(consulta.substring("autor:".length()).strip().toLowerCase(), 1);
+            if (autores.isEmpty()) {
+                throw new IllegalArgumentException("No se encontró ningún autor con esa palabra clave");
+            }
+            return rankingDescargas.topPorAutor(autores.get(0).id(), 10);
+        }
+        return rankingDescargas.topPorIdioma(consulta.toLowerCase(), 10);
+    }
+
+    private void escribir(Writer salida, Respuesta respuesta) {
+        try {
+            String json = mapper.writeValueAsString(respuesta);
+            synchronized (salida) {
+                salida.write(json);
+                salida.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo convertir la respuesta a JSON", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la respuesta", e);
+        }
+    }
+
+    private static BufferedReader abrir(String entrada) throws IOException {
+        if (entrada.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(entrada), StandardCharsets.UTF_8);
+    }
+
+    private static double milisegundos(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return codigoSalida;
+    }
+}
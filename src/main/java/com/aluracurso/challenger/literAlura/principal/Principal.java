@@ -1,39 +1,78 @@
 package com.aluracurso.challenger.literAlura.principal;
 
 import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
 import com.aluracurso.challenger.literAlura.model.Datos;
 import com.aluracurso.challenger.literAlura.model.DatosLibros;
-import com.aluracurso.challenger.literAlura.model.Libro;
-import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
 import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import com.aluracurso.challenger.literAlura.service.ConsultaCatalogo;
 import com.aluracurso.challenger.literAlura.service.ConsumoAPI;
 import com.aluracurso.challenger.literAlura.service.ConvierteDatos;
+import com.aluracurso.challenger.literAlura.service.FacetaIdiomas;
+import com.aluracurso.challenger.literAlura.service.IMotorBusqueda;
+import com.aluracurso.challenger.literAlura.service.ImportadorCatalogo;
+import com.aluracurso.challenger.literAlura.service.ImportadorVolcado;
+import com.aluracurso.challenger.literAlura.service.IndiceVidasAutores;
+import com.aluracurso.challenger.literAlura.service.MetricasAplicacion;
+import com.aluracurso.challenger.literAlura.service.PalabrasCompletas;
+import com.aluracurso.challenger.literAlura.service.RankingDescargas;
+import com.aluracurso.challenger.literAlura.service.RegistroLibros;
+import com.aluracurso.challenger.literAlura.service.ServicioNoDisponibleException;
 import jakarta.transaction.Transactional;
-import org.hibernate.Hibernate;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class Principal {
 
     private static final String URL_BASE = "https://gutendex.com/books/";
+    private static final int LIMITE_RESULTADOS = 20;
+    private static final int TAMANO_PAGINA = 20;
     private final ConsumoAPI consumoAPI;
     private final ConvierteDatos conversor;
-    private final LibroRepository libroRepository;
     private final AutorRepository autorRepository;
+    private final RegistroLibros registroLibros;
+    private final ImportadorCatalogo importadorCatalogo;
+    private final ImportadorVolcado importadorVolcado;
+    private final IMotorBusqueda motorBusqueda;
+    private final ConsultaCatalogo consultaCatalogo;
+    private final FacetaIdiomas facetaIdiomas;
+    private final RankingDescargas rankingDescargas;
+    private final IndiceVidasAutores indiceVidasAutores;
+    private final MetricasAplicacion metricas;
+    private final String archivoVolcado;
     private final Scanner teclado = new Scanner(System.in);
 
-    public Principal(ConsumoAPI consumoAPI, ConvierteDatos conversor, LibroRepository libroRepository, AutorRepository autorRepository) {
+    public Principal(ConsumoAPI consumoAPI, ConvierteDatos conversor, AutorRepository autorRepository,
+                     RegistroLibros registroLibros, ImportadorCatalogo importadorCatalogo, IMotorBusqueda motorBusqueda,
+                     ConsultaCatalogo consultaCatalogo, FacetaIdiomas facetaIdiomas,
+                     RankingDescargas rankingDescargas, IndiceVidasAutores indiceVidasAutores,
+                     MetricasAplicacion metricas, ImportadorVolcado importadorVolcado,
+                     @Value("${literalura.volcado.archivo:pg_catalog.csv}") String archivoVolcado) {
         this.consumoAPI = consumoAPI;
         this.conversor = conversor;
-        this.libroRepository = libroRepository;
         this.autorRepository = autorRepository;
+        this.registroLibros = registroLibros;
+        this.importadorCatalogo = importadorCatalogo;
+        this.motorBusqueda = motorBusqueda;
+        this.consultaCatalogo = consultaCatalogo;
+        this.facetaIdiomas = facetaIdiomas;
+        this.rankingDescargas = rankingDescargas;
+        this.indiceVidasAutores = indiceVidasAutores;
+        this.metricas = metricas;
+        this.importadorVolcado = importadorVolcado;
+        this.archivoVolcado = archivoVolcado;
     }
 
     public void muestraElMenu() {
@@ -48,6 +87,8 @@ public class Principal {
                 4 - Buscar libros por idioma disponible
                 5 - Ver todos los libros disponibles
                 6 - Ver Top 10 de libros más descargados
+                7 - Importar el catálogo completo de Gutendex
+                8 - Importar el catálogo de Project Gutenberg desde un archivo (pg_catalog.csv)
                 0 - Salir
                 """;
             System.out.println(menu);
@@ -57,13 +98,17 @@ public class Principal {
                     opcion = teclado.nextInt();
                     teclado.nextLine(); // Limpiar el buffer de entrada
 
+                    // El tiempo de cada opción incluye lo que tarda el usuario en responder a sus preguntas;
+                    // el desglose por API, conversión y repositorio está en sus propias métricas
                     switch (opcion) {
-                        case 1 -> buscarLibro();
-                        case 2 -> buscarAutoresRegistrados();
-                        case 3 -> buscarLibroPorAutorYFecha();
-                        case 4 -> buscarLibroPorIdioma();
-                        case 5 -> listarLibrosDisponibles();
-                        case 6 -> mostrarTopLibros();
+                        case 1 -> medirOpcion("buscar_libro", this::buscarLibro);
+                        case 2 -> medirOpcion("buscar_autores", this::buscarAutoresRegistrados);
+                        case 3 -> medirOpcion("autores_vivos", this::buscarLibroPorAutorYFecha);
+                        case 4 -> medirOpcion("libros_por_idioma", this::buscarLibroPorIdioma);
+                        case 5 -> medirOpcion("listar_libros", this::listarLibrosDisponibles);
+                        case 6 -> medirOpcion("top_descargas", this::mostrarTopLibros);
+                        case 7 -> medirOpcion("importar_catalogo", this::importarCatalogoCompleto);
+                        case 8 -> medirOpcion("importar_volcado", this::importarVolcado);
                         case 0 -> {
                             System.out.println("Cerrando la aplicación...");
                             teclado.close(); // Cierra el Scanner
@@ -81,18 +126,17 @@ public class Principal {
         }
     }
 
+    private void medirOpcion(String opcion, Runnable accion) {
+        metricas.medir("literalura_menu_segundos", accion, "opcion", opcion);
+    }
+
     @Transactional
     private void buscarLibro() {
         System.out.println("Ingrese una palabra clave para buscar el libro:");
         String palabraClave = teclado.nextLine().trim().toLowerCase();
 
-        // Buscar en la base de datos usando LIKE
-        List<Libro> candidatos = libroRepository.findLibrosCandidatosPorTitulo(palabraClave);
-
-        // Filtrar por palabra completa
-        List<Libro> librosFiltrados = candidatos.stream()
-                .filter(libro -> contienePalabraCompleta(libro.getTitulo(), palabraClave))
-                .toList();
+        // Buscar en el catálogo local por palabras completas
+        List<LibroResumen> librosFiltrados = motorBusqueda.buscarLibros(palabraClave, LIMITE_RESULTADOS);
 
         if (!librosFiltrados.isEmpty()) {
             System.out.println("Libros encontrados en la base de datos:");
@@ -100,10 +144,17 @@ public class Principal {
         } else {
             System.out.println("No se encontró ningún libro en la base de datos. Buscando en la API...");
 
-            // Buscar en la API
-            Datos datosBusqueda = obtenerDatosLibros(URL_BASE + "?search=" + palabraClave.replace(" ", "+"));
+            // Buscar en la API; si no está disponible solo quedan los resultados locales
+            Datos datosBusqueda;
+            try {
+                datosBusqueda = obtenerDatosLibros(URL_BASE + "?search=" + palabraClave.replace(" ", "+"));
+            } catch (ServicioNoDisponibleException e) {
+                System.out.println("La API no está disponible en este momento (" + e.getMessage() + "). Inténtelo más tarde.");
+                return;
+            }
+            PalabrasCompletas palabra = PalabrasCompletas.de(palabraClave);
             Optional<DatosLibros> libroAPI = datosBusqueda.resultados().stream()
-                    .filter(libro -> contienePalabraCompleta(libro.titulo().toLowerCase(), palabraClave))
+                    .filter(libro -> palabra.coincide(libro.titulo()))
                     .findFirst();
 
             libroAPI.ifPresentOrElse(datosLibro -> {
@@ -115,27 +166,33 @@ public class Principal {
     }
 
     private void registrarLibroDesdeAPI(DatosLibros datosLibro) {
-        Libro nuevoLibro = new Libro(datosLibro);
-        List<Autor> autores = datosLibro.autor().stream()
-                .map(datosAutor -> autorRepository.findByNombre(datosAutor.nombre().toLowerCase().trim())
-                        .orElseGet(() -> {
-                            Autor autor = new Autor(datosAutor.nombre().toLowerCase().trim(),
-                                    datosAutor.fechaDeNacimiento(),
-                                    datosAutor.fechaDeFallecimiento());
-                            autorRepository.save(autor);
-                            return autor;
-                        })).toList();
-
-        nuevoLibro.setAutores(autores);
-
-        if (!libroRepository.existsByTituloIgnoreCase(nuevoLibro.getTitulo())) {
-            try {
-                libroRepository.save(nuevoLibro);
-                System.out.println("El libro ha sido registrado exitosamente.");
-            } catch (DataIntegrityViolationException e) {
-                System.out.println("Error al intentar registrar el libro: " + nuevoLibro.getTitulo());
-            }
+        if (registroLibros.registrar(datosLibro)) {
+            System.out.println("El libro ha sido registrado exitosamente.");
+        }
+    }
+
+    private void importarCatalogoCompleto() {
+        System.out.println("Importando el catálogo completo de Gutendex (se reanuda desde la última página confirmada)...");
+        var resultado = importadorCatalogo.importarCatalogo();
+        System.out.printf("Importación %s: %d páginas, %d fallidas, %d libros leídos, %d registrados (%.1f libros/s)%n",
+                resultado.completa() ? "completa" : "incompleta",
+                resultado.paginasProcesadas(), resultado.paginasFallidas(),
+                resultado.librosLeidos(), resultado.librosRegistrados(), resultado.librosPorSegundo());
+    }
+
+    private void importarVolcado() {
+        System.out.println("Ruta del catálogo (Enter para " + archivoVolcado + "):");
+        String ruta = teclado.nextLine().trim();
+        Path archivo = Path.of(ruta.isEmpty() ? archivoVolcado : ruta);
+        if (!Files.isRegularFile(archivo)) {
+            System.out.println("No existe el archivo " + archivo.toAbsolutePath()
+                    + ". Descárguelo de https://www.gutenberg.org/cache/epub/feeds/pg_catalog.csv.gz");
+            return;
         }
+        var resultado = importadorVolcado.importar(archivo);
+        System.out.printf("Importación %s: %d filas, %d libros leídos, %d registrados, %d lotes fallidos (%.1f libros/s)%n",
+                resultado.conCopy() ? "con COPY" : "por lotes", resultado.filasLeidas(), resultado.librosLeidos(),
+                resultado.librosRegistrados(), resultado.lotesFallidos(), resultado.librosPorSegundo());
     }
 
     @Transactional
@@ -143,90 +200,94 @@ public class Principal {
         System.out.println("Ingrese una palabra clave para buscar el autor:");
         String palabraClave = teclado.nextLine().trim().toLowerCase();
 
-        // Buscar en la base de datos con LIKE
-        List<Autor> candidatos = autorRepository.findByNombreCandidato(palabraClave);
-
-        // Validar palabras completas dentro del nombre
-        List<Autor> autoresFiltrados = candidatos.stream()
-                .filter(autor -> contienePalabraCompletaEnNombre(autor.getNombre(), palabraClave))
-                .toList();
+        // Buscar en el catálogo local por palabras completas dentro del nombre
+        List<AutorResumen> autoresFiltrados = motorBusqueda.buscarAutores(palabraClave, LIMITE_RESULTADOS);
 
         if (autoresFiltrados.isEmpty()) {
             System.out.println("No se encontró ningún autor con esa palabra clave.");
         } else {
             System.out.println("Autores encontrados:");
-            autoresFiltrados.forEach(this::mostrarDatosAutor);
+            autoresFiltrados.forEach(autor -> mostrarDatosAutor(autor, motorBusqueda.librosDeAutor(autor.id()).stream()
+                    .map(LibroResumen::titulo)
+                    .toList()));
         }
     }
 
 
-    private boolean contienePalabraCompleta(String texto, String palabraClave) {
-        String[] palabras = texto.split("\\s+");
-        for (String palabra : palabras) {
-            if (palabra.equalsIgnoreCase(palabraClave)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean contienePalabraCompletaEnNombre(String nombreCompleto, String palabraClave) {
-        // Separar por espacios o comas para cubrir nombres completos como "Melville, Herman"
-        String[] palabras = nombreCompleto.split("[\\s,]+");
-        for (String palabra : palabras) {
-            if (palabra.equalsIgnoreCase(palabraClave)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-
     private Datos obtenerDatosLibros(String url) {
         var json = consumoAPI.obtenerDatos(url);
         return conversor.obtenerDatos(json, Datos.class);
     }
 
-    private void mostrarInformacionLibro(Libro libro) {
+    private void mostrarInformacionLibro(LibroResumen libro) {
         System.out.println("\n****** Información del Libro ******");
-        System.out.println("Título: " + libro.getTitulo());
-        System.out.println("Idiomas: " + String.join(", ", libro.getIdiomas()));
-        System.out.println("Descargas: " + libro.getNumeroDeDescargas());
-        System.out.println("Autor(es): " + libro.getAutores().stream()
-                .map(Autor::getNombre)
+        System.out.println("Título: " + libro.titulo());
+        System.out.println("Idiomas: " + String.join(", ", libro.idiomas()));
+        System.out.println("Descargas: " + libro.numeroDeDescargas());
+        System.out.println("Autor(es): " + libro.autores().stream()
+                .map(AutorResumen::nombre)
                 .collect(Collectors.joining(", ")));
         System.out.println("***********************************\n");
     }
 
     private void mostrarDatosAutor(Autor autor) {
-        Hibernate.initialize(autor.getBibliografias());
+        mostrarDatosAutor(AutorResumen.de(autor), consultaCatalogo.librosDeAutor(autor.getId()).stream()
+                .map(LibroResumen::titulo)
+                .toList());
+    }
+
+    private void mostrarDatosAutor(AutorResumen autor, List<String> titulos) {
         System.out.println("\n****** Autor encontrado ******");
-        System.out.println("Nombre: " + autor.getNombre());
-        System.out.println("Fecha de Nacimiento: " + autor.getFechaDeNacimiento());
-        System.out.println("Fecha de Fallecimiento: " + autor.getFechaDeFallecimiento());
-        System.out.println("Libros: " + autor.getLibros().stream()
-                .map(Libro::getTitulo)
-                .collect(Collectors.joining(", ")));
+        System.out.println("Nombre: " + autor.nombre());
+        System.out.println("Fecha de Nacimiento: " + autor.fechaDeNacimiento());
+        System.out.println("Fecha de Fallecimiento: " + autor.fechaDeFallecimiento());
+        System.out.println("Libros: " + String.join(", ", titulos));
         System.out.println("*********************\n");
     }
 
 
+    // Top 10 desde RankingDescargas (en memoria), sin llamar a la API
     private void mostrarTopLibros() {
-        var datos = obtenerDatosLibros(URL_BASE);
-        System.out.println("  Top 10 de libros más descargados:\n");
-        var librosOrdenados = datos.resultados().stream()
-                .sorted(Comparator.comparing(DatosLibros::numeroDeDescargas).reversed())
-                .limit(10)
-                .toList();
-
-        for (int i = 0; i < librosOrdenados.size(); i++) {
-            var libro = librosOrdenados.get(i);
-            System.out.printf("%d. %s\n", i + 1, libro.titulo().toUpperCase());
+        System.out.println("""
+                Top 10 de libros más descargados del catálogo local:
+                1 - General
+                2 - Por idioma
+                3 - Por autor""");
+        String opcion = teclado.nextLine().trim();
+
+        List<LibroResumen> top;
+        switch (opcion) {
+            case "2" -> {
+                System.out.println("Ingrese el código del idioma (por ejemplo: en, es, fr):");
+                top = rankingDescargas.topPorIdioma(teclado.nextLine().trim().toLowerCase(), 10);
+            }
+            case "3" -> {
+                System.out.println("Ingrese una palabra clave del nombre del autor:");
+                var autores = motorBusqueda.buscarAutores(teclado.nextLine().trim().toLowerCase(), 1);
+                if (autores.isEmpty()) {
+                    System.out.println("No se encontró ningún autor con esa palabra clave.");
+                    return;
+                }
+                System.out.println("Autor: " + autores.get(0).nombre());
+                top = rankingDescargas.topPorAutor(autores.get(0).id(), 10);
+            }
+            default -> top = rankingDescargas.top(10);
+        }
+
+        if (top.isEmpty()) {
+            System.out.println("No hay libros registrados para esa consulta. Registre libros con las opciones 1 o 7.");
+            return;
+        }
+        for (int i = 0; i < top.size(); i++) {
+            var libro = top.get(i);
+            System.out.printf("%d. %s (%.0f descargas)\n", i + 1, libro.titulo().toUpperCase(),
+                    libro.numeroDeDescargas() == null ? 0 : libro.numeroDeDescargas());
         }
     }
 
+    // Muestra el catálogo por páginas en orden alfabético; cada página es una consulta por clave (sin OFFSET)
     private void listarLibrosDisponibles() {
-        var libros = libroRepository.findAll();
+        var libros = consultaCatalogo.paginaPorTitulo("", TAMANO_PAGINA);
 
         if (libros.isEmpty()) {
             System.out.println("No hay libros registrados en la base de datos.");
@@ -234,20 +295,35 @@ public class Principal {
         }
 
         System.out.println("Lista de libros registrados:");
-        libros.forEach(libro -> {
-            System.out.println("****** Libro *******");
-            System.out.println("Título: " + libro.getTitulo());
-            System.out.println("Autor(es): " + libro.getAutores().stream()
-                    .map(Autor::getNombre)
-                    .collect(Collectors.joining(", ")));
-            System.out.println("Idiomas: " + String.join(", ", libro.getIdiomas()));
-            System.out.println("Descargas: " + libro.getNumeroDeDescargas());
-            System.out.println("*********************\n");
-        });
+        while (true) {
+            libros.forEach(libro -> {
+                System.out.println("****** Libro *******");
+                System.out.println("Título: " + libro.titulo());
+                System.out.println("Autor(es): " + libro.autores().stream()
+                        .map(AutorResumen::nombre)
+                        .collect(Collectors.joining(", ")));
+                System.out.println("Idiomas: " + String.join(", ", libro.idiomas()));
+                System.out.println("Descargas: " + libro.numeroDeDescargas());
+                System.out.println("*********************\n");
+            });
+            if (libros.size() < TAMANO_PAGINA || !verSiguientePagina()) {
+                return;
+            }
+            libros = consultaCatalogo.paginaPorTitulo(libros.get(libros.size() - 1).titulo(), TAMANO_PAGINA);
+            if (libros.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private boolean verSiguientePagina() {
+        System.out.println("Pulse Enter para ver más o escriba 'q' para volver al menú:");
+        return !teclado.nextLine().trim().equalsIgnoreCase("q");
     }
 
+    // Los idiomas y sus conteos salen de FacetaIdiomas (en memoria); se pueden elegir varios a la vez
     private void buscarLibroPorIdioma() {
-        var idiomasDisponibles = libroRepository.findDistinctIdiomas();
+        var idiomasDisponibles = new ArrayList<>(facetaIdiomas.conteos().entrySet());
 
         if (idiomasDisponibles.isEmpty()) {
             System.out.println("No hay libros registrados en la base de datos para obtener idiomas.");
@@ -257,33 +333,42 @@ public class Principal {
         while (true) {
             System.out.println("Idiomas disponibles:");
             for (int i = 0; i < idiomasDisponibles.size(); i++) {
-                System.out.printf("%d - %s\n", i + 1, idiomasDisponibles.get(i));
+                var idioma = idiomasDisponibles.get(i);
+                System.out.printf("%d - %s (%d libros)\n", i + 1, idioma.getKey(), idioma.getValue());
             }
 
-            System.out.println("Seleccione un idioma (ingrese el número correspondiente):");
+            System.out.println("Seleccione uno o varios idiomas (números separados por comas):");
+            Set<String> idiomasSeleccionados = new LinkedHashSet<>();
             try {
-                int opcion = teclado.nextInt();
-                teclado.nextLine(); // Limpiar buffer
-
-                if (opcion < 1 || opcion > idiomasDisponibles.size()) {
-                    System.out.println("Opción inválida. Por favor, seleccione un número válido.");
-                    continue;
+                for (String parte : teclado.nextLine().split(",")) {
+                    int opcion = Integer.parseInt(parte.trim());
+                    if (opcion < 1 || opcion > idiomasDisponibles.size()) {
+                        throw new NumberFormatException();
+                    }
+                    idiomasSeleccionados.add(idiomasDisponibles.get(opcion - 1).getKey());
                 }
+            } catch (NumberFormatException e) {
+                System.out.println("Opción inválida. Por favor, seleccione números de la lista.");
+                continue;
+            }
 
-                String idiomaSeleccionado = idiomasDisponibles.get(opcion - 1);
-                var librosPorIdioma = libroRepository.findLibrosPorIdioma(idiomaSeleccionado);
-
-                if (librosPorIdioma.isEmpty()) {
-                    System.out.println("No se encontraron libros en el idioma seleccionado.");
-                } else {
-                    System.out.println("Libros disponibles en " + idiomaSeleccionado + ":");
-                    librosPorIdioma.forEach(libro -> System.out.println(" - " + libro.getTitulo()));
+            var pagina = consultaCatalogo.paginaPorIdiomas(idiomasSeleccionados, 0, TAMANO_PAGINA);
+            if (pagina.libros().isEmpty()) {
+                System.out.println("No se encontraron libros en los idiomas seleccionados.");
+                return;
+            }
+            System.out.println("Libros disponibles en " + pagina.conteos().entrySet().stream()
+                    .map(conteo -> conteo.getKey() + " (" + conteo.getValue() + ")")
+                    .collect(Collectors.joining(", ")) + ":");
+            while (!pagina.libros().isEmpty()) {
+                pagina.libros().forEach(libro -> System.out.println(" - " + libro.titulo()));
+                if (pagina.libros().size() < TAMANO_PAGINA || !verSiguientePagina()) {
+                    return;
                 }
-                break;
-            } catch (Exception e) {
-                System.out.println("Entrada no válida. Por favor, ingrese un número válido.");
-                teclado.nextLine(); // Limpiar buffer en caso de error
+                long ultimoId = pagina.libros().get(pagina.libros().size() - 1).id();
+                pagina = consultaCatalogo.paginaPorIdiomas(idiomasSeleccionados, ultimoId, TAMANO_PAGINA);
             }
+            return;
         }
     }
 
@@ -295,7 +380,8 @@ public class Principal {
             int anoSeleccionado = teclado.nextInt();
             teclado.nextLine();
 
-            var autoresVivos = autorRepository.findAutoresVivosEnAno(anoSeleccionado);
+            // Árbol de intervalos en memoria: solo id y nombre, sin cargar entidades
+            var autoresVivos = indiceVidasAutores.vivosEnAno(anoSeleccionado);
 
             if (autoresVivos.isEmpty()) {
                 System.out.println("No se encontraron autores vivos en el año " + anoSeleccionado + ".");
@@ -305,7 +391,7 @@ public class Principal {
             System.out.println("Autores vivos en el año " + anoSeleccionado + ":");
             for (int i = 0; i < autoresVivos.size(); i++) {
                 var autor = autoresVivos.get(i);
-                System.out.printf("%d - %s\n", i + 1, autor.getNombre());
+                System.out.printf("%d - %s\n", i + 1, autor.nombre());
             }
 
             System.out.println("Seleccione un autor (ingrese el número correspondiente):");
@@ -317,8 +403,7 @@ public class Principal {
                 return;
             }
 
-            var autorSeleccionado = autoresVivos.get(opcion - 1);
-            mostrarDatosAutor(autorSeleccionado);
+            autorRepository.findById(autoresVivos.get(opcion - 1).id()).ifPresent(this::mostrarDatosAutor);
         } catch (Exception e) {
             System.out.println("Entrada no válida. Por favor, ingrese un número válido.");
             teclado.nextLine(); // Limpiar buffer
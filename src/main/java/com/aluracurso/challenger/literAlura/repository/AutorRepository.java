@@ -1,25 +1,29 @@
 package com.aluracurso.challenger.literAlura.repository;
 
 import com.aluracurso.challenger.literAlura.model.Autor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface AutorRepository extends JpaRepository<Autor, Long> {
 
-    Optional<Autor> findByNombre(String nombre);
+    // Autores que faltan en ClavesAutores: por su clave o, si se guardaron antes de tenerla, por su nombre
+    List<Autor> findByClaveInOrNombreIn(Collection<String> claves, Collection<String> nombres);
 
-    @Query("SELECT a FROM Autor a WHERE LOWER(a.nombre) LIKE LOWER(CONCAT('%', :palabra, '%'))")
-    List<Autor> findByNombreCandidato(@Param("palabra") String palabra);
-
-    // Encuentra autores vivos en un año específico
-    @Query("""
-        SELECT a FROM Autor a 
-        WHERE a.fechaDeNacimiento <= :ano 
-        AND (a.fechaDeFallecimiento IS NULL OR a.fechaDeFallecimiento >= :ano)
-    """)
-    List<Autor> findAutoresVivosEnAno(@Param("ano") int ano);
+    // Búsqueda por palabras completas sobre el índice GIN idx_autores_nombre_fts (db/migracion/V2__indices_de_busqueda.sql)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "autores")
+    })
+    @Query(value = """
+        SELECT * FROM autores
+        WHERE to_tsvector('simple', nombre) @@ plainto_tsquery('simple', :palabra)
+    """, nativeQuery = true)
+    List<Autor> findAutoresPorPalabra(@Param("palabra") String palabra);
 }
@@ -1,31 +1,130 @@
 package com.aluracurso.challenger.literAlura.repository;
 
 import com.aluracurso.challenger.literAlura.model.Libro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface LibroRepository extends JpaRepository<Libro, Long> {
 
-    @Query("SELECT l FROM Libro l WHERE LOWER(l.titulo) LIKE LOWER(CONCAT('%', :palabra, '%'))")
-    List<Libro> findLibrosCandidatosPorTitulo(String palabra);
+    // Búsqueda por palabras completas sobre el índice GIN idx_libros_titulo_fts (db/migracion/V2__indices_de_busqueda.sql):
+    // solo los ids, para cargarlos después con findConAutoresByIdIn.
+    // Las consultas con HINT_CACHEABLE guardan su resultado en la caché de consultas (CacheSegundoNivel);
+    // a las nativas se les indica la tabla que leen para que Hibernate las invalide al escribir en ella.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "libros")
+    })
+    @Query(value = """
+    SELECT id FROM libros
+    WHERE to_tsvector('simple', titulo) @@ plainto_tsquery('simple', :palabra)
+    """, nativeQuery = true)
+    List<Long> findIdsPorPalabra(String palabra);
 
-    //*********************************
+    // Listado completo: libros, bibliografías y autores en una sola consulta
+    @Query("SELECT DISTINCT l FROM Libro l LEFT JOIN FETCH l.bibliografias b LEFT JOIN FETCH b.autor")
+    List<Libro> findAllConAutores();
 
-    // Mantener los idiomas únicos
-    @Query("SELECT DISTINCT i FROM Libro l JOIN l.idiomas i")
-    List<String> findDistinctIdiomas();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = {"bibliografias", "bibliografias.autor"})
+    List<Libro> findConAutoresByIdIn(Collection<Long> ids);
+
+    // Listado por páginas en orden alfabético: seek sobre el índice único de titulo.
+    // Primero los ids de la página y después los libros con findConAutoresByIdIn,
+    // porque un fetch join con límite obligaría a Hibernate a paginar en memoria.
+    @Query("SELECT l.id FROM Libro l WHERE l.titulo > :despuesDe ORDER BY l.titulo")
+    List<Long> findIdsPorTituloDespuesDe(String despuesDe, Limit limite);
+
+    // Libros registrados después de la marca de agua de la instantánea de índices, por páginas de id
+    @Query("SELECT l.id FROM Libro l WHERE l.id > :despuesDe ORDER BY l.id")
+    List<Long> findIdsDespuesDe(Long despuesDe, Limit limite);
+
+    // Cuántos libros hay hasta la marca de agua y la suma de sus ids: si no coinciden con los de la
+    // instantánea es que se borraron o se insertaron libros sin pasar por los índices
+    long countByIdLessThanEqual(Long marcaDeAgua);
+
+    @Query("SELECT COALESCE(SUM(l.id), 0) FROM Libro l WHERE l.id <= :marcaDeAgua")
+    long sumarIdsHasta(Long marcaDeAgua);
+
+    // Lo que cambia de un libro después de registrarlo, hasta la marca de agua de la instantánea:
+    // las descargas (ActualizadorDescargas) y sus autores (fusión de autores), sin cargar entidades
+    @Query("SELECT l.id, l.numeroDeDescargas FROM Libro l WHERE l.id <= :marcaDeAgua")
+    List<Object[]> findDescargasHasta(Long marcaDeAgua);
+
+    @Query("""
+    SELECT b.libro.id, a.id, a.nombre, a.fechaDeNacimiento, a.fechaDeFallecimiento
+    FROM Bibliografia b JOIN b.autor a
+    WHERE b.libro.id <= :marcaDeAgua
+    ORDER BY b.id
+    """)
+    List<Object[]> findAutoresHasta(Long marcaDeAgua);
+
+    // Recorrido completo con cursor en el servidor: el driver trae las filas de FETCH_SIZE en FETCH_SIZE
+    // (en PostgreSQL solo dentro de una transacción). Las filas de un mismo libro llegan seguidas por el ORDER BY.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // Idiomas y autores van en el mismo fetch join porque la subconsulta de idiomas no se aplica a un cursor.
+    @Query("""
+    SELECT l FROM Libro l
+    LEFT JOIN FETCH l.idiomas
+    LEFT JOIN FETCH l.bibliografias b
+    LEFT JOIN FETCH b.autor
+    ORDER BY l.id
+    """)
+    Stream<Libro> streamAllConAutores();
+
+    // Detalle de autor: sus libros con todos los coautores
+    @Query("""
+    SELECT DISTINCT l FROM Libro l
+    LEFT JOIN FETCH l.bibliografias b
+    LEFT JOIN FETCH b.autor
+    WHERE l.id IN (SELECT b2.libro.id FROM Bibliografia b2 WHERE b2.autor.id = :autorId)
+    """)
+    List<Libro> findLibrosDeAutor(Long autorId);
+
+    // Libros de uno o varios idiomas, por páginas: ids posteriores a despuesDe (seek sobre la clave primaria, sin OFFSET).
+    // Comparación exacta sobre el índice idx_idiomas_libro_idioma (idioma, libro_id) en lugar de LIKE '%x%'.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+    SELECT DISTINCT l.id FROM Libro l
+    JOIN l.idiomas i
+    WHERE i IN :idiomas
+    AND l.id > :despuesDe
+    ORDER BY l.id
+    """)
+    List<Long> findIdsPorIdiomasDespuesDe(Collection<String> idiomas, Long despuesDe, Limit limite);
+
+    // Más descargados (general, por idioma y por autor) sobre el índice idx_libros_descargas (db/migracion/V2__indices_de_busqueda.sql);
+    // solo se usan para reconstruir RankingDescargas cuando una de sus tablas queda incompleta
+    @Query("SELECT l.id FROM Libro l ORDER BY l.numeroDeDescargas DESC NULLS LAST, l.id")
+    List<Long> findIdsMasDescargados(Limit limite);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT l.id FROM Libro l JOIN l.idiomas i WHERE i = :idioma ORDER BY l.numeroDeDescargas DESC NULLS LAST, l.id")
+    List<Long> findIdsMasDescargadosPorIdioma(String idioma, Limit limite);
 
-    // Libros por idioma
     @Query("""
-    SELECT l FROM Libro l 
-    JOIN l.idiomas i 
-    WHERE LOWER(i) LIKE LOWER(CONCAT('%', :idioma, '%'))
+    SELECT l.id FROM Bibliografia b JOIN b.libro l
+    WHERE b.autor.id = :autorId
+    ORDER BY l.numeroDeDescargas DESC NULLS LAST, l.id
     """)
-    List<Libro> findLibrosPorIdioma(String idioma);
+    List<Long> findIdsMasDescargadosPorAutor(Long autorId, Limit limite);
 
-    // Verificar si un libro existe con un título específico
-    boolean existsByTituloIgnoreCase(String titulo);
+    // Títulos (en minúsculas) de un lote que ya están registrados. En PostgreSQL va por el índice único
+    // idx_libros_titulo_minusculas sobre lower(titulo) (db/migracion/V6__titulo_unico_sin_mayusculas.sql);
+    // el índice de la restricción única de titulo no sirve para comparar LOWER(titulo).
+    @Query("SELECT LOWER(l.titulo) FROM Libro l WHERE LOWER(l.titulo) IN :titulos")
+    Set<String> findTitulosExistentes(Collection<String> titulos);
 }
@@ -0,0 +1,265 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Refresca en segundo plano el número de descargas de los libros guardados. Recorre la tabla libros
+// por id en lotes de hasta 32 (una página de Gutendex con el filtro ids=), compara con lo guardado y
+// escribe en un único batch solo las filas que cambiaron. Cada ronda reparte sus lotes en un pool
+// fijo de hilos, las peticiones pasan por un limitador propio en peticiones por minuto para no
+// competir con el menú, y el último id confirmado se guarda en un checkpoint para reanudar.
+@Service
+public class ActualizadorDescargas {
+
+    private static final String URL_BASE = "https://gutendex.com/books/";
+    private static final int LIBROS_POR_PAGINA = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConsumoAPI consumoAPI;
+    private final ConvierteDatos conversor;
+    private final ConsultaCatalogo consultaCatalogo;
+    private final IndicesCatalogo indicesCatalogo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean habilitada;
+    private final int hilos;
+    private final int tamanoLote;
+    private final Path archivoCheckpoint;
+    private final LimitadorTasa limitador;
+    private final ExecutorService ejecutor;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private final AtomicLong librosRevisados = new AtomicLong();
+    private final AtomicLong filasCambiadas = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final long inicio = System.currentTimeMillis();
+    private volatile long ultimaSincronizacionCompleta;
+
+    public ActualizadorDescargas(JdbcTemplate jdbcTemplate, ConsumoAPI consumoAPI, ConvierteDatos conversor,
+                                 ConsultaCatalogo consultaCatalogo, IndicesCatalogo indicesCatalogo,
+                                 EntityManagerFactory entityManagerFactory,
+                                 @Value("${literalura.descargas.habilitada:true}") boolean habilitada,
+                                 @Value("${literalura.descargas.hilos:2}") int hilos,
+                                 @Value("${literalura.descargas.tamano-lote:32}") int tamanoLote,
+                                 @Value("${literalura.descargas.peticiones-por-minuto:30}") double peticionesPorMinuto,
+                                 @Value("${literalura.descargas.checkpoint:literalura-descargas.checkpoint}") Path archivoCheckpoint) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.consumoAPI = consumoAPI;
+        this.conversor = conversor;
+        this.consultaCatalogo = consultaCatalogo;
+        this.indicesCatalogo = indicesCatalogo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.habilitada = habilitada;
+        this.hilos = Math.max(1, hilos);
+        // Gutendex devuelve como mucho 32 libros por página: un lote mayor necesitaría seguir "next"
+        this.tamanoLote = Math.clamp(tamanoLote, 1, LIBROS_POR_PAGINA);
+        this.archivoCheckpoint = archivoCheckpoint;
+        // Sin ráfaga y sin límite de espera: los hilos del actualizador esperan su turno en vez de fallar
+        this.limitador = new LimitadorTasa(peticionesPorMinuto / 60, 1, Duration.ofDays(1));
+        this.ejecutor = Executors.newFixedThreadPool(this.hilos, Thread.ofPlatform().name("descargas-", 1).daemon().factory());
+    }
+
+    public record ResultadoSincronizacion(int librosRevisados, int filasCambiadas, int lotesFallidos, boolean completa) {
+    }
+
+    // Fila de la tabla libros con lo necesario para comparar
+    private record FilaLibro(long id, long idGutendex, Double numeroDeDescargas) {
+    }
+
+    @Scheduled(initialDelayString = "${literalura.descargas.espera-inicial:PT5M}",
+            fixedDelayString = "${literalura.descargas.intervalo:PT6H}")
+    public void sincronizarProgramado() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            ResultadoSincronizacion resultado = sincronizar();
+            if (resultado.filasCambiadas() > 0 || resultado.lotesFallidos() > 0) {
+                System.out.printf("Descargas actualizadas: %d libros revisados, %d cambiados, %d lotes fallidos%n",
+                        resultado.librosRevisados(), resultado.filasCambiadas(), resultado.lotesFallidos());
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error al actualizar las descargas: " + e.getMessage());
+        }
+    }
+
+    // Una pasada desde el checkpoint hasta el final de la tabla. Si un lote falla la pasada se detiene
+    // tras confirmar los lotes anteriores, así la siguiente vuelve a empezar por el que falló
+    public ResultadoSincronizacion sincronizar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return new ResultadoSincronizacion(0, 0, 0, false);
+        }
+        try {
+            long ultimoId = leerCheckpoint();
+            int revisados = 0;
+            int cambiados = 0;
+            while (true) {
+                List<FilaLibro> filas = leerFilas(ultimoId, hilos * tamanoLote);
+                if (filas.isEmpty()) {
+                    borrarCheckpoint();
+                    ultimaSincronizacionCompleta = System.currentTimeMillis();
+                    return new ResultadoSincronizacion(revisados, cambiados, 0, true);
+                }
+
+                List<List<FilaLibro>> lotes = new ArrayList<>();
+                for (int desde = 0; desde < filas.size(); desde += tamanoLote) {
+                    lotes.add(filas.subList(desde, Math.min(desde + tamanoLote, filas.size())));
+                }
+                List<Future<Integer>> resultados = ejecutor.invokeAll(lotes.stream()
+                        .map(lote -> (Callable<Integer>) () -> sincronizarLote(lote))
+                        .toList());
+
+                for (int i = 0; i < lotes.size(); i++) {
+                    List<FilaLibro> lote = lotes.get(i);
+                    try {
+                        cambiados += resultados.get(i).get();
+                    } catch (ExecutionException e) {
+                        lotesFallidos.incrementAndGet();
+                        System.out.println("Error al actualizar las descargas desde el libro " + lote.getFirst().id()
+                                + ": " + e.getCause().getMessage());
+                        return new ResultadoSincronizacion(revisados, cambiados, 1, false);
+                    }
+                    revisados += lote.size();
+                    librosRevisados.addAndGet(lote.size());
+                    ultimoId = lote.getLast().id();
+                    escribirCheckpoint(ultimoId);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Actualización de descargas interrumpida", e);
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    // Los libros sin idGutendex (guardados por versiones anteriores) no se pueden pedir con ids=:
+    // se quedan fuera hasta que CompletarIdsGutendex les encuentre el id
+    private List<FilaLibro> leerFilas(long despuesDe, int limite) {
+        return jdbcTemplate.query(
+                "SELECT id, id_gutendex, numero_de_descargas FROM libros"
+                        + " WHERE id > ? AND id_gutendex IS NOT NULL ORDER BY id LIMIT ?",
+                (fila, numero) -> new FilaLibro(fila.getLong("id"), fila.getLong("id_gutendex"),
+                        fila.getObject("numero_de_descargas", Double.class)),
+                despuesDe, limite);
+    }
+
+    // Devuelve el número de filas escritas; los libros que Gutendex ya no devuelve se dejan como están
+    private int sincronizarLote(List<FilaLibro> lote) {
+        String ids = lote.stream().map(fila -> Long.toString(fila.idGutendex())).collect(Collectors.joining(","));
+        Map<Long, Double> remotas = new HashMap<>();
+        // Sin turno (el hilo se interrumpió al cerrar o la espera superaría el máximo) el lote cuenta como
+        // fallido: la pasada se detiene y el checkpoint queda en el último lote confirmado
+        if (!limitador.adquirir()) {
+            throw new RuntimeException("El limitador de peticiones no concedió turno para el lote");
+        }
+        consumoAPI.obtenerFlujo(URL_BASE + "?ids=" + ids,
+                json -> conversor.obtenerLibros(json, (DatosLibros libro) -> {
+                    if (libro.idGutendex() != null) {
+                        remotas.put(libro.idGutendex(), libro.numeroDeDescargas());
+                    }
+                }));
+
+        List<Object[]> cambios = new ArrayList<>();
+        List<Long> cambiados = new ArrayList<>();
+        for (FilaLibro fila : lote) {
+            Double remota = remotas.get(fila.idGutendex());
+            if (remota != null && !Objects.equals(remota, fila.numeroDeDescargas())) {
+                cambios.add(new Object[]{remota, fila.id()});
+                cambiados.add(fila.id());
+            }
+        }
+        if (cambios.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("UPDATE libros SET numero_de_descargas = ? WHERE id = ?", cambios);
+        filasCambiadas.addAndGet(cambios.size());
+        olvidarDeLaCache(cambiados);
+        indicesCatalogo.actualizar(consultaCatalogo.librosPorId(cambiados));
+        return cambios.size();
+    }
+
+    // El UPDATE por JDBC no pasa por Hibernate: se sacan de la caché de segundo nivel los libros
+    // cambiados y los resultados de consultas, entre ellos los más descargados por idioma
+    private void olvidarDeLaCache(List<Long> ids) {
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Libro.class, id));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    public long getLibrosRevisados() {
+        return librosRevisados.get();
+    }
+
+    public long getFilasCambiadas() {
+        return filasCambiadas.get();
+    }
+
+    public long getLotesFallidos() {
+        return lotesFallidos.get();
+    }
+
+    // Tiempo desde la última pasada completa (o desde el arranque si aún no terminó ninguna)
+    public Duration getRetraso() {
+        long referencia = ultimaSincronizacionCompleta == 0 ? inicio : ultimaSincronizacionCompleta;
+        return Duration.ofMillis(System.currentTimeMillis() - referencia);
+    }
+
+    @PreDestroy
+    void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    private long leerCheckpoint() {
+        try {
+            if (Files.exists(archivoCheckpoint)) {
+                return Long.parseLong(Files.readString(archivoCheckpoint).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Checkpoint de descargas no válido, se empieza desde el principio: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private void escribirCheckpoint(long id) {
+        try {
+            Path temporal = archivoCheckpoint.resolveSibling(archivoCheckpoint.getFileName() + ".tmp");
+            Files.writeString(temporal, Long.toString(id));
+            Files.move(temporal, archivoCheckpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar el checkpoint de descargas: " + e.getMessage(), e);
+        }
+    }
+
+    private void borrarCheckpoint() {
+        try {
+            Files.deleteIfExists(archivoCheckpoint);
+        } catch (IOException e) {
+            System.out.println("No se pudo borrar el checkpoint de descargas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché LRU de respuestas de la API por URL, limitada en entradas y en bytes, con TTL por entrada.
+// Guarda ETag y Last-Modified para que ConsumoAPI revalide con peticiones condicionales
+// y, si se configura un directorio, copia cada respuesta a disco para sobrevivir reinicios.
+@Component
+public class CacheRespuestas {
+
+    public record Entrada(String cuerpo, String etag, String ultimaModificacion, long expiraEn) {
+
+        public boolean vigente() {
+            return System.currentTimeMillis() < expiraEn;
+        }
+
+        private long bytes() {
+            return (long) cuerpo.length() * Character.BYTES;
+        }
+    }
+
+    private final int maximoEntradas;
+    private final long maximoBytes;
+    private final Duration ttl;
+    private final Path directorioDisco;
+
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesEnMemoria;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong revalidaciones = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    public CacheRespuestas(@Value("${literalura.cache.maximo-entradas:256}") int maximoEntradas,
+                           @Value("${literalura.cache.maximo-bytes:16777216}") long maximoBytes,
+                           @Value("${literalura.cache.ttl:PT10M}") Duration ttl,
+                           @Value("${literalura.cache.directorio:}") String directorioDisco) {
+        this.maximoEntradas = maximoEntradas;
+        this.maximoBytes = maximoBytes;
+        this.ttl = ttl;
+        this.directorioDisco = directorioDisco.isBlank() ? null : Path.of(directorioDisco);
+    }
+
+    // Devuelve la entrada aunque esté vencida (sirve para revalidar); solo cuenta como acierto si está vigente
+    public Entrada buscar(String url) {
+        Entrada entrada;
+        synchronized (this) {
+            entrada = entradas.get(url);
+        }
+        if (entrada == null) {
+            entrada = leerDeDisco(url);
+            if (entrada != null) {
+                agregarEnMemoria(url, entrada);
+            }
+        }
+        if (entrada != null && entrada.vigente()) {
+            aciertos.incrementAndGet();
+        } else {
+            fallos.incrementAndGet();
+        }
+        return entrada;
+    }
+
+    public void guardar(String url, String cuerpo, String etag, String ultimaModificacion) {
+        Entrada entrada = new Entrada(cuerpo, etag, ultimaModificacion, System.currentTimeMillis() + ttl.toMillis());
+        agregarEnMemoria(url, entrada);
+        escribirEnDisco(url, entrada);
+    }
+
+    // La API respondió 304: el cuerpo guardado sigue siendo válido por otro TTL
+    public Entrada revalidar(String url, Entrada entrada) {
+        revalidaciones.incrementAndGet();
+        Entrada renovada = new Entrada(entrada.cuerpo(), entrada.etag(), entrada.ultimaModificacion(),
+                System.currentTimeMillis() + ttl.toMillis());
+        agregarEnMemoria(url, renovada);
+        escribirEnDisco(url, renovada);
+        return renovada;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getRevalidaciones() {
+        return revalidaciones.get();
+    }
+
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    public synchronized int getEntradas() {
+        return entradas.size();
+    }
+
+    public synchronized long getBytesEnMemoria() {
+        return bytesEnMemoria;
+    }
+
+    private synchronized void agregarEnMemoria(String url, Entrada entrada) {
+        if (entrada.bytes() > maximoBytes) {
+            return;
+        }
+        Entrada anterior = entradas.put(url, entrada);
+        if (anterior != null) {
+            bytesEnMemoria -= anterior.bytes();
+        }
+        bytesEnMemoria += entrada.bytes();
+
+        Iterator<Map.Entry<String, Entrada>> masAntiguas = entradas.entrySet().iterator();
+        while ((entradas.size() > maximoEntradas || bytesEnMemoria > maximoBytes) && masAntiguas.hasNext()) {
+            bytesEnMemoria -= masAntiguas.next().getValue().bytes();
+            masAntiguas.remove();
+            desalojos.incrementAndGet();
+        }
+    }
+
+    private Entrada leerDeDisco(String url) {
+        if (directorioDisco == null) {
+            return null;
+        }
+        Path archivo = directorioDisco.resolve(nombreArchivo(url));
+        if (!Files.exists(archivo)) {
+            return null;
+        }
+        try (DataInputStream entrada = new DataInputStream(Files.newInputStream(archivo))) {
+            if (!url.equals(entrada.readUTF())) {
+                return null;
+            }
+            String etag = entrada.readUTF();
+            String ultimaModificacion = entrada.readUTF();
+            long expiraEn = entrada.readLong();
+            byte[] cuerpo = entrada.readNBytes(entrada.readInt());
+            return new Entrada(new String(cuerpo, StandardCharsets.UTF_8),
+                    etag.isEmpty() ? null : etag, ultimaModificacion.isEmpty() ? null : ultimaModificacion, expiraEn);
+        } catch (IOException e) {
+            System.out.println("No se pudo leer la caché en disco de " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void escribirEnDisco(String url, Entrada entrada) {
+        if (directorioDisco == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorioDisco);
+            Path archivo = directorioDisco.resolve(nombreArchivo(url));
+            Path temporal = Files.createTempFile(directorioDisco, "respuesta", ".tmp");
+            try (DataOutputStream salida = new DataOutputStream(Files.newOutputStream(temporal))) {
+                byte[] cuerpo = entrada.cuerpo().getBytes(StandardCharsets.UTF_8);
+                salida.writeUTF(url);
+                salida.writeUTF(entrada.etag() == null ? "" : entrada.etag());
+                salida.writeUTF(entrada.ultimaModificacion() == null ? "" : entrada.ultimaModificacion());
+                salida.writeLong(entrada.expiraEn());
+                salida.writeInt(cuerpo.length);
+                salida.write(cuerpo);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("No se pudo guardar la caché en disco de " + url + ": " + e.getMessage());
+        }
+    }
+
+    private static String nombreArchivo(String url) {
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(resumen) + ".cache";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
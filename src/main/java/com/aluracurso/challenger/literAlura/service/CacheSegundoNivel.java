@@ -0,0 +1,144 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Proveedor de la caché de segundo nivel de Hibernate dentro del proceso: cada región es un LRU
+// limitado en entradas. Las entidades y colecciones marcadas con @Cache comparten el límite de
+// entidades, los resultados de consultas cacheables el de consultas, y la región de marcas de
+// tiempo (última escritura de cada tabla, con la que Hibernate invalida las consultas) no tiene
+// límite, porque perder una marca haría pasar por vigente un resultado viejo.
+// Hibernate recibe esta misma instancia como hibernate.cache.region.factory_class.
+@Component
+public class CacheSegundoNivel extends RegionFactoryTemplate implements HibernatePropertiesCustomizer {
+
+    private final int maximoEntidades;
+    private final int maximoConsultas;
+    private final Map<String, RegionLru> regiones = new ConcurrentHashMap<>();
+
+    public CacheSegundoNivel(@Value("${literalura.cache-entidades.maximo-entradas:10000}") int maximoEntidades,
+                             @Value("${literalura.cache-entidades.maximo-consultas:1000}") int maximoConsultas) {
+        this.maximoEntidades = maximoEntidades;
+        this.maximoConsultas = maximoConsultas;
+    }
+
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, this);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions opciones, Map<String, Object> configuracion) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regiones.values().forEach(RegionLru::evictData);
+        regiones.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig configuracion,
+                                                                    DomainDataRegionBuildingContext contexto) {
+        return region(configuracion.getRegionName(), maximoEntidades);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String nombre, SessionFactoryImplementor sessionFactory) {
+        return region(nombre, maximoConsultas);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String nombre, SessionFactoryImplementor sessionFactory) {
+        return region(nombre, Integer.MAX_VALUE);
+    }
+
+    private RegionLru region(String nombre, int maximo) {
+        return regiones.computeIfAbsent(nombre, clave -> new RegionLru(maximo));
+    }
+
+    public Set<String> getRegiones() {
+        return new TreeSet<>(regiones.keySet());
+    }
+
+    public long getEntradas(String region) {
+        RegionLru lru = regiones.get(region);
+        return lru == null ? 0 : lru.tamano();
+    }
+
+    public long getDesalojos(String region) {
+        RegionLru lru = regiones.get(region);
+        return lru == null ? 0 : lru.desalojos.get();
+    }
+
+    // Las operaciones son lecturas y escrituras cortas de un mapa: basta con sincronizar cada una
+    private static final class RegionLru implements DomainDataStorageAccess {
+
+        private final AtomicLong desalojos = new AtomicLong();
+        private final LinkedHashMap<Object, Object> entradas;
+
+        private RegionLru(int maximo) {
+            this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Object> masAntigua) {
+                    if (size() > maximo) {
+                        desalojos.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object clave, SharedSessionContractImplementor sesion) {
+            return entradas.get(clave);
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object clave, Object valor, SharedSessionContractImplementor sesion) {
+            entradas.put(clave, valor);
+        }
+
+        @Override
+        public synchronized boolean contains(Object clave) {
+            return entradas.containsKey(clave);
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entradas.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object clave) {
+            entradas.remove(clave);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        private synchronized int tamano() {
+            return entradas.size();
+        }
+    }
+}
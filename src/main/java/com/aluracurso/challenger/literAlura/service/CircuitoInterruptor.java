@@ -0,0 +1,104 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Tras 'umbralFallos' fallos seguidos el circuito se abre y rechaza las llamadas durante 'tiempoAbierto';
+// después deja pasar 'pruebas' llamadas (semiabierto): si todas van bien se cierra, si una falla se reabre.
+public class CircuitoInterruptor {
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMI_ABIERTO
+    }
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final long tiempoAbiertoMillis;
+    private final int pruebas;
+    private final LongSupplier reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosSeguidos;
+    private long abiertoDesde;
+    private int pruebasEnCurso;
+    private int pruebasCorrectas;
+
+    private final Map<Estado, AtomicLong> transiciones = new EnumMap<>(Estado.class);
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public CircuitoInterruptor(String nombre, int umbralFallos, Duration tiempoAbierto, int pruebas) {
+        this(nombre, umbralFallos, tiempoAbierto, pruebas, System::currentTimeMillis);
+    }
+
+    CircuitoInterruptor(String nombre, int umbralFallos, Duration tiempoAbierto, int pruebas, LongSupplier reloj) {
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.tiempoAbiertoMillis = tiempoAbierto.toMillis();
+        this.pruebas = pruebas;
+        this.reloj = reloj;
+        for (Estado posible : Estado.values()) {
+            transiciones.put(posible, new AtomicLong());
+        }
+    }
+
+    public synchronized boolean permitir() {
+        if (estado == Estado.ABIERTO) {
+            if (reloj.getAsLong() - abiertoDesde < tiempoAbiertoMillis) {
+                rechazadas.incrementAndGet();
+                return false;
+            }
+            cambiarA(Estado.SEMI_ABIERTO);
+        }
+        if (estado == Estado.SEMI_ABIERTO) {
+            if (pruebasEnCurso >= pruebas) {
+                rechazadas.incrementAndGet();
+                return false;
+            }
+            pruebasEnCurso++;
+        }
+        return true;
+    }
+
+    public synchronized void registrarExito() {
+        fallosSeguidos = 0;
+        if (estado == Estado.SEMI_ABIERTO && ++pruebasCorrectas >= pruebas) {
+            cambiarA(Estado.CERRADO);
+        }
+    }
+
+    public synchronized void registrarFallo() {
+        if (estado == Estado.SEMI_ABIERTO) {
+            cambiarA(Estado.ABIERTO);
+        } else if (estado == Estado.CERRADO && ++fallosSeguidos >= umbralFallos) {
+            cambiarA(Estado.ABIERTO);
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    // Veces que el circuito ha pasado al estado indicado
+    public long getTransiciones(Estado destino) {
+        return transiciones.get(destino).get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    private void cambiarA(Estado nuevo) {
+        System.out.println("Circuito " + nombre + ": " + estado + " -> " + nuevo);
+        estado = nuevo;
+        fallosSeguidos = 0;
+        pruebasEnCurso = 0;
+        pruebasCorrectas = 0;
+        if (nuevo == Estado.ABIERTO) {
+            abiertoDesde = reloj.getAsLong();
+        }
+        transiciones.get(nuevo).incrementAndGet();
+    }
+}
@@ -0,0 +1,104 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Clave canónica del nombre de un autor y mapa en memoria clave -> id de los autores del catálogo.
+// "Twain, Mark", "Mark Twain" y "TWAIN, Mark." comparten clave ("mark twain"): se descompone con
+// NFKD y se quitan los acentos, se descarta lo que va entre paréntesis (nombres completos como en
+// "Lovecraft, H. P. (Howard Phillips)"), se separa en palabras sin signos y se ordenan, lo que
+// cubre a la vez "Apellido, Nombre" y "Nombre Apellido".
+// Los hilos que registran libros crean los autores que faltan con las franjas de sus claves
+// bloqueadas (ver RegistroAutores), así dos hilos no insertan el mismo autor a la vez.
+@Component
+public class ClavesAutores implements IndiceCatalogo {
+
+    private static final Pattern ENTRE_PARENTESIS = Pattern.compile("\\([^)]*\\)");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int FRANJAS = 64;
+
+    private volatile Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+
+    public ClavesAutores() {
+        Arrays.setAll(franjas, i -> new ReentrantLock());
+    }
+
+    public static String clave(String nombre) {
+        String sinParentesis = ENTRE_PARENTESIS.matcher(nombre).replaceAll(" ");
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(sinParentesis, Normalizer.Form.NFKD)).replaceAll("");
+        String clave = Arrays.stream(SEPARADORES.split(sinAcentos.toLowerCase(Locale.ROOT)))
+                .filter(palabra -> !palabra.isEmpty())
+                .sorted()
+                .collect(Collectors.joining(" "));
+        // Un nombre hecho solo de signos se queda como está
+        return clave.isEmpty() ? nombre.toLowerCase(Locale.ROOT).trim() : clave;
+    }
+
+    @Override
+    public void cargar(Collection<LibroResumen> libros) {
+        Map<String, Long> nuevos = new ConcurrentHashMap<>();
+        libros.forEach(libro -> registrar(nuevos, libro));
+        ids = nuevos;
+    }
+
+    @Override
+    public void indexar(LibroResumen libro) {
+        registrar(ids, libro);
+    }
+
+    public Long id(String clave) {
+        return ids.get(clave);
+    }
+
+    // Si dos autores guardados comparten clave (duplicados anteriores a la clave) gana el id menor,
+    // que es el que conserva FusionAutores
+    public void registrar(String clave, long id) {
+        ids.merge(clave, id, Math::min);
+    }
+
+    public int tamano() {
+        return ids.size();
+    }
+
+    // Ejecuta la acción con las franjas de todas las claves bloqueadas, tomadas en orden para no
+    // cruzarse con otro hilo que bloquee un conjunto que se solape
+    public <T> T bloqueando(Collection<String> claves, Supplier<T> accion) {
+        int[] elegidas = claves.stream().mapToInt(ClavesAutores::franja).distinct().sorted().toArray();
+        int bloqueadas = 0;
+        try {
+            for (int franja : elegidas) {
+                franjas[franja].lock();
+                bloqueadas++;
+            }
+            return accion.get();
+        } finally {
+            for (int i = bloqueadas - 1; i >= 0; i--) {
+                franjas[elegidas[i]].unlock();
+            }
+        }
+    }
+
+    private static int franja(String clave) {
+        return Math.floorMod(clave.hashCode(), FRANJAS);
+    }
+
+    private void registrar(Map<String, Long> destino, LibroResumen libro) {
+        for (AutorResumen autor : libro.autores()) {
+            destino.merge(clave(autor.nombre()), autor.id(), Math::min);
+        }
+    }
+}
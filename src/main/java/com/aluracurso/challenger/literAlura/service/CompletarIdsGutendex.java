@@ -0,0 +1,143 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Tarea única (subcomando completar-ids-gutendex) para los libros guardados antes de que se guardara
+// idGutendex, que ActualizadorDescargas no puede refrescar: busca cada título en Gutendex con ?search=
+// y, si entre los resultados hay exactamente un libro con ese mismo título (sin distinguir mayúsculas),
+// le asigna su id. Los que no tienen coincidencia, o tienen varias, se dejan como están; el id no se
+// asigna si otro libro ya lo tiene. Las peticiones pasan por un limitador propio, como las del actualizador.
+@Service
+public class CompletarIdsGutendex {
+
+    private static final String URL_BASE = "https://gutendex.com/books/";
+    private static final int FILAS_POR_CONSULTA = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConsumoAPI consumoAPI;
+    private final ConvierteDatos conversor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LimitadorTasa limitador;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    public CompletarIdsGutendex(JdbcTemplate jdbcTemplate, ConsumoAPI consumoAPI, ConvierteDatos conversor,
+                                EntityManagerFactory entityManagerFactory,
+                                @Value("${literalura.descargas.peticiones-por-minuto:30}") double peticionesPorMinuto) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.consumoAPI = consumoAPI;
+        this.conversor = conversor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.limitador = new LimitadorTasa(peticionesPorMinuto / 60, 1, Duration.ofDays(1));
+    }
+
+    public record ResultadoCompletado(int librosRevisados, int idsAsignados, int sinCoincidencia, int ambiguos,
+                                      int idsYaUsados, boolean completa) {
+    }
+
+    // Fila de la tabla libros sin idGutendex
+    private record FilaLibro(long id, String titulo) {
+    }
+
+    // Una pasada por todos los libros sin idGutendex, en orden de id. Si una petición falla la pasada se
+    // detiene con lo asignado hasta ahí; la siguiente vuelve a empezar por los que siguen sin id
+    public ResultadoCompletado completar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una pasada de completar-ids-gutendex en curso");
+        }
+        int revisados = 0;
+        int asignados = 0;
+        int sinCoincidencia = 0;
+        int ambiguos = 0;
+        int yaUsados = 0;
+        try {
+            long ultimoId = 0;
+            while (true) {
+                List<FilaLibro> filas = leerFilas(ultimoId);
+                if (filas.isEmpty()) {
+                    return new ResultadoCompletado(revisados, asignados, sinCoincidencia, ambiguos, yaUsados, true);
+                }
+                for (FilaLibro fila : filas) {
+                    Set<Long> candidatos;
+                    try {
+                        candidatos = buscar(fila.titulo());
+                    } catch (RuntimeException e) {
+                        System.out.println("Error al buscar en Gutendex el libro " + fila.id() + ": " + e.getMessage());
+                        return new ResultadoCompletado(revisados, asignados, sinCoincidencia, ambiguos, yaUsados, false);
+                    }
+                    revisados++;
+                    ultimoId = fila.id();
+                    if (candidatos.isEmpty()) {
+                        sinCoincidencia++;
+                    } else if (candidatos.size() > 1) {
+                        ambiguos++;
+                    } else if (asignar(fila.id(), candidatos.iterator().next())) {
+                        asignados++;
+                    } else {
+                        yaUsados++;
+                    }
+                }
+            }
+        } finally {
+            if (asignados > 0) {
+                entityManagerFactory.getCache().evict(Libro.class);
+            }
+            enCurso.set(false);
+        }
+    }
+
+    // Se cuenta en cada lectura: el medidor se lee una vez por exportación de métricas
+    public long getLibrosSinIdGutendex() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM libros WHERE id_gutendex IS NULL", Long.class);
+    }
+
+    private List<FilaLibro> leerFilas(long despuesDe) {
+        return jdbcTemplate.query(
+                "SELECT id, titulo FROM libros WHERE id > ? AND id_gutendex IS NULL ORDER BY id LIMIT ?",
+                (fila, numero) -> new FilaLibro(fila.getLong("id"), fila.getString("titulo")),
+                despuesDe, FILAS_POR_CONSULTA);
+    }
+
+    // Ids de Gutendex de los resultados de la primera página cuyo título coincide entero con el buscado
+    private Set<Long> buscar(String titulo) {
+        if (!limitador.adquirir()) {
+            throw new RuntimeException("El limitador de peticiones no concedió turno");
+        }
+        Set<Long> candidatos = new LinkedHashSet<>();
+        consumoAPI.obtenerFlujo(URL_BASE + "?search=" + URLEncoder.encode(titulo, StandardCharsets.UTF_8),
+                json -> conversor.obtenerLibros(json, (DatosLibros libro) -> {
+                    if (libro.idGutendex() != null && libro.titulo() != null
+                            && libro.titulo().strip().equalsIgnoreCase(titulo.strip())) {
+                        candidatos.add(libro.idGutendex());
+                    }
+                }));
+        return candidatos;
+    }
+
+    // false si el id ya es de otro libro (también si otro proceso lo acaba de asignar)
+    private boolean asignar(long id, long idGutendex) {
+        try {
+            return jdbcTemplate.update("""
+                    UPDATE libros SET id_gutendex = ?
+                    WHERE id = ? AND id_gutendex IS NULL
+                    AND NOT EXISTS (SELECT 1 FROM libros otro WHERE otro.id_gutendex = ?)
+                    """, idGutendex, id, idGutendex) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
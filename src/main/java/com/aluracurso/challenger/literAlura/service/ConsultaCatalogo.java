@@ -0,0 +1,150 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Lecturas del catálogo local con su plan de carga explícito. Las relaciones de las entidades son
+// perezosas: cada método trae con fetch join lo que va a mostrar y convierte a LibroResumen dentro
+// de la transacción, así el número de consultas no crece con el número de libros.
+@Service
+@Transactional(readOnly = true)
+public class ConsultaCatalogo {
+
+    private final LibroRepository libroRepository;
+    private final EntityManager entityManager;
+    private final FacetaIdiomas facetaIdiomas;
+
+    public ConsultaCatalogo(LibroRepository libroRepository, EntityManager entityManager, FacetaIdiomas facetaIdiomas) {
+        this.libroRepository = libroRepository;
+        this.entityManager = entityManager;
+        this.facetaIdiomas = facetaIdiomas;
+    }
+
+    public record PaginaIdiomas(List<LibroResumen> libros, Map<String, Integer> conteos) {
+    }
+
+    public List<LibroResumen> listarLibros() {
+        return resumir(libroRepository.findAllConAutores(), Comparator.comparing(LibroResumen::id));
+    }
+
+    // Página del listado alfabético que empieza después de despuesDe ("" para la primera).
+    // Si trae menos de tamano libros es la última.
+    public List<LibroResumen> paginaPorTitulo(String despuesDe, int tamano) {
+        return librosEnOrden(libroRepository.findIdsPorTituloDespuesDe(despuesDe, Limit.of(tamano)));
+    }
+
+    // Página de libros en cualquiera de los idiomas indicados con id mayor que despuesDe (0 para la primera),
+    // junto con el número de libros de cada idioma elegido, que sale de FacetaIdiomas sin consultar la base de datos
+    public PaginaIdiomas paginaPorIdiomas(Set<String> idiomas, long despuesDe, int tamano) {
+        Map<String, Integer> conteos = new TreeMap<>();
+        idiomas.forEach(idioma -> conteos.put(idioma, facetaIdiomas.conteo(idioma)));
+        if (idiomas.isEmpty()) {
+            return new PaginaIdiomas(List.of(), conteos);
+        }
+        return new PaginaIdiomas(librosEnOrden(libroRepository.findIdsPorIdiomasDespuesDe(idiomas, despuesDe, Limit.of(tamano))),
+                conteos);
+    }
+
+    // Recorre todo el catálogo con un cursor sin retener las entidades: cada libro se suelta
+    // del contexto de persistencia en cuanto se convierte, así la memoria no depende del tamaño del catálogo
+    public void recorrerLibros(Consumer<LibroResumen> consumidor) {
+        try (Stream<Libro> libros = libroRepository.streamAllConAutores()) {
+            libros.forEach(libro -> {
+                consumidor.accept(LibroResumen.de(libro));
+                entityManager.detach(libro);
+            });
+        }
+    }
+
+    // Página de libros con id mayor que despuesDe, en orden de id: lo que falta en una instantánea de los índices
+    public List<LibroResumen> librosDespuesDe(long despuesDe, int tamano) {
+        return librosEnOrden(libroRepository.findIdsDespuesDe(despuesDe, Limit.of(tamano)));
+    }
+
+    // true si la base de datos tiene hasta marcaDeAgua exactamente los libros con esos ids (por número y suma)
+    public boolean coincideHasta(long marcaDeAgua, long libros, long sumaIds) {
+        return libroRepository.countByIdLessThanEqual(marcaDeAgua) == libros
+                && libroRepository.sumarIdsHasta(marcaDeAgua) == sumaIds;
+    }
+
+    // Los libros de una instantánea con las descargas y los autores que tienen ahora en la base de datos.
+    // Esos campos cambian sin que cambien los ids (ActualizadorDescargas, fusionar-autores desde otro
+    // proceso, escrituras posteriores al último guardado), así que coincideHasta no lo detecta; de la
+    // instantánea solo se aprovechan el título y los idiomas, que no cambian después del alta.
+    public List<LibroResumen> refrescar(List<LibroResumen> libros, long marcaDeAgua) {
+        Map<Long, Double> descargas = new HashMap<>();
+        for (Object[] fila : libroRepository.findDescargasHasta(marcaDeAgua)) {
+            descargas.put((Long) fila[0], (Double) fila[1]);
+        }
+        // Un AutorResumen por autor, compartido por todos sus libros como en la instantánea
+        Map<Long, AutorResumen> porId = new HashMap<>();
+        Map<Long, List<AutorResumen>> autores = new HashMap<>();
+        for (Object[] fila : libroRepository.findAutoresHasta(marcaDeAgua)) {
+            AutorResumen autor = porId.computeIfAbsent((Long) fila[1],
+                    id -> new AutorResumen(id, (String) fila[2], (Integer) fila[3], (Integer) fila[4]));
+            autores.computeIfAbsent((Long) fila[0], id -> new ArrayList<>()).add(autor);
+        }
+        List<LibroResumen> refrescados = new ArrayList<>(libros.size());
+        for (LibroResumen libro : libros) {
+            refrescados.add(new LibroResumen(libro.id(), libro.titulo(), libro.idiomas(), descargas.get(libro.id()),
+                    List.copyOf(autores.getOrDefault(libro.id(), List.of()))));
+        }
+        return refrescados;
+    }
+
+    public List<LibroResumen> masDescargados(int limite) {
+        return librosEnOrden(libroRepository.findIdsMasDescargados(Limit.of(limite)));
+    }
+
+    public List<LibroResumen> masDescargadosPorIdioma(String idioma, int limite) {
+        return librosEnOrden(libroRepository.findIdsMasDescargadosPorIdioma(idioma, Limit.of(limite)));
+    }
+
+    public List<LibroResumen> masDescargadosPorAutor(Long autorId, int limite) {
+        return librosEnOrden(libroRepository.findIdsMasDescargadosPorAutor(autorId, Limit.of(limite)));
+    }
+
+    public List<LibroResumen> librosPorId(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return resumir(libroRepository.findConAutoresByIdIn(ids), Comparator.comparing(LibroResumen::id));
+    }
+
+    public List<LibroResumen> librosDeAutor(Long autorId) {
+        return resumir(libroRepository.findLibrosDeAutor(autorId), Comparator.comparing(LibroResumen::id));
+    }
+
+    // Conserva el orden en que la base de datos devolvió los ids: es el que define la clave de la página siguiente.
+    // Un libro borrado entre las dos consultas no llega a la segunda y se omite.
+    private List<LibroResumen> librosEnOrden(List<Long> ids) {
+        Map<Long, LibroResumen> porId = new HashMap<>();
+        librosPorId(ids).forEach(libro -> porId.put(libro.id(), libro));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static List<LibroResumen> resumir(List<Libro> libros, Comparator<LibroResumen> orden) {
+        return libros.stream()
+                .map(LibroResumen::de)
+                .sorted(orden)
+                .toList();
+    }
+}
@@ -1,26 +1,330 @@
 package com.aluracurso.challenger.literAlura.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 @Service
 public class ConsumoAPI {
-    private final HttpClient client = HttpClient.newHttpClient();
+    private final HttpClient client;
+    private final CacheRespuestas cache;
+    private final LimitadorTasa limitador;
+    private final CircuitoInterruptor circuito;
+    private final MetricasAplicacion metricas;
+    private final Duration tiempoMaximoPeticion;
+    private final int maximoEnVuelo;
+    // Peticiones en vuelo y turnos esperando un hueco, protegidos por el monitor de turnosEnEspera
+    private int enVuelo;
+    private final ArrayDeque<CompletableFuture<Void>> turnosEnEspera = new ArrayDeque<>();
+    private final int maximoReintentos;
+    private final Duration esperaBase;
+
+    public ConsumoAPI(CacheRespuestas cache) {
+        this(cache, new LimitadorTasa(0, 1, Duration.ZERO), new CircuitoInterruptor("gutendex", 5, Duration.ofSeconds(30), 1),
+                new MetricasAplicacion(), Duration.ofSeconds(5), Duration.ofSeconds(20), 16, 3, Duration.ofMillis(500));
+    }
+
+    @Autowired
+    public ConsumoAPI(CacheRespuestas cache, LimitadorTasa limitador, CircuitoInterruptor circuito, MetricasAplicacion metricas,
+                      @Value("${literalura.api.tiempo-conexion:PT5S}") Duration tiempoConexion,
+                      @Value("${literalura.api.tiempo-peticion:PT20S}") Duration tiempoMaximoPeticion,
+                      @Value("${literalura.api.maximo-en-vuelo:16}") int maximoEnVuelo,
+                      @Value("${literalura.api.maximo-reintentos:3}") int maximoReintentos,
+                      @Value("${literalura.api.espera-base:PT0.5S}") Duration esperaBase) {
+        this.cache = cache;
+        this.limitador = limitador;
+        this.circuito = circuito;
+        this.metricas = metricas;
+        this.tiempoMaximoPeticion = tiempoMaximoPeticion;
+        this.maximoEnVuelo = Math.max(1, maximoEnVuelo);
+        this.maximoReintentos = maximoReintentos;
+        this.esperaBase = esperaBase;
+        // Un único cliente reutiliza las conexiones y, si el servidor lo admite, multiplexa sobre HTTP/2
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(tiempoConexion)
+                .build();
+    }
 
     public String obtenerDatos(String url) {
-        HttpRequest request = HttpRequest.newBuilder()
+        try {
+            return obtenerDatosAsync(url).join();
+        } catch (CompletionException e) {
+            throw error(e.getCause());
+        }
+    }
+
+    // Versión no bloqueante: con la caché vigente se completa al instante; si no, la espera del limitador,
+    // el turno entre las maximoEnVuelo peticiones simultáneas y la petición corren sin ocupar el hilo que llama
+    public CompletableFuture<String> obtenerDatosAsync(String url) {
+        long inicio = System.nanoTime();
+        CacheRespuestas.Entrada guardada = cache.buscar(url);
+        if (guardada != null && guardada.vigente()) {
+            metricas.registrarTiempo("literalura_api_peticion_segundos", System.nanoTime() - inicio,
+                    "operacion", "datos", "estado", "cache");
+            return CompletableFuture.completedFuture(guardada.cuerpo());
+        }
+
+        HttpRequest.Builder peticion = nuevaPeticion(url);
+        // Si hay una copia vencida se pide solo si cambió; un 304 la renueva sin volver a descargarla
+        if (guardada != null && guardada.etag() != null) {
+            peticion.header("If-None-Match", guardada.etag());
+        }
+        if (guardada != null && guardada.ultimaModificacion() != null) {
+            peticion.header("If-Modified-Since", guardada.ultimaModificacion());
+        }
+
+        CompletableFuture<String> respuesta = enviar(peticion.build(), HttpResponse.BodyHandlers.ofByteArray(), 0)
+                .whenComplete((response, error) -> {
+                    metricas.registrarTiempo("literalura_api_peticion_segundos", System.nanoTime() - inicio,
+                            "operacion", "datos", "estado", estado(response, error));
+                    if (response != null) {
+                        metricas.contar("literalura_api_bytes_total", response.body().length, "operacion", "datos");
+                    }
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() == 304 && guardada != null) {
+                        return cache.revalidar(url, guardada).cuerpo();
+                    }
+                    // Un 404 o el último 429/5xx tras los reintentos es un error, no datos: así falla
+                    // como en obtenerFlujo y, si hay copia guardada, se usa la copia
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Error al obtener datos de la API: estado HTTP " + response.statusCode());
+                    }
+                    String cuerpo = texto(response.body(), response.headers());
+                    cache.guardar(url, cuerpo,
+                            response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null));
+                    return cuerpo;
+                });
+        if (guardada == null) {
+            return respuesta;
+        }
+        // Con la API caída, con error o rechazada localmente es preferible una copia vencida a no responder
+        return respuesta.exceptionally(error -> {
+            System.out.println("API no disponible, se usa la copia guardada de " + url);
+            return guardada.cuerpo();
+        });
+    }
+
+    // Entrega el cuerpo como InputStream a medida que llega, sin pasar por la caché:
+    // pensado para páginas que se leen una sola vez (importación masiva)
+    // El tiempo medido incluye la lectura del cuerpo por el lector, que es cuando llegan los bytes
+    public <T> T obtenerFlujo(String url, Function<InputStream, T> lector) {
+        long inicio = System.nanoTime();
+        String estado = "error";
+        ContadorBytes contador = null;
+        try {
+            HttpResponse<InputStream> response = enviar(nuevaPeticion(url).build(),
+                    HttpResponse.BodyHandlers.ofInputStream(), 0).join();
+            estado = Integer.toString(response.statusCode());
+            contador = new ContadorBytes(response.body());
+            try (InputStream cuerpo = descomprimir(contador, response.headers())) {
+                if (response.statusCode() != 200) {
+                    throw new RuntimeException("Error al obtener datos de la API: estado HTTP " + response.statusCode());
+                }
+                return lector.apply(cuerpo);
+            }
+        } catch (CompletionException e) {
+            estado = estado(null, e.getCause());
+            throw error(e.getCause());
+        } catch (IOException e) {
+            throw error(e);
+        } finally {
+            metricas.registrarTiempo("literalura_api_peticion_segundos", System.nanoTime() - inicio,
+                    "operacion", "flujo", "estado", estado);
+            if (contador != null) {
+                metricas.contar("literalura_api_bytes_total", contador.leidos, "operacion", "flujo");
+            }
+        }
+    }
+
+    private HttpRequest.Builder nuevaPeticion(String url) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .build();
+                .timeout(tiempoMaximoPeticion)
+                .header("Accept-Encoding", "gzip");
+    }
+
+    // Pasa por el limitador de tasa y el circuito, limita las peticiones simultáneas
+    // y reintenta 429/5xx con espera exponencial y jitter. No bloquea: la espera del limitador
+    // se cumple con delayedExecutor y el turno en vuelo se recibe cuando otra petición termina.
+    private <T> CompletableFuture<HttpResponse<T>> enviar(HttpRequest peticion, HttpResponse.BodyHandler<T> manejador, int intento) {
+        long espera = limitador.reservar();
+        if (espera < 0) {
+            metricas.contar("literalura_api_intentos_total", "estado", "limitado");
+            return CompletableFuture.failedFuture(
+                    new ServicioNoDisponibleException("Límite de peticiones a Gutendex alcanzado"));
+        }
+        if (espera == 0) {
+            return enviarSinLimite(peticion, manejador, intento);
+        }
+        return CompletableFuture
+                .runAsync(() -> { }, CompletableFuture.delayedExecutor(espera, TimeUnit.NANOSECONDS))
+                .thenCompose(nada -> enviarSinLimite(peticion, manejador, intento));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> enviarSinLimite(HttpRequest peticion, HttpResponse.BodyHandler<T> manejador,
+                                                                int intento) {
+        if (!circuito.permitir()) {
+            metricas.contar("literalura_api_intentos_total", "estado", "circuito_abierto");
+            return CompletableFuture.failedFuture(
+                    new ServicioNoDisponibleException("Gutendex no responde, circuito abierto"));
+        }
+        return ocuparTurno().thenCompose(nada -> {
+            CompletableFuture<HttpResponse<T>> respuesta;
+            try {
+                respuesta = client.sendAsync(peticion, manejador);
+            } catch (RuntimeException e) {
+                liberarTurno();
+                circuito.registrarFallo();
+                return CompletableFuture.failedFuture(e);
+            }
+            return respuesta.whenComplete((response, error) -> {
+                liberarTurno();
+                metricas.contar("literalura_api_intentos_total", "estado", estado(response, error));
+                if (error != null || response.statusCode() == 429 || response.statusCode() >= 500) {
+                    circuito.registrarFallo();
+                } else {
+                    circuito.registrarExito();
+                }
+            });
+        })
+                .thenCompose(response -> {
+                    int estado = response.statusCode();
+                    if ((estado == 429 || estado >= 500) && intento < maximoReintentos) {
+                        descartar(response);
+                        long espera = esperaAntesDeReintentar(response, intento);
+                        return CompletableFuture
+                                .runAsync(() -> { }, CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS))
+                                .thenCompose(nada -> enviar(peticion, manejador, intento + 1));
+                    }
+                    return CompletableFuture.completedFuture(response);
+                });
+    }
+
+    // Un hueco entre las maximoEnVuelo peticiones simultáneas: al instante si lo hay, si no cuando
+    // termine otra petición, que lo pasa al primer turno en espera sin dejarlo libre entre medias
+    private CompletableFuture<Void> ocuparTurno() {
+        synchronized (turnosEnEspera) {
+            if (enVuelo < maximoEnVuelo) {
+                enVuelo++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> turno = new CompletableFuture<>();
+            turnosEnEspera.add(turno);
+            return turno;
+        }
+    }
 
+    private void liberarTurno() {
+        CompletableFuture<Void> siguiente;
+        synchronized (turnosEnEspera) {
+            siguiente = turnosEnEspera.poll();
+            if (siguiente == null) {
+                enVuelo--;
+                return;
+            }
+        }
+        siguiente.complete(null);
+    }
+
+    // Código HTTP de la respuesta o, si no la hubo, el motivo del fallo
+    private static String estado(HttpResponse<?> response, Throwable error) {
+        if (response != null) {
+            return Integer.toString(response.statusCode());
+        }
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa instanceof ServicioNoDisponibleException ? "rechazada" : "error";
+    }
+
+    private long esperaAntesDeReintentar(HttpResponse<?> response, int intento) {
+        long maxima = esperaBase.toMillis() << intento;
+        long retryAfter = 0;
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException("Error al obtener datos de la API: " + e.getMessage(), e);
+            retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(0) * 1000;
+        } catch (NumberFormatException e) {
+            // Retry-After con fecha HTTP: se usa la espera exponencial
+        }
+        return Math.max(retryAfter, ThreadLocalRandom.current().nextLong(maxima / 2, maxima + 1));
+    }
+
+    private static void descartar(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream cuerpo) {
+            try {
+                cuerpo.close();
+            } catch (IOException ignorada) {
+                // la respuesta se descarta igualmente
+            }
+        }
+    }
+
+    // Bytes recibidos por la red, antes de descomprimir
+    private static final class ContadorBytes extends FilterInputStream {
+        private long leidos;
+
+        private ContadorBytes(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int leido = super.read();
+            if (leido >= 0) {
+                leidos++;
+            }
+            return leido;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            int leido = super.read(destino, desde, cantidad);
+            if (leido > 0) {
+                leidos += leido;
+            }
+            return leido;
+        }
+    }
+
+    private static String texto(byte[] cuerpo, HttpHeaders cabeceras) {
+        try (InputStream entrada = descomprimir(new ByteArrayInputStream(cuerpo), cabeceras)) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream descomprimir(InputStream cuerpo, HttpHeaders cabeceras) throws IOException {
+        boolean gzip = cabeceras.firstValue("Content-Encoding")
+                .map(codificacion -> codificacion.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(cuerpo) : cuerpo;
+    }
+
+    private static RuntimeException error(Throwable causa) {
+        if (causa instanceof RuntimeException e) {
+            return e;
         }
+        return new RuntimeException("Error al obtener datos de la API: " + causa.getMessage(), causa);
     }
 }
@@ -1,9 +1,17 @@
 package com.aluracurso.challenger.literAlura.service;
 
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.DatosPagina;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
 @Component
 public class ConvierteDatos implements IConvierteDatos {
     private final ObjectMapper mapper = new ObjectMapper();
@@ -16,4 +24,38 @@ public class ConvierteDatos implements IConvierteDatos {
             throw new RuntimeException("Error al convertir JSON a objeto: " + e.getMessage(), e);
         }
     }
+
+    // Recorre la página con el JsonParser de Jackson y entrega cada libro de "results" en cuanto
+    // se completa, sin construir el String de la respuesta ni la lista completa de resultados
+    @Override
+    public DatosPagina obtenerLibros(InputStream json, Consumer<DatosLibros> consumidor) {
+        try (JsonParser parser = mapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Error al convertir JSON a objeto: se esperaba un objeto");
+            }
+            Integer total = null;
+            String siguiente = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                switch (campo) {
+                    case "count" -> total = valor == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    case "next" -> siguiente = parser.getValueAsString();
+                    case "results" -> {
+                        if (valor == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                consumidor.accept(mapper.readValue(parser, DatosLibros.class));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new DatosPagina(total, siguiente);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al convertir JSON a objeto: " + e.getMessage(), e);
+        }
+    }
 }
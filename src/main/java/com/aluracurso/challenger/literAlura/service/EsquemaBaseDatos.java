@@ -0,0 +1,28 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class EsquemaBaseDatos {
+
+    @Bean
+    public MigracionesEsquema migracionesEsquema(DataSource dataSource,
+                                                 @Value("${literalura.migraciones.habilitadas:true}") boolean habilitadas) {
+        MigracionesEsquema migraciones = new MigracionesEsquema(dataSource, "db/migracion");
+        if (habilitadas) {
+            migraciones.migrar();
+        }
+        return migraciones;
+    }
+
+    // Hibernate no arranca hasta que el esquema está al día, como hace Spring Boot con Flyway
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryTrasMigraciones() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migracionesEsquema");
+    }
+}
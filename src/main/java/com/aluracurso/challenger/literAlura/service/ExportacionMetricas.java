@@ -0,0 +1,153 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.ToDoubleFunction;
+
+// Registra como medidores el estado de los componentes que ya llevan sus propios contadores
+// (caché, circuito, limitador, actualizador de descargas, libros sin id de Gutendex), las estadísticas de Hibernate y el pool
+// de Hikari, y vuelca periódicamente todas las métricas a un archivo si literalura.metricas.archivo no está vacío.
+@Component
+public class ExportacionMetricas {
+
+    private final MetricasAplicacion metricas;
+    private final CacheRespuestas cache;
+    private final CircuitoInterruptor circuito;
+    private final LimitadorTasa limitador;
+    private final ActualizadorDescargas actualizadorDescargas;
+    private final CompletarIdsGutendex completarIdsGutendex;
+    private final CacheSegundoNivel cacheSegundoNivel;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final String archivo;
+
+    public ExportacionMetricas(MetricasAplicacion metricas, CacheRespuestas cache, CircuitoInterruptor circuito,
+                               LimitadorTasa limitador, ActualizadorDescargas actualizadorDescargas,
+                               CompletarIdsGutendex completarIdsGutendex,
+                               CacheSegundoNivel cacheSegundoNivel,
+                               EntityManagerFactory entityManagerFactory, DataSource dataSource,
+                               @Value("${literalura.metricas.archivo:}") String archivo) {
+        this.metricas = metricas;
+        this.cache = cache;
+        this.circuito = circuito;
+        this.limitador = limitador;
+        this.actualizadorDescargas = actualizadorDescargas;
+        this.completarIdsGutendex = completarIdsGutendex;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.archivo = archivo;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void registrarMedidores() {
+        metricas.medidor("literalura_cache_aciertos", cache::getAciertos);
+        metricas.medidor("literalura_cache_fallos", cache::getFallos);
+        metricas.medidor("literalura_cache_revalidaciones", cache::getRevalidaciones);
+        metricas.medidor("literalura_cache_desalojos", cache::getDesalojos);
+        metricas.medidor("literalura_cache_entradas", cache::getEntradas);
+        metricas.medidor("literalura_cache_bytes", cache::getBytesEnMemoria);
+
+        for (CircuitoInterruptor.Estado estado : CircuitoInterruptor.Estado.values()) {
+            metricas.medidor("literalura_circuito_estado", () -> circuito.getEstado() == estado ? 1 : 0,
+                    "estado", estado.name());
+            metricas.medidor("literalura_circuito_transiciones", () -> circuito.getTransiciones(estado),
+                    "estado", estado.name());
+        }
+        metricas.medidor("literalura_circuito_rechazadas", circuito::getRechazadas);
+        metricas.medidor("literalura_limitador_concedidas", limitador::getConcedidas);
+        metricas.medidor("literalura_limitador_rechazadas", limitador::getRechazadas);
+
+        metricas.medidor("literalura_descargas_libros_revisados", actualizadorDescargas::getLibrosRevisados);
+        metricas.medidor("literalura_descargas_filas_cambiadas", actualizadorDescargas::getFilasCambiadas);
+        metricas.medidor("literalura_descargas_lotes_fallidos", actualizadorDescargas::getLotesFallidos);
+        metricas.medidor("literalura_descargas_retraso_segundos", () -> actualizadorDescargas.getRetraso().toSeconds());
+        // Libros que el actualizador no puede refrescar hasta que completar-ids-gutendex les encuentre el id
+        metricas.medidor("literalura_descargas_libros_sin_id_gutendex", completarIdsGutendex::getLibrosSinIdGutendex);
+
+        // Las estadísticas solo cuentan con hibernate.generate_statistics=true
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        hibernate("sentencias_preparadas", estadisticas, Statistics::getPrepareStatementCount);
+        hibernate("consultas", estadisticas, Statistics::getQueryExecutionCount);
+        hibernate("consulta_mas_lenta_ms", estadisticas, Statistics::getQueryExecutionMaxTime);
+        hibernate("entidades_cargadas", estadisticas, Statistics::getEntityLoadCount);
+        hibernate("entidades_obtenidas", estadisticas, Statistics::getEntityFetchCount);
+        hibernate("colecciones_cargadas", estadisticas, Statistics::getCollectionLoadCount);
+        hibernate("transacciones", estadisticas, Statistics::getTransactionCount);
+        hibernate("cache_segundo_nivel_aciertos", estadisticas, Statistics::getSecondLevelCacheHitCount);
+        hibernate("cache_segundo_nivel_fallos", estadisticas, Statistics::getSecondLevelCacheMissCount);
+        hibernate("cache_consultas_aciertos", estadisticas, Statistics::getQueryCacheHitCount);
+        hibernate("cache_consultas_fallos", estadisticas, Statistics::getQueryCacheMissCount);
+        hibernate("cache_tablas_modificadas", estadisticas, Statistics::getUpdateTimestampsCachePutCount);
+        // Por región (entidades, colecciones y consultas): aciertos y fallos de Hibernate, tamaño y desalojos del LRU
+        for (String region : cacheSegundoNivel.getRegiones()) {
+            metricas.medidor("literalura_cache_entidades_entradas", () -> cacheSegundoNivel.getEntradas(region), "region", region);
+            metricas.medidor("literalura_cache_entidades_desalojos", () -> cacheSegundoNivel.getDesalojos(region), "region", region);
+            metricas.medidor("literalura_cache_entidades_aciertos",
+                    () -> aciertosRegion(estadisticas, region), "region", region);
+            metricas.medidor("literalura_cache_entidades_fallos",
+                    () -> fallosRegion(estadisticas, region), "region", region);
+        }
+
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari("activas", hikari, HikariPoolMXBean::getActiveConnections);
+            hikari("inactivas", hikari, HikariPoolMXBean::getIdleConnections);
+            hikari("totales", hikari, HikariPoolMXBean::getTotalConnections);
+            hikari("hilos_esperando", hikari, HikariPoolMXBean::getThreadsAwaitingConnection);
+            metricas.medidor("literalura_hikari_maximo", hikari::getMaximumPoolSize);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${literalura.metricas.intervalo-archivo:PT1M}",
+            fixedDelayString = "${literalura.metricas.intervalo-archivo:PT1M}")
+    public void volcarArchivo() {
+        if (archivo.isBlank()) {
+            return;
+        }
+        Path destino = Path.of(archivo);
+        try {
+            Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+            Files.writeString(temporal, metricas.formatoPrometheus());
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("No se pudieron volcar las métricas a " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    // La región de marcas de tiempo no tiene estadísticas de caché propias
+    private static double aciertosRegion(Statistics estadisticas, String region) {
+        var estadistica = estadisticas.getCacheRegionStatistics(region);
+        return estadistica == null ? 0 : estadistica.getHitCount();
+    }
+
+    private static double fallosRegion(Statistics estadisticas, String region) {
+        var estadistica = estadisticas.getCacheRegionStatistics(region);
+        return estadistica == null ? 0 : estadistica.getMissCount();
+    }
+
+    private void hibernate(String nombre, Statistics estadisticas, ToDoubleFunction<Statistics> valor) {
+        metricas.medidor("literalura_hibernate_" + nombre, () -> valor.applyAsDouble(estadisticas));
+    }
+
+    // El pool se crea con la primera conexión: hasta entonces los medidores valen 0
+    private void hikari(String nombre, HikariDataSource hikari, ToDoubleFunction<HikariPoolMXBean> valor) {
+        metricas.medidor("literalura_hikari_conexiones_" + nombre, () -> {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : valor.applyAsDouble(pool);
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Número de libros por idioma, mantenido en memoria: se calcula una vez al arrancar y se
+// incrementa con cada libro registrado, así el menú de idiomas no recorre idiomas_libro con DISTINCT
+@Component
+public class FacetaIdiomas implements IndiceCatalogo {
+
+    private volatile Map<String, AtomicInteger> conteos = new ConcurrentHashMap<>();
+
+    @Override
+    public void cargar(Collection<LibroResumen> libros) {
+        Map<String, AtomicInteger> nuevos = new ConcurrentHashMap<>();
+        libros.forEach(libro -> contar(nuevos, libro));
+        conteos = nuevos;
+    }
+
+    @Override
+    public void indexar(LibroResumen libro) {
+        contar(conteos, libro);
+    }
+
+    // Idiomas con al menos un libro, en orden alfabético
+    public Map<String, Integer> conteos() {
+        Map<String, Integer> copia = new TreeMap<>();
+        conteos.forEach((idioma, conteo) -> copia.put(idioma, conteo.get()));
+        return Collections.unmodifiableMap(copia);
+    }
+
+    public int conteo(String idioma) {
+        AtomicInteger conteo = conteos.get(idioma);
+        return conteo == null ? 0 : conteo.get();
+    }
+
+    private static void contar(Map<String, AtomicInteger> conteos, LibroResumen libro) {
+        for (String idioma : libro.idiomas()) {
+            conteos.computeIfAbsent(idioma, clave -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Tarea única (subcomando fusionar-autores) para los autores guardados antes de la clave canónica:
+// agrupa todos los autores por ClavesAutores.clave, conserva el de id menor de cada grupo, le pasa
+// las bibliografías de los demás (sin repetir libro) y las fechas que le falten, borra los duplicados
+// y deja la clave en todos. Todo en una transacción; después se vacía la caché de segundo nivel y
+// se recargan los índices, porque las bibliografías se mueven con UPDATE/DELETE masivos.
+@Service
+public class FusionAutores {
+
+    private final AutorRepository autorRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IndicesCatalogo indicesCatalogo;
+    private final TransactionTemplate transaccion;
+
+    public FusionAutores(AutorRepository autorRepository, EntityManager entityManager,
+                         EntityManagerFactory entityManagerFactory, IndicesCatalogo indicesCatalogo,
+                         PlatformTransactionManager transactionManager) {
+        this.autorRepository = autorRepository;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.indicesCatalogo = indicesCatalogo;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    public record ResultadoFusion(int autores, int grupos, int autoresFusionados, int bibliografiasMovidas,
+                                  int clavesAsignadas) {
+    }
+
+    public ResultadoFusion fusionar() {
+        ResultadoFusion resultado = transaccion.execute(estado -> fusionarEnTransaccion());
+        if (resultado.autoresFusionados() > 0 || resultado.clavesAsignadas() > 0) {
+            entityManagerFactory.getCache().evictAll();
+            indicesCatalogo.cargar();
+        }
+        return resultado;
+    }
+
+    private ResultadoFusion fusionarEnTransaccion() {
+        List<Autor> autores = autorRepository.findAll(Sort.by("id"));
+        Map<String, List<Autor>> porClave = new LinkedHashMap<>();
+        for (Autor autor : autores) {
+            porClave.computeIfAbsent(ClavesAutores.clave(autor.getNombre()), clave -> new ArrayList<>()).add(autor);
+        }
+
+        int grupos = 0;
+        int fusionados = 0;
+        int movidas = 0;
+        List<Autor> sinClave = new ArrayList<>();
+        for (Map.Entry<String, List<Autor>> grupo : porClave.entrySet()) {
+            List<Autor> mismos = grupo.getValue();
+            Autor superviviente = mismos.get(0);
+            if (mismos.size() > 1) {
+                grupos++;
+                for (Autor duplicado : mismos.subList(1, mismos.size())) {
+                    movidas += moverBibliografias(duplicado.getId(), superviviente.getId());
+                    if (superviviente.getFechaDeNacimiento() == null) {
+                        superviviente.setFechaDeNacimiento(duplicado.getFechaDeNacimiento());
+                    }
+                    if (superviviente.getFechaDeFallecimiento() == null) {
+                        superviviente.setFechaDeFallecimiento(duplicado.getFechaDeFallecimiento());
+                    }
+                    entityManager.createQuery("DELETE FROM Autor a WHERE a.id = :id")
+                            .setParameter("id", duplicado.getId())
+                            .executeUpdate();
+                    entityManager.detach(duplicado);
+                    fusionados++;
+                }
+            }
+            if (!Objects.equals(superviviente.getClave(), grupo.getKey())) {
+                sinClave.add(superviviente);
+            }
+        }
+        // Las claves al final, cuando ya no queda ningún duplicado que pueda tenerlas
+        for (Autor autor : sinClave) {
+            autor.setClave(ClavesAutores.clave(autor.getNombre()));
+        }
+        return new ResultadoFusion(autores.size(), grupos, fusionados, movidas, sinClave.size());
+    }
+
+    // Pasa al superviviente las bibliografías del duplicado cuyo libro aún no tenga, y borra el resto
+    private int moverBibliografias(Long duplicado, Long superviviente) {
+        int movidas = entityManager.createQuery("""
+                        UPDATE Bibliografia b SET b.autor = :superviviente
+                        WHERE b.autor.id = :duplicado
+                        AND b.libro.id NOT IN (SELECT o.libro.id FROM Bibliografia o WHERE o.autor = :superviviente)
+                        """)
+                .setParameter("superviviente", entityManager.getReference(Autor.class, superviviente))
+                .setParameter("duplicado", duplicado)
+                .executeUpdate();
+        entityManager.createQuery("DELETE FROM Bibliografia b WHERE b.autor.id = :duplicado")
+                .setParameter("duplicado", duplicado)
+                .executeUpdate();
+        return movidas;
+    }
+}
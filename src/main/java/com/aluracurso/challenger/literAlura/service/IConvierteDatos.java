@@ -1,5 +1,13 @@
 package com.aluracurso.challenger.literAlura.service;
 
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.DatosPagina;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
 public interface IConvierteDatos {
     <T> T obtenerDatos(String json, Class<T> clase);
+
+    DatosPagina obtenerLibros(InputStream json, Consumer<DatosLibros> consumidor);
 }
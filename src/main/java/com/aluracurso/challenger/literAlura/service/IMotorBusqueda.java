@@ -0,0 +1,16 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+
+import java.util.List;
+
+// Búsqueda por palabras completas; todas las palabras de la consulta deben aparecer (AND)
+// y una palabra terminada en '*' se trata como prefijo. Los libros salen ordenados por descargas.
+public interface IMotorBusqueda {
+    List<LibroResumen> buscarLibros(String consulta, int limite);
+
+    List<AutorResumen> buscarAutores(String consulta, int limite);
+
+    List<LibroResumen> librosDeAutor(Long autorId);
+}
@@ -0,0 +1,275 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.DatosPagina;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// Importa el catálogo completo de Gutendex recorriendo todas las páginas de /books/.
+// Las páginas se descargan y se leen en streaming en hilos virtuales, con una ventana acotada
+// de páginas en vuelo, y un único escritor (el hilo que llama) agrupa los libros en lotes.
+@Service
+public class ImportadorCatalogo {
+
+    private static final String URL_BASE = "https://gutendex.com/books/";
+    private static final int LIBROS_POR_PAGINA = 32;
+
+    private final ConsumoAPI consumoAPI;
+    private final ConvierteDatos conversor;
+    private final RegistroLibros registroLibros;
+    private final int paginasEnVuelo;
+    private final int tamanoLote;
+    private final Path archivoCheckpoint;
+
+    public ImportadorCatalogo(ConsumoAPI consumoAPI, ConvierteDatos conversor, RegistroLibros registroLibros,
+                              @Value("${literalura.importacion.paginas-en-vuelo:8}") int paginasEnVuelo,
+                              @Value("${literalura.importacion.tamano-lote:256}") int tamanoLote,
+                              @Value("${literalura.importacion.checkpoint:literalura-importacion.checkpoint}") Path archivoCheckpoint) {
+        this.consumoAPI = consumoAPI;
+        this.conversor = conversor;
+        this.registroLibros = registroLibros;
+        this.paginasEnVuelo = paginasEnVuelo;
+        this.tamanoLote = tamanoLote;
+        this.archivoCheckpoint = archivoCheckpoint;
+    }
+
+    public record ResultadoImportacion(int paginasProcesadas, int paginasFallidas, int librosLeidos,
+                                       int librosRegistrados, double librosPorSegundo, boolean completa) {
+    }
+
+    // Libro leído de una página, o marca de fin de página cuando libro es null
+    private record Elemento(int pagina, DatosLibros libro, boolean fallida) {
+    }
+
+    public ResultadoImportacion importarCatalogo() {
+        int ultimaPaginaCompleta = leerCheckpoint();
+        int primeraPagina = ultimaPaginaCompleta + 1;
+
+        // La primera página se descarga antes de lanzar el resto para conocer el total
+        List<DatosLibros> librosPrimera = new ArrayList<>();
+        DatosPagina primera = leerPagina(primeraPagina, librosPrimera::add);
+        if (primera.total() == null || librosPrimera.isEmpty()) {
+            System.out.println("No hay páginas pendientes de importar.");
+            borrarCheckpoint();
+            return new ResultadoImportacion(0, 0, 0, 0, 0, true);
+        }
+        int totalPaginas = (primera.total() + LIBROS_POR_PAGINA - 1) / LIBROS_POR_PAGINA;
+        if (primera.siguiente() == null) {
+            totalPaginas = primeraPagina;
+        }
+        System.out.printf("Importando páginas %d a %d (%d libros en Gutendex)...%n",
+                primeraPagina, totalPaginas, primera.total());
+
+        // Los libros llegan al escritor uno a uno mientras se leen; la cola acotada frena
+        // la lectura de la red si el escritor se retrasa, así la memoria no crece con las páginas
+        BlockingQueue<Elemento> elementos = new ArrayBlockingQueue<>(Math.max(tamanoLote, LIBROS_POR_PAGINA) * 2);
+        Semaphore ventana = new Semaphore(paginasEnVuelo);
+        librosPrimera.forEach(libro -> elementos.add(new Elemento(primeraPagina, libro, false)));
+        elementos.add(new Elemento(primeraPagina, null, false));
+
+        Escritor escritor = new Escritor(ultimaPaginaCompleta, totalPaginas);
+        int paginasPendientes = totalPaginas - primeraPagina + 1;
+
+        try (ExecutorService descargas = Executors.newVirtualThreadPerTaskExecutor()) {
+            int ultimaPagina = totalPaginas;
+            Thread productor = Thread.ofVirtual().start(() -> {
+                for (int numero = primeraPagina + 1; numero <= ultimaPagina; numero++) {
+                    int pagina = numero;
+                    try {
+                        ventana.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        descargas.submit(() -> {
+                            boolean fallida = false;
+                            try {
+                                leerPagina(pagina, libro -> encolar(elementos, new Elemento(pagina, libro, false)));
+                            } catch (RuntimeException e) {
+                                if (Thread.currentThread().isInterrupted()) {
+                                    return;
+                                }
+                                System.out.println("Error al descargar la página " + pagina + ": " + e.getMessage());
+                                fallida = true;
+                            }
+                            encolar(elementos, new Elemento(pagina, null, fallida));
+                        });
+                    } catch (RejectedExecutionException e) {
+                        // El escritor falló y ya se cancelaron las descargas
+                        return;
+                    }
+                }
+            });
+
+            boolean terminada = false;
+            try {
+                int recibidas = 0;
+                while (recibidas < paginasPendientes) {
+                    Elemento elemento = elementos.take();
+                    if (elemento.libro() != null) {
+                        escritor.agregar(elemento.libro());
+                        continue;
+                    }
+                    recibidas++;
+                    if (elemento.pagina() != primeraPagina) {
+                        ventana.release();
+                    }
+                    escritor.terminarPagina(elemento.pagina(), elemento.fallida());
+                }
+                escritor.guardar();
+                productor.join();
+                terminada = true;
+            } finally {
+                if (!terminada) {
+                    // Si el escritor falla, ni el productor (esperando la ventana) ni las descargas
+                    // (esperando sitio en la cola llena) deben quedar bloqueados: close() los esperaría siempre
+                    productor.interrupt();
+                    descargas.shutdownNow();
+                    elementos.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importación interrumpida en la página " + escritor.ultimaPaginaCompleta, e);
+        }
+
+        boolean completa = escritor.ultimaPaginaCompleta >= totalPaginas;
+        if (completa) {
+            borrarCheckpoint();
+        }
+        return new ResultadoImportacion(paginasPendientes, escritor.paginasFallidas, escritor.librosLeidos,
+                escritor.librosRegistrados, librosPorSegundo(escritor.librosLeidos, escritor.inicio), completa);
+    }
+
+    // Etapa única de escritura: agrupa libros en lotes y confirma las páginas cuyo fin ya llegó
+    // una vez guardado el lote que contiene sus últimos libros
+    private final class Escritor {
+        private final long inicio = System.nanoTime();
+        private final int totalPaginas;
+        private final List<DatosLibros> lote = new ArrayList<>(tamanoLote);
+        private final List<Integer> paginasTerminadas = new ArrayList<>();
+        private final TreeSet<Integer> completadas = new TreeSet<>();
+        private int ultimaPaginaCompleta;
+        private int librosLeidos;
+        private int librosRegistrados;
+        private int paginasFallidas;
+
+        private Escritor(int ultimaPaginaCompleta, int totalPaginas) {
+            this.ultimaPaginaCompleta = ultimaPaginaCompleta;
+            this.totalPaginas = totalPaginas;
+        }
+
+        private void agregar(DatosLibros libro) {
+            lote.add(libro);
+            librosLeidos++;
+            if (lote.size() >= tamanoLote) {
+                guardar();
+            }
+        }
+
+        private void terminarPagina(int pagina, boolean fallida) {
+            if (fallida) {
+                paginasFallidas++;
+            } else {
+                paginasTerminadas.add(pagina);
+            }
+        }
+
+        private void guardar() {
+            if (!lote.isEmpty()) {
+                librosRegistrados += guardarLote(lote);
+                lote.clear();
+            }
+            completadas.addAll(paginasTerminadas);
+            paginasTerminadas.clear();
+            ultimaPaginaCompleta = avanzarCheckpoint(ultimaPaginaCompleta, completadas);
+            System.out.printf("Página %d/%d confirmada - %d libros leídos (%.1f libros/s)%n",
+                    ultimaPaginaCompleta, totalPaginas, librosLeidos, librosPorSegundo(librosLeidos, inicio));
+        }
+    }
+
+    private static void encolar(BlockingQueue<Elemento> elementos, Elemento elemento) {
+        try {
+            elementos.put(elemento);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importación interrumpida", e);
+        }
+    }
+
+    private int guardarLote(List<DatosLibros> lote) {
+        return (int) registroLibros.registrarLote(lote).stream()
+                .filter(resultado -> resultado.estado() == RegistroLibros.EstadoRegistro.REGISTRADO)
+                .count();
+    }
+
+    // Por id ascendente: el orden por defecto de Gutendex es por popularidad y cambia entre ejecuciones,
+    // así que con él el número de página del checkpoint no señalaría siempre a los mismos libros
+    private DatosPagina leerPagina(int numero, Consumer<DatosLibros> consumidor) {
+        return consumoAPI.obtenerFlujo(URL_BASE + "?sort=ascending&page=" + numero,
+                json -> conversor.obtenerLibros(json, consumidor));
+    }
+
+    private static double librosPorSegundo(int libros, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return segundos > 0 ? libros / segundos : 0;
+    }
+
+    // Solo se avanza mientras las páginas confirmadas sean contiguas, así al reanudar
+    // nunca se salta una página que falló o quedó a medio guardar
+    private int avanzarCheckpoint(int ultimaPaginaCompleta, TreeSet<Integer> completadas) {
+        int ultima = ultimaPaginaCompleta;
+        while (completadas.remove(ultima + 1)) {
+            ultima++;
+        }
+        if (ultima != ultimaPaginaCompleta) {
+            escribirCheckpoint(ultima);
+        }
+        return ultima;
+    }
+
+    private int leerCheckpoint() {
+        try {
+            if (Files.exists(archivoCheckpoint)) {
+                return Integer.parseInt(Files.readString(archivoCheckpoint).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Checkpoint de importación no válido, se empieza desde el principio: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private void escribirCheckpoint(int pagina) {
+        try {
+            Path temporal = archivoCheckpoint.resolveSibling(archivoCheckpoint.getFileName() + ".tmp");
+            Files.writeString(temporal, Integer.toString(pagina));
+            Files.move(temporal, archivoCheckpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar el checkpoint de importación: " + e.getMessage(), e);
+        }
+    }
+
+    private void borrarCheckpoint() {
+        try {
+            Files.deleteIfExists(archivoCheckpoint);
+        } catch (IOException e) {
+            System.out.println("No se pudo borrar el checkpoint de importación: " + e.getMessage());
+        }
+    }
+}
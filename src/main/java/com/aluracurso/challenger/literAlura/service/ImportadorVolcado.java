@@ -0,0 +1,303 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import jakarta.persistence.EntityManagerFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+// Importa el catálogo sin conexión de Project Gutenberg (pg_catalog.csv o pg_catalog.csv.gz) desde
+// el disco, sin pasar por Gutendex. Un único lector recorre el archivo en streaming y reparte los
+// libros en lotes entre literalura.volcado.hilos hilos; en PostgreSQL cada lote se carga con COPY
+// en tablas temporales y se pasa a las tablas reales con INSERT ... ON CONFLICT DO NOTHING, así
+// repetir la importación no duplica nada. En otras bases los lotes van por RegistroLibros, de uno en uno.
+@Service
+public class ImportadorVolcado {
+
+    private static final int LONGITUD_MAXIMA_TITULO = 1024;
+
+    private final DataSource dataSource;
+    private final RegistroLibros registroLibros;
+    private final IndicesCatalogo indicesCatalogo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int hilos;
+    private final int tamanoLote;
+
+    public ImportadorVolcado(DataSource dataSource, RegistroLibros registroLibros, IndicesCatalogo indicesCatalogo,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${literalura.volcado.hilos:4}") int hilos,
+                             @Value("${literalura.volcado.tamano-lote:2000}") int tamanoLote) {
+        this.dataSource = dataSource;
+        this.registroLibros = registroLibros;
+        this.indicesCatalogo = indicesCatalogo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.hilos = Math.max(1, hilos);
+        this.tamanoLote = Math.max(1, tamanoLote);
+    }
+
+    public record ResultadoVolcado(int filasLeidas, int librosLeidos, int librosRegistrados, int lotesFallidos,
+                                   double librosPorSegundo, boolean conCopy) {
+    }
+
+    public ResultadoVolcado importar(Path archivo) {
+        long inicio = System.nanoTime();
+        boolean conCopy = admiteCopy();
+        int hilosCarga = conCopy ? hilos : 1;
+        // Como mucho dos lotes por hilo esperando: el lector se frena si la base de datos se retrasa
+        Semaphore enEspera = new Semaphore(hilosCarga * 2);
+        List<Future<Integer>> cargas = new ArrayList<>();
+        List<DatosLibros> lote = new ArrayList<>(tamanoLote);
+        LectorCatalogoGutenberg.ResultadoLectura lectura;
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilosCarga,
+                Thread.ofPlatform().name("volcado-", 1).daemon().factory());
+        try (Reader entrada = abrir(archivo)) {
+            lectura = LectorCatalogoGutenberg.leer(entrada, libro -> {
+                lote.add(libro);
+                if (lote.size() >= tamanoLote) {
+                    cargas.add(enviar(ejecutor, enEspera, List.copyOf(lote), conCopy));
+                    lote.clear();
+                }
+            });
+            if (!lote.isEmpty()) {
+                cargas.add(enviar(ejecutor, enEspera, List.copyOf(lote), conCopy));
+            }
+        } catch (IOException e) {
+            ejecutor.shutdownNow();
+            throw new RuntimeException("Error al leer el catálogo " + archivo + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            ejecutor.shutdownNow();
+            throw e;
+        }
+
+        int registrados = 0;
+        int fallidos = 0;
+        try {
+            for (Future<Integer> carga : cargas) {
+                try {
+                    registrados += carga.get();
+                } catch (ExecutionException e) {
+                    fallidos++;
+                    System.out.println("Error al cargar un lote del catálogo: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importación del catálogo interrumpida", e);
+        } finally {
+            ejecutor.shutdown();
+        }
+
+        if (conCopy && registrados > 0) {
+            // COPY no pasa por Hibernate: la caché de segundo nivel y los índices en memoria se rehacen
+            entityManagerFactory.getCache().evictAll();
+            indicesCatalogo.cargar();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return new ResultadoVolcado(lectura.filas(), lectura.libros(), registrados, fallidos,
+                segundos > 0 ? lectura.libros() / segundos : 0, conCopy);
+    }
+
+    private Future<Integer> enviar(ExecutorService ejecutor, Semaphore enEspera, List<DatosLibros> lote, boolean conCopy) {
+        try {
+            enEspera.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importación del catálogo interrumpida", e);
+        }
+        return ejecutor.submit(() -> {
+            try {
+                return conCopy ? copiarLote(lote) : registrarLote(lote);
+            } finally {
+                enEspera.release();
+            }
+        });
+    }
+
+    private static Reader abrir(Path archivo) throws IOException {
+        InputStream flujo = Files.newInputStream(archivo);
+        if (archivo.getFileName().toString().endsWith(".gz")) {
+            flujo = new GZIPInputStream(flujo, 1 << 16);
+        }
+        return new InputStreamReader(flujo, StandardCharsets.UTF_8);
+    }
+
+    private boolean admiteCopy() {
+        try (Connection conexion = dataSource.getConnection()) {
+            return conexion.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            throw new RuntimeException("No se pudo conectar con la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    private int registrarLote(List<DatosLibros> lote) {
+        return (int) registroLibros.registrarLote(lote).stream()
+                .filter(resultado -> resultado.estado() == RegistroLibros.EstadoRegistro.REGISTRADO)
+                .count();
+    }
+
+    // Un lote en una transacción: COPY a tablas temporales y de ahí a las reales. Autores y libros se
+    // insertan ordenados por su clave única para que dos lotes en paralelo no se bloqueen en orden cruzado.
+    // Los autores se identifican por su clave canónica (ClavesAutores.clave) y, si se guardaron antes
+    // de tenerla, por su nombre. Idiomas y bibliografías solo se insertan para los libros de este lote
+    // que entraron (sus ids son nuevos).
+    private int copiarLote(List<DatosLibros> lote) throws SQLException, IOException {
+        Map<String, DatosAutor> autores = new LinkedHashMap<>();
+        List<DatosLibros> validos = new ArrayList<>(lote.size());
+        int bibliografias = 0;
+        for (DatosLibros libro : lote) {
+            if (libro.titulo().length() > LONGITUD_MAXIMA_TITULO) {
+                continue;
+            }
+            validos.add(libro);
+            for (DatosAutor autor : libro.autor()) {
+                autores.putIfAbsent(ClavesAutores.clave(autor.nombre()), autor);
+                bibliografias++;
+            }
+        }
+
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try {
+                long[] idsLibros = SecuenciasAgrupadas.reservar(conexion, "libros_seq", validos.size());
+                long[] idsAutores = SecuenciasAgrupadas.reservar(conexion, "autores_seq", autores.size());
+                long[] idsBibliografias = SecuenciasAgrupadas.reservar(conexion, "bibliografias_seq", bibliografias);
+
+                StringBuilder filasLibros = new StringBuilder();
+                StringBuilder filasIdiomas = new StringBuilder();
+                StringBuilder filasBibliografias = new StringBuilder();
+                int bibliografia = 0;
+                for (int i = 0; i < validos.size(); i++) {
+                    DatosLibros libro = validos.get(i);
+                    fila(filasLibros, idsLibros[i], libro.idGutendex(), libro.titulo(), libro.numeroDeDescargas());
+                    for (String idioma : libro.idiomas()) {
+                        fila(filasIdiomas, idsLibros[i], idioma);
+                    }
+                    for (DatosAutor autor : libro.autor()) {
+                        String clave = ClavesAutores.clave(autor.nombre());
+                        fila(filasBibliografias, idsBibliografias[bibliografia++], idsLibros[i], clave,
+                                normalizarNombre(autores.get(clave)));
+                    }
+                }
+                StringBuilder filasAutores = new StringBuilder();
+                int autor = 0;
+                for (Map.Entry<String, DatosAutor> entrada : autores.entrySet()) {
+                    fila(filasAutores, idsAutores[autor++], normalizarNombre(entrada.getValue()), entrada.getKey(),
+                            entrada.getValue().fechaDeNacimiento(), entrada.getValue().fechaDeFallecimiento());
+                }
+
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("""
+                            CREATE TEMP TABLE volcado_libros (id bigint, id_gutendex bigint, titulo text,
+                                numero_de_descargas double precision) ON COMMIT DROP;
+                            CREATE TEMP TABLE volcado_idiomas (libro_id bigint, idioma text) ON COMMIT DROP;
+                            CREATE TEMP TABLE volcado_autores (id bigint, nombre text, clave text, fecha_de_nacimiento integer,
+                                fecha_de_fallecimiento integer) ON COMMIT DROP;
+                            CREATE TEMP TABLE volcado_bibliografias (id bigint, libro_id bigint, clave text, nombre text) ON COMMIT DROP
+                            """);
+                }
+                CopyManager copia = conexion.unwrap(PGConnection.class).getCopyAPI();
+                copia.copyIn("COPY volcado_libros FROM STDIN", new StringReader(filasLibros.toString()));
+                copia.copyIn("COPY volcado_idiomas FROM STDIN", new StringReader(filasIdiomas.toString()));
+                copia.copyIn("COPY volcado_autores FROM STDIN", new StringReader(filasAutores.toString()));
+                copia.copyIn("COPY volcado_bibliografias FROM STDIN", new StringReader(filasBibliografias.toString()));
+
+                int registrados;
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.executeUpdate("""
+                            INSERT INTO autores (id, nombre, clave, fecha_de_nacimiento, fecha_de_fallecimiento)
+                            SELECT id, nombre, clave, fecha_de_nacimiento, fecha_de_fallecimiento FROM volcado_autores
+                            ORDER BY clave
+                            ON CONFLICT DO NOTHING
+                            """);
+                    // Mismo criterio que InsercionesIdempotentes.insertarLibros: títulos sin distinguir mayúsculas
+                    registrados = sentencia.executeUpdate("""
+                            INSERT INTO libros (id, id_gutendex, titulo, numero_de_descargas)
+                            SELECT v.id, v.id_gutendex, v.titulo, v.numero_de_descargas FROM volcado_libros v
+                            WHERE NOT EXISTS (SELECT 1 FROM libros l WHERE l.id_gutendex = v.id_gutendex)
+                            ORDER BY lower(v.titulo)
+                            ON CONFLICT (lower(titulo)) DO NOTHING
+                            """);
+                    sentencia.executeUpdate("""
+                            INSERT INTO idiomas_libro (libro_id, idioma)
+                            SELECT DISTINCT v.libro_id, v.idioma FROM volcado_idiomas v
+                            JOIN libros l ON l.id = v.libro_id
+                            """);
+                    sentencia.executeUpdate("""
+                            INSERT INTO bibliografias (id, libro_id, autor_id)
+                            SELECT v.id, v.libro_id, a.id FROM volcado_bibliografias v
+                            JOIN libros l ON l.id = v.libro_id
+                            JOIN LATERAL (
+                                SELECT id FROM autores
+                                WHERE clave = v.clave OR nombre = v.nombre
+                                ORDER BY clave = v.clave DESC NULLS LAST, id
+                                LIMIT 1
+                            ) a ON true
+                            """);
+                }
+                conexion.commit();
+                return registrados;
+            } catch (SQLException | IOException | RuntimeException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Fila del formato de texto de COPY: columnas separadas por tabuladores y \N para nulo
+    private static void fila(StringBuilder filas, Object... columnas) {
+        for (int i = 0; i < columnas.length; i++) {
+            if (i > 0) {
+                filas.append('\t');
+            }
+            Object columna = columnas[i];
+            if (columna == null) {
+                filas.append("\\N");
+                continue;
+            }
+            String texto = columna.toString();
+            for (int j = 0; j < texto.length(); j++) {
+                char c = texto.charAt(j);
+                switch (c) {
+                    case '\\' -> filas.append("\\\\");
+                    case '\t' -> filas.append("\\t");
+                    case '\n' -> filas.append("\\n");
+                    case '\r' -> filas.append("\\r");
+                    default -> filas.append(c);
+                }
+            }
+        }
+        filas.append('\n');
+    }
+
+    private static String normalizarNombre(DatosAutor autor) {
+        return RegistroAutores.normalizarNombre(autor);
+    }
+}
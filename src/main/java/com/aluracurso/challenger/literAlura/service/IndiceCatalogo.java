@@ -0,0 +1,16 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+
+import java.util.Collection;
+
+// Estructura en memoria construida a partir del catálogo al arrancar y actualizada con cada libro nuevo
+public interface IndiceCatalogo {
+    void cargar(Collection<LibroResumen> libros);
+
+    void indexar(LibroResumen libro);
+
+    // Libro ya indexado cuyos datos cambiaron (por ahora solo las descargas)
+    default void actualizar(LibroResumen libro) {
+    }
+}
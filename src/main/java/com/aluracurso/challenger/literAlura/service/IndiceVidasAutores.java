@@ -0,0 +1,239 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorNombre;
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Índice de los años de vida de los autores (árbol de intervalos centrado) para las consultas
+// "vivos en el año X" y "vivos entre dos años" sin recorrer todos los autores.
+// Un autor sin fecha de fallecimiento se considera vivo en cualquier año posterior a su nacimiento;
+// sin fecha de nacimiento no se indexa.
+// Los autores nuevos se acumulan en una lista pendiente que se recorre entera hasta que crece lo
+// suficiente como para reconstruir el árbol, así registrar un libro no obliga a reconstruirlo.
+@Component
+public class IndiceVidasAutores implements IndiceCatalogo {
+
+    private static final int MINIMO_PENDIENTES = 1024;
+
+    private record Vida(long id, String nombre, int nacimiento, int fallecimiento) {
+
+        private AutorNombre proyeccion() {
+            return new AutorNombre(id, nombre);
+        }
+    }
+
+    // Intervalos que contienen el centro, ordenados por nacimiento ascendente y por fallecimiento descendente
+    private record Nodo(int centro, Vida[] porNacimiento, Vida[] porFallecimiento, Nodo izquierda, Nodo derecha) {
+    }
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Set<Long> indexados = new HashSet<>();
+    private final List<Vida> construidas = new ArrayList<>();
+    private final List<Vida> pendientes = new ArrayList<>();
+    private Nodo raiz;
+    // Nacimientos y fallecimientos ordenados de las vidas construidas, para el histograma
+    private int[] nacimientos = new int[0];
+    private int[] fallecimientos = new int[0];
+
+    @Override
+    public void cargar(Collection<LibroResumen> libros) {
+        candado.writeLock().lock();
+        try {
+            indexados.clear();
+            construidas.clear();
+            pendientes.clear();
+            libros.forEach(this::agregar);
+            reconstruir();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexar(LibroResumen libro) {
+        candado.writeLock().lock();
+        try {
+            agregar(libro);
+            if (pendientes.size() > Math.max(MINIMO_PENDIENTES, construidas.size() / 8)) {
+                reconstruir();
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Autores vivos en algún momento del año indicado
+    public List<AutorNombre> vivosEnAno(int ano) {
+        return vivosEntre(ano, ano);
+    }
+
+    // Autores vivos en algún momento entre desde y hasta (ambos incluidos)
+    public List<AutorNombre> vivosEntre(int desde, int hasta) {
+        List<AutorNombre> resultado = new ArrayList<>();
+        candado.readLock().lock();
+        try {
+            superpuestos(raiz, desde, hasta, vida -> resultado.add(vida.proyeccion()));
+            for (Vida vida : pendientes) {
+                if (vida.nacimiento() <= hasta && vida.fallecimiento() >= desde) {
+                    resultado.add(vida.proyeccion());
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        resultado.sort(Comparator.comparing(AutorNombre::nombre));
+        return resultado;
+    }
+
+    // Autores vivos durante todo el periodo: nacidos antes de desde y fallecidos después de hasta
+    public List<AutorNombre> vivosDuranteTodo(int desde, int hasta) {
+        List<AutorNombre> resultado = new ArrayList<>();
+        candado.readLock().lock();
+        try {
+            Consumer<Vida> filtro = vida -> {
+                if (vida.fallecimiento() >= hasta) {
+                    resultado.add(vida.proyeccion());
+                }
+            };
+            superpuestos(raiz, desde, desde, filtro);
+            pendientes.stream()
+                    .filter(vida -> vida.nacimiento() <= desde && vida.fallecimiento() >= desde)
+                    .forEach(filtro);
+        } finally {
+            candado.readLock().unlock();
+        }
+        resultado.sort(Comparator.comparing(AutorNombre::nombre));
+        return resultado;
+    }
+
+    // Número de autores vivos en algún momento de cada década (clave: primer año de la década)
+    public SortedMap<Integer, Integer> histogramaPorDecada(int desde, int hasta) {
+        SortedMap<Integer, Integer> histograma = new TreeMap<>();
+        candado.readLock().lock();
+        try {
+            for (int decada = Math.floorDiv(desde, 10) * 10; decada <= hasta; decada += 10) {
+                int finDecada = decada + 9;
+                // nacidos antes de que termine la década menos los fallecidos antes de que empiece
+                int vivos = cuantosHasta(nacimientos, finDecada) - cuantosHasta(fallecimientos, decada - 1);
+                for (Vida vida : pendientes) {
+                    if (vida.nacimiento() <= finDecada && vida.fallecimiento() >= decada) {
+                        vivos++;
+                    }
+                }
+                histograma.put(decada, vivos);
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        return histograma;
+    }
+
+    private void agregar(LibroResumen libro) {
+        for (AutorResumen autor : libro.autores()) {
+            if (autor.fechaDeNacimiento() == null || !indexados.add(autor.id())) {
+                continue;
+            }
+            int fallecimiento = autor.fechaDeFallecimiento() == null ? Integer.MAX_VALUE : autor.fechaDeFallecimiento();
+            if (fallecimiento < autor.fechaDeNacimiento()) {
+                continue;
+            }
+            pendientes.add(new Vida(autor.id(), autor.nombre(), autor.fechaDeNacimiento(), fallecimiento));
+        }
+    }
+
+    private void reconstruir() {
+        construidas.addAll(pendientes);
+        pendientes.clear();
+        raiz = construir(construidas);
+        nacimientos = construidas.stream().mapToInt(Vida::nacimiento).sorted().toArray();
+        fallecimientos = construidas.stream().mapToInt(Vida::fallecimiento).sorted().toArray();
+    }
+
+    // El centro es el punto medio del intervalo con el nacimiento mediano: ese intervalo queda
+    // siempre en el nodo, así cada nivel reduce el problema y la profundidad se mantiene logarítmica
+    private static Nodo construir(List<Vida> vidas) {
+        if (vidas.isEmpty()) {
+            return null;
+        }
+        Vida mediana = vidas.stream()
+                .sorted(Comparator.comparingInt(Vida::nacimiento))
+                .skip(vidas.size() / 2)
+                .findFirst()
+                .orElseThrow();
+        int centro = (int) (((long) mediana.nacimiento() + mediana.fallecimiento()) / 2);
+
+        List<Vida> izquierda = new ArrayList<>();
+        List<Vida> derecha = new ArrayList<>();
+        List<Vida> enCentro = new ArrayList<>();
+        for (Vida vida : vidas) {
+            if (vida.fallecimiento() < centro) {
+                izquierda.add(vida);
+            } else if (vida.nacimiento() > centro) {
+                derecha.add(vida);
+            } else {
+                enCentro.add(vida);
+            }
+        }
+        Vida[] porNacimiento = enCentro.toArray(Vida[]::new);
+        Arrays.sort(porNacimiento, Comparator.comparingInt(Vida::nacimiento));
+        Vida[] porFallecimiento = enCentro.toArray(Vida[]::new);
+        Arrays.sort(porFallecimiento, Comparator.comparingInt(Vida::fallecimiento).reversed());
+        return new Nodo(centro, porNacimiento, porFallecimiento, construir(izquierda), construir(derecha));
+    }
+
+    private static void superpuestos(Nodo nodo, int desde, int hasta, Consumer<Vida> consumidor) {
+        while (nodo != null) {
+            if (hasta < nodo.centro()) {
+                for (Vida vida : nodo.porNacimiento()) {
+                    if (vida.nacimiento() > hasta) {
+                        break;
+                    }
+                    consumidor.accept(vida);
+                }
+                nodo = nodo.izquierda();
+            } else if (desde > nodo.centro()) {
+                for (Vida vida : nodo.porFallecimiento()) {
+                    if (vida.fallecimiento() < desde) {
+                        break;
+                    }
+                    consumidor.accept(vida);
+                }
+                nodo = nodo.derecha();
+            } else {
+                for (Vida vida : nodo.porNacimiento()) {
+                    consumidor.accept(vida);
+                }
+                superpuestos(nodo.izquierda(), desde, hasta, consumidor);
+                nodo = nodo.derecha();
+            }
+        }
+    }
+
+    // Cantidad de valores <= limite en un arreglo ordenado
+    private static int cuantosHasta(int[] ordenados, int limite) {
+        int bajo = 0, alto = ordenados.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ordenados[medio] <= limite) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+// Carga todos los IndiceCatalogo al arrancar (antes de que se muestre el menú)
+// y les reenvía los libros que se registran después
+@Component
+public class IndicesCatalogo {
+
+    private static final int LOTE_NUEVOS = 500;
+
+    private final ConsultaCatalogo consultaCatalogo;
+    private final List<IndiceCatalogo> indices;
+    private final InstantaneaCatalogo instantanea;
+
+    public IndicesCatalogo(ConsultaCatalogo consultaCatalogo, List<IndiceCatalogo> indices,
+                           InstantaneaCatalogo instantanea) {
+        this.consultaCatalogo = consultaCatalogo;
+        this.indices = indices;
+        this.instantanea = instantanea;
+    }
+
+    // Parte de la instantánea si sigue vigente y solo pide a la base de datos los libros con id mayor
+    // que su marca de agua, más las descargas y los autores actuales de los que ya tenía (ConsultaCatalogo.refrescar);
+    // si no hay instantánea o no coincide con la base de datos, carga todo
+    @EventListener(ContextRefreshedEvent.class)
+    public void cargarAlArrancar() {
+        long inicio = System.nanoTime();
+        Optional<InstantaneaCatalogo.Instantanea> guardada = instantanea.leer().filter(this::vigente);
+        if (guardada.isEmpty()) {
+            cargar();
+            return;
+        }
+        List<LibroResumen> libros = new ArrayList<>(
+                consultaCatalogo.refrescar(guardada.get().libros(), guardada.get().marcaDeAgua()));
+        long despuesDe = guardada.get().marcaDeAgua();
+        List<LibroResumen> nuevos;
+        do {
+            nuevos = consultaCatalogo.librosDespuesDe(despuesDe, LOTE_NUEVOS);
+            libros.addAll(nuevos);
+            if (!nuevos.isEmpty()) {
+                despuesDe = nuevos.get(nuevos.size() - 1).id();
+            }
+        } while (nuevos.size() == LOTE_NUEVOS);
+        indices.forEach(indice -> indice.cargar(libros));
+        System.out.printf("Índices del catálogo cargados desde la instantánea: %d libros (%d nuevos) en %d ms%n",
+                libros.size(), libros.size() - guardada.get().libros().size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private boolean vigente(InstantaneaCatalogo.Instantanea guardada) {
+        long sumaIds = 0;
+        for (LibroResumen libro : guardada.libros()) {
+            sumaIds += libro.id();
+        }
+        if (consultaCatalogo.coincideHasta(guardada.marcaDeAgua(), guardada.libros().size(), sumaIds)) {
+            return true;
+        }
+        System.out.println("La instantánea de los índices no coincide con la base de datos, se cargan desde cero");
+        return false;
+    }
+
+    // Carga completa desde la base de datos (también tras importaciones que escriben sin pasar por los índices)
+    public void cargar() {
+        if (indices.isEmpty()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        List<LibroResumen> libros = new ArrayList<>();
+        consultaCatalogo.recorrerLibros(libros::add);
+        indices.forEach(indice -> indice.cargar(libros));
+        System.out.printf("Índices del catálogo cargados: %d libros en %d ms%n",
+                libros.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // Dentro de una transacción solo se indexa tras el commit, para no publicar libros que luego se deshacen
+    public void indexar(List<LibroResumen> libros) {
+        trasElCommit(libros, IndiceCatalogo::indexar);
+    }
+
+    public void actualizar(List<LibroResumen> libros) {
+        trasElCommit(libros, IndiceCatalogo::actualizar);
+    }
+
+    private void trasElCommit(List<LibroResumen> libros, BiConsumer<IndiceCatalogo, LibroResumen> operacion) {
+        if (libros.isEmpty() || indices.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(libros, operacion);
+                }
+            });
+        } else {
+            aplicar(libros, operacion);
+        }
+    }
+
+    private void aplicar(List<LibroResumen> libros, BiConsumer<IndiceCatalogo, LibroResumen> operacion) {
+        for (IndiceCatalogo indice : indices) {
+            libros.forEach(libro -> operacion.accept(indice, libro));
+        }
+    }
+}
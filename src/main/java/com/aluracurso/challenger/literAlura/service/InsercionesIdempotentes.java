@@ -0,0 +1,239 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Altas de libros y autores en PostgreSQL con INSERT ... ON CONFLICT DO NOTHING RETURNING: varios hilos
+// o varias instancias pueden registrar a la vez los mismos libros y autores; cada fila entra una sola vez
+// y quien llega tarde la encuentra ya guardada en lugar de recibir una violación de clave única que le
+// deshaga el lote. Las sentencias van por JdbcTemplate en la transacción en curso (la misma conexión que
+// usa Hibernate) y cada una inserta sus filas ordenadas por la clave única, así dos transacciones que
+// se solapan se esperan siempre en el mismo orden. En otras bases de datos disponibles() es false y
+// RegistroLibros y RegistroAutores siguen guardando por Hibernate.
+@Service
+public class InsercionesIdempotentes {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private volatile Boolean disponibles;
+
+    public InsercionesIdempotentes(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public boolean disponibles() {
+        Boolean enPostgres = disponibles;
+        if (enPostgres == null) {
+            enPostgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> conexion.isWrapperFor(PGConnection.class));
+            disponibles = enPostgres;
+        }
+        return enPostgres;
+    }
+
+    // Clave -> id de cada autor pedido, tanto de los que entran ahora como de los que ya estaban (por su
+    // clave o, si se guardaron antes de tenerla, por su nombre). Ante varios candidatos gana el id menor,
+    // como en ClavesAutores.
+    public Map<String, Long> insertarAutores(Map<String, DatosAutor> porClave) {
+        List<String> claves = new ArrayList<>(porClave.keySet());
+        long[] ids = reservar("autores_seq", claves.size());
+        Long[] columnaIds = new Long[claves.size()];
+        String[] nombres = new String[claves.size()];
+        Integer[] nacimientos = new Integer[claves.size()];
+        Integer[] fallecimientos = new Integer[claves.size()];
+        for (int i = 0; i < claves.size(); i++) {
+            DatosAutor autor = porClave.get(claves.get(i));
+            columnaIds[i] = ids[i];
+            nombres[i] = RegistroAutores.normalizarNombre(autor);
+            nacimientos[i] = autor.fechaDeNacimiento();
+            fallecimientos[i] = autor.fechaDeFallecimiento();
+        }
+
+        Map<String, Long> encontrados = new HashMap<>();
+        jdbcTemplate.query("""
+                INSERT INTO autores (id, nombre, clave, fecha_de_nacimiento, fecha_de_fallecimiento)
+                SELECT * FROM unnest(?::bigint[], ?::text[], ?::text[], ?::integer[], ?::integer[])
+                ORDER BY 3
+                ON CONFLICT DO NOTHING
+                RETURNING id, clave
+                """, sentencia -> {
+            Connection conexion = sentencia.getConnection();
+            sentencia.setArray(1, conexion.createArrayOf("bigint", columnaIds));
+            sentencia.setArray(2, conexion.createArrayOf("text", nombres));
+            sentencia.setArray(3, conexion.createArrayOf("text", claves.toArray(String[]::new)));
+            sentencia.setArray(4, conexion.createArrayOf("integer", nacimientos));
+            sentencia.setArray(5, conexion.createArrayOf("integer", fallecimientos));
+        }, fila -> {
+            encontrados.put(fila.getString("clave"), fila.getLong("id"));
+        });
+        invalidarConsultasTrasElCommit(encontrados.size());
+
+        // Los que chocaron ya estaban: ON CONFLICT espera a que se confirme la fila con la que choca,
+        // y en READ COMMITTED la consulta siguiente la ve
+        List<String> existentes = claves.stream().filter(clave -> !encontrados.containsKey(clave)).toList();
+        if (!existentes.isEmpty()) {
+            Map<String, Long> guardados = new HashMap<>();
+            String[] nombresExistentes = existentes.stream()
+                    .map(clave -> RegistroAutores.normalizarNombre(porClave.get(clave)))
+                    .toArray(String[]::new);
+            jdbcTemplate.query("SELECT id, nombre, clave FROM autores WHERE clave = ANY(?) OR nombre = ANY(?) ORDER BY id",
+                    sentencia -> {
+                        Connection conexion = sentencia.getConnection();
+                        sentencia.setArray(1, conexion.createArrayOf("text", existentes.toArray(String[]::new)));
+                        sentencia.setArray(2, conexion.createArrayOf("text", nombresExistentes));
+                    }, fila -> {
+                        String clave = fila.getString("clave");
+                        guardados.putIfAbsent(clave != null ? clave : ClavesAutores.clave(fila.getString("nombre")), fila.getLong("id"));
+                    });
+            for (String clave : existentes) {
+                Long id = guardados.get(clave);
+                if (id == null) {
+                    throw new IllegalStateException("No se encontró el autor " + porClave.get(clave).nombre());
+                }
+                encontrados.put(clave, id);
+            }
+        }
+        return encontrados;
+    }
+
+    // Título -> id de los libros que entraron ahora; los que faltan ya estaban registrados (mismo título
+    // sin distinguir mayúsculas o mismo idGutendex). Solo los que entran reciben idiomas y bibliografías;
+    // idsAutores va del nombre de cada autor, tal como llegó, a su id (RegistroAutores.resolver).
+    // El conflicto se resuelve sobre idx_libros_titulo_minusculas (db/migracion/V6__titulo_unico_sin_mayusculas.sql),
+    // la misma comparación que hace LibroRepository.findTitulosExistentes; los idGutendex ya guardados se
+    // descartan antes, porque con un destino explícito cualquier otra clave única repetida daría error.
+    public Map<String, Long> insertarLibros(List<DatosLibros> libros, Map<String, Long> idsAutores) {
+        long[] ids = reservar("libros_seq", libros.size());
+        Long[] columnaIds = new Long[libros.size()];
+        Long[] idsGutendex = new Long[libros.size()];
+        String[] titulos = new String[libros.size()];
+        Double[] descargas = new Double[libros.size()];
+        for (int i = 0; i < libros.size(); i++) {
+            DatosLibros libro = libros.get(i);
+            columnaIds[i] = ids[i];
+            idsGutendex[i] = libro.idGutendex();
+            titulos[i] = libro.titulo();
+            descargas[i] = libro.numeroDeDescargas();
+        }
+
+        Map<String, Long> insertados = new HashMap<>();
+        jdbcTemplate.query("""
+                INSERT INTO libros (id, id_gutendex, titulo, numero_de_descargas)
+                SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::text[], ?::float8[])
+                    AS v (id, id_gutendex, titulo, numero_de_descargas)
+                WHERE NOT EXISTS (SELECT 1 FROM libros l WHERE l.id_gutendex = v.id_gutendex)
+                ORDER BY lower(v.titulo)
+                ON CONFLICT (lower(titulo)) DO NOTHING
+                RETURNING id, titulo
+                """, sentencia -> {
+            Connection conexion = sentencia.getConnection();
+            sentencia.setArray(1, conexion.createArrayOf("bigint", columnaIds));
+            sentencia.setArray(2, conexion.createArrayOf("bigint", idsGutendex));
+            sentencia.setArray(3, conexion.createArrayOf("text", titulos));
+            sentencia.setArray(4, conexion.createArrayOf("float8", descargas));
+        }, fila -> {
+            insertados.put(fila.getString("titulo"), fila.getLong("id"));
+        });
+        if (insertados.isEmpty()) {
+            return insertados;
+        }
+
+        List<Long> idiomasLibro = new ArrayList<>();
+        List<String> idiomas = new ArrayList<>();
+        List<Long> bibliografiasLibro = new ArrayList<>();
+        List<Long> bibliografiasAutor = new ArrayList<>();
+        for (DatosLibros libro : libros) {
+            Long id = insertados.get(libro.titulo());
+            if (id == null) {
+                continue;
+            }
+            if (libro.idiomas() != null) {
+                for (String idioma : new LinkedHashSet<>(libro.idiomas())) {
+                    idiomasLibro.add(id);
+                    idiomas.add(idioma);
+                }
+            }
+            if (libro.autor() != null) {
+                Set<Long> autores = new LinkedHashSet<>();
+                libro.autor().forEach(autor -> autores.add(idsAutores.get(autor.nombre())));
+                for (Long autor : autores) {
+                    bibliografiasLibro.add(id);
+                    bibliografiasAutor.add(autor);
+                }
+            }
+        }
+        if (!idiomas.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO idiomas_libro (libro_id, idioma) SELECT * FROM unnest(?::bigint[], ?::text[])",
+                    sentencia -> {
+                        sentencia.setArray(1, arreglo(sentencia, "bigint", idiomasLibro));
+                        sentencia.setArray(2, arreglo(sentencia, "text", idiomas));
+                    });
+        }
+        if (!bibliografiasLibro.isEmpty()) {
+            long[] idsBibliografias = reservar("bibliografias_seq", bibliografiasLibro.size());
+            List<Long> columnaBibliografias = new ArrayList<>(idsBibliografias.length);
+            for (long id : idsBibliografias) {
+                columnaBibliografias.add(id);
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO bibliografias (id, libro_id, autor_id)
+                    SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[])
+                    """, sentencia -> {
+                sentencia.setArray(1, arreglo(sentencia, "bigint", columnaBibliografias));
+                sentencia.setArray(2, arreglo(sentencia, "bigint", bibliografiasLibro));
+                sentencia.setArray(3, arreglo(sentencia, "bigint", bibliografiasAutor));
+            });
+        }
+        invalidarConsultasTrasElCommit(insertados.size());
+        return insertados;
+    }
+
+    // Dentro de una transacción, la acción se ejecuta solo si se confirma; fuera, en el momento
+    static void trasElCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // Los INSERT por JDBC no pasan por Hibernate: los resultados de consultas guardados en la caché de
+    // segundo nivel (búsquedas, idiomas, autores por nombre) dejarían fuera las filas nuevas
+    private void invalidarConsultasTrasElCommit(int filas) {
+        if (filas > 0) {
+            trasElCommit(() -> entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion());
+        }
+    }
+
+    private long[] reservar(String secuencia, int cantidad) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) conexion -> SecuenciasAgrupadas.reservar(conexion, secuencia, cantidad));
+    }
+
+    private static Array arreglo(PreparedStatement sentencia, String tipo, List<?> valores) throws SQLException {
+        return sentencia.getConnection().createArrayOf(tipo, valores.toArray());
+    }
+}
@@ -0,0 +1,324 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Instantánea binaria del catálogo del que se construyen los índices en memoria, para no recorrer
+// toda la tabla libros en cada arranque. Es un IndiceCatalogo más: recibe los mismos libros que los
+// demás índices y se guarda en literalura.instantanea.archivo al cerrar y cada
+// literalura.instantanea.intervalo si algo cambió. Al arrancar, IndicesCatalogo la lee con
+// FileChannel.map y solo pide a la base de datos los libros posteriores a su marca de agua.
+//
+// Formato (big endian), por columnas para leerlo de una pasada sobre el archivo mapeado:
+//   cabecera:  "LITI", versión, marca de agua (id más alto), libros, autores, cadenas
+//   cadenas:   desplazamientos int[cadenas + 1] y los bytes UTF-8 de todas seguidos
+//   autores:   id long[], nombre int[] (cadena), nacimiento int[], fallecimiento int[] (SIN_VALOR = nulo)
+//   libros:    id long[], título int[], descargas double[] (NaN = nulo),
+//              inicio de idiomas int[libros + 1] e idiomas int[] (cadenas),
+//              inicio de autores int[libros + 1] y autores int[] (posición en las columnas de autores)
+//   final:     CRC32 de todo lo anterior
+@Component
+public class InstantaneaCatalogo implements IndiceCatalogo {
+
+    private static final int MAGICO = 0x4C495449;
+    private static final int VERSION = 1;
+    private static final int SIN_VALOR = Integer.MIN_VALUE;
+    private static final int CABECERA = 4 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES;
+
+    private final Path archivo;
+    private final ConcurrentSkipListMap<Long, LibroResumen> libros = new ConcurrentSkipListMap<>();
+    private final AtomicLong cambios = new AtomicLong();
+    private volatile long cambiosGuardados;
+
+    public InstantaneaCatalogo(@Value("${literalura.instantanea.archivo:literalura-indices.bin}") String archivo) {
+        this.archivo = archivo.isBlank() ? null : Path.of(archivo);
+    }
+
+    public record Instantanea(long marcaDeAgua, List<LibroResumen> libros) {
+    }
+
+    // Sin archivo no se guarda nunca: tampoco se mantiene la copia del catálogo en memoria
+    @Override
+    public void cargar(Collection<LibroResumen> catalogo) {
+        if (!habilitada()) {
+            return;
+        }
+        libros.clear();
+        catalogo.forEach(libro -> libros.put(libro.id(), libro));
+        cambios.incrementAndGet();
+    }
+
+    @Override
+    public void indexar(LibroResumen libro) {
+        if (!habilitada()) {
+            return;
+        }
+        libros.put(libro.id(), libro);
+        cambios.incrementAndGet();
+    }
+
+    @Override
+    public void actualizar(LibroResumen libro) {
+        if (!habilitada()) {
+            return;
+        }
+        if (libros.replace(libro.id(), libro) != null) {
+            cambios.incrementAndGet();
+        }
+    }
+
+    public boolean habilitada() {
+        return archivo != null;
+    }
+
+    @Scheduled(initialDelayString = "${literalura.instantanea.intervalo:PT10M}",
+            fixedDelayString = "${literalura.instantanea.intervalo:PT10M}")
+    public void guardarSiCambio() {
+        if (habilitada() && cambios.get() != cambiosGuardados) {
+            guardar();
+        }
+    }
+
+    @PreDestroy
+    void guardarAlCerrar() {
+        guardarSiCambio();
+    }
+
+    public void guardar() {
+        long version = cambios.get();
+        List<LibroResumen> catalogo = new ArrayList<>(libros.values());
+        try {
+            escribir(archivo, catalogo);
+            cambiosGuardados = version;
+        } catch (IOException e) {
+            System.out.println("No se pudo guardar la instantánea de los índices: " + e.getMessage());
+        }
+    }
+
+    // Vacía si no hay archivo o no se puede usar (otra versión, truncado, CRC distinto): se reconstruye desde la base de datos
+    public Optional<Instantanea> leer() {
+        if (!habilitada() || !Files.isRegularFile(archivo)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(leer(archivo));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Instantánea de los índices no válida, se cargan desde la base de datos: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    static void escribir(Path destino, List<LibroResumen> catalogo) throws IOException {
+        Map<String, Integer> cadenas = new LinkedHashMap<>();
+        Map<Long, Integer> posicionAutor = new HashMap<>();
+        List<AutorResumen> autores = new ArrayList<>();
+        long marcaDeAgua = 0;
+        for (LibroResumen libro : catalogo) {
+            marcaDeAgua = Math.max(marcaDeAgua, libro.id());
+            cadenas.putIfAbsent(libro.titulo(), cadenas.size());
+            libro.idiomas().forEach(idioma -> cadenas.putIfAbsent(idioma, cadenas.size()));
+            for (AutorResumen autor : libro.autores()) {
+                if (posicionAutor.putIfAbsent(autor.id(), autores.size()) == null) {
+                    autores.add(autor);
+                    cadenas.putIfAbsent(autor.nombre(), cadenas.size());
+                }
+            }
+        }
+
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream salida = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16), crc))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(marcaDeAgua);
+            salida.writeInt(catalogo.size());
+            salida.writeInt(autores.size());
+            salida.writeInt(cadenas.size());
+
+            List<byte[]> bytes = new ArrayList<>(cadenas.size());
+            int desplazamiento = 0;
+            salida.writeInt(0);
+            for (String cadena : cadenas.keySet()) {
+                byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+                bytes.add(utf8);
+                desplazamiento += utf8.length;
+                salida.writeInt(desplazamiento);
+            }
+            for (byte[] utf8 : bytes) {
+                salida.write(utf8);
+            }
+
+            for (AutorResumen autor : autores) {
+                salida.writeLong(autor.id());
+            }
+            for (AutorResumen autor : autores) {
+                salida.writeInt(cadenas.get(autor.nombre()));
+            }
+            for (AutorResumen autor : autores) {
+                salida.writeInt(entero(autor.fechaDeNacimiento()));
+            }
+            for (AutorResumen autor : autores) {
+                salida.writeInt(entero(autor.fechaDeFallecimiento()));
+            }
+
+            for (LibroResumen libro : catalogo) {
+                salida.writeLong(libro.id());
+            }
+            for (LibroResumen libro : catalogo) {
+                salida.writeInt(cadenas.get(libro.titulo()));
+            }
+            for (LibroResumen libro : catalogo) {
+                salida.writeDouble(libro.numeroDeDescargas() == null ? Double.NaN : libro.numeroDeDescargas());
+            }
+            int inicio = 0;
+            salida.writeInt(0);
+            for (LibroResumen libro : catalogo) {
+                inicio += libro.idiomas().size();
+                salida.writeInt(inicio);
+            }
+            for (LibroResumen libro : catalogo) {
+                for (String idioma : libro.idiomas()) {
+                    salida.writeInt(cadenas.get(idioma));
+                }
+            }
+            inicio = 0;
+            salida.writeInt(0);
+            for (LibroResumen libro : catalogo) {
+                inicio += libro.autores().size();
+                salida.writeInt(inicio);
+            }
+            for (LibroResumen libro : catalogo) {
+                for (AutorResumen autor : libro.autores()) {
+                    salida.writeInt(posicionAutor.get(autor.id()));
+                }
+            }
+            salida.flush();
+            // El CRC se escribe fuera del flujo que lo calcula
+            long suma = crc.getValue();
+            salida.writeLong(suma);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Instantanea leer(Path origen) throws IOException {
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (mapa.limit() < CABECERA + Long.BYTES) {
+                throw new IOException("archivo truncado");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(mapa.slice(0, mapa.limit() - Long.BYTES));
+            if (crc.getValue() != mapa.getLong(mapa.limit() - Long.BYTES)) {
+                throw new IOException("el CRC no coincide");
+            }
+
+            ByteBuffer datos = mapa.slice(0, mapa.limit() - Long.BYTES);
+            if (datos.getInt() != MAGICO || datos.getInt() != VERSION) {
+                throw new IOException("formato o versión desconocidos");
+            }
+            long marcaDeAgua = datos.getLong();
+            int totalLibros = datos.getInt();
+            int totalAutores = datos.getInt();
+            int totalCadenas = datos.getInt();
+
+            int[] desplazamientos = enteros(datos, totalCadenas + 1);
+            int base = datos.position();
+            String[] cadenas = new String[totalCadenas];
+            byte[] utf8 = new byte[0];
+            for (int i = 0; i < totalCadenas; i++) {
+                int longitud = desplazamientos[i + 1] - desplazamientos[i];
+                if (utf8.length < longitud) {
+                    utf8 = new byte[Math.max(longitud, utf8.length * 2)];
+                }
+                datos.get(base + desplazamientos[i], utf8, 0, longitud);
+                cadenas[i] = new String(utf8, 0, longitud, StandardCharsets.UTF_8);
+            }
+            datos.position(base + desplazamientos[totalCadenas]);
+
+            long[] idsAutores = largos(datos, totalAutores);
+            int[] nombres = enteros(datos, totalAutores);
+            int[] nacimientos = enteros(datos, totalAutores);
+            int[] fallecimientos = enteros(datos, totalAutores);
+            AutorResumen[] autores = new AutorResumen[totalAutores];
+            for (int i = 0; i < totalAutores; i++) {
+                autores[i] = new AutorResumen(idsAutores[i], cadenas[nombres[i]],
+                        entero(nacimientos[i]), entero(fallecimientos[i]));
+            }
+
+            long[] idsLibros = largos(datos, totalLibros);
+            int[] titulos = enteros(datos, totalLibros);
+            double[] descargas = new double[totalLibros];
+            datos.asDoubleBuffer().get(descargas);
+            datos.position(datos.position() + totalLibros * Double.BYTES);
+            int[] inicioIdiomas = enteros(datos, totalLibros + 1);
+            int[] idiomas = enteros(datos, inicioIdiomas[totalLibros]);
+            int[] inicioAutores = enteros(datos, totalLibros + 1);
+            int[] autoresLibros = enteros(datos, inicioAutores[totalLibros]);
+
+            List<LibroResumen> libros = new ArrayList<>(totalLibros);
+            for (int i = 0; i < totalLibros; i++) {
+                String[] idiomasLibro = new String[inicioIdiomas[i + 1] - inicioIdiomas[i]];
+                for (int j = 0; j < idiomasLibro.length; j++) {
+                    idiomasLibro[j] = cadenas[idiomas[inicioIdiomas[i] + j]];
+                }
+                AutorResumen[] autoresLibro = new AutorResumen[inicioAutores[i + 1] - inicioAutores[i]];
+                for (int j = 0; j < autoresLibro.length; j++) {
+                    autoresLibro[j] = autores[autoresLibros[inicioAutores[i] + j]];
+                }
+                libros.add(new LibroResumen(idsLibros[i], cadenas[titulos[i]], List.of(idiomasLibro),
+                        Double.isNaN(descargas[i]) ? null : descargas[i], List.of(autoresLibro)));
+            }
+            return new Instantanea(marcaDeAgua, libros);
+        }
+    }
+
+    private static int[] enteros(ByteBuffer datos, int cantidad) {
+        int[] valores = new int[cantidad];
+        datos.asIntBuffer().get(valores);
+        datos.position(datos.position() + cantidad * Integer.BYTES);
+        return valores;
+    }
+
+    private static long[] largos(ByteBuffer datos, int cantidad) {
+        long[] valores = new long[cantidad];
+        datos.asLongBuffer().get(valores);
+        datos.position(datos.position() + cantidad * Long.BYTES);
+        return valores;
+    }
+
+    private static int entero(Integer valor) {
+        return valor == null ? SIN_VALOR : valor;
+    }
+
+    private static Integer entero(int valor) {
+        return valor == SIN_VALOR ? null : valor;
+    }
+}
@@ -0,0 +1,186 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lee el catálogo sin conexión de Project Gutenberg (pg_catalog.csv) y entrega cada libro como
+// DatosLibros, con los mismos datos que daría Gutendex salvo las descargas, que el CSV no trae.
+// El CSV sigue el RFC 4180: campos entre comillas con comillas dobladas y saltos de línea dentro
+// de los títulos. Se lee por bloques de 64K caracteres reutilizando los búferes, sin cargar el archivo.
+public final class LectorCatalogoGutenberg {
+
+    // "Shelley, Mary Wollstonecraft, 1797-1851", "Homer, 751? BCE-651? BCE", "Twain, Mark, 1835-"
+    private static final Pattern FECHAS = Pattern.compile(
+            ",\\s*(?:(\\d{1,4})\\??\\s*(BCE)?)?\\s*-\\s*(?:(\\d{1,4})\\??\\s*(BCE)?)?\\s*$");
+    // Traductores, editores, ilustradores...: Gutendex no los cuenta entre los autores
+    private static final Pattern ROL = Pattern.compile("\\[[^]]*]\\s*$");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final Reader entrada;
+    private final StringBuilder campo = new StringBuilder();
+    private final List<String> fila = new ArrayList<>();
+    private final char[] bufer = new char[1 << 16];
+    private int posicion;
+    private int limite;
+
+    private LectorCatalogoGutenberg(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    public record ResultadoLectura(int filas, int libros, int descartadas) {
+    }
+
+    // Entrega los libros de texto (Type = Text) en el orden del archivo; el resto de filas
+    // (audiolibros, filas sin título o sin número) se cuentan como descartadas
+    public static ResultadoLectura leer(Reader entrada, Consumer<DatosLibros> consumidor) throws IOException {
+        LectorCatalogoGutenberg lector = new LectorCatalogoGutenberg(entrada);
+        if (!lector.leerFila()) {
+            throw new IOException("El catálogo está vacío");
+        }
+        List<String> cabecera = List.copyOf(lector.fila);
+        int columnaNumero = columna(cabecera, "Text#");
+        int columnaTipo = columna(cabecera, "Type");
+        int columnaTitulo = columna(cabecera, "Title");
+        int columnaIdiomas = columna(cabecera, "Language");
+        int columnaAutores = columna(cabecera, "Authors");
+
+        int filas = 0;
+        int libros = 0;
+        while (lector.leerFila()) {
+            List<String> valores = lector.fila;
+            if (valores.size() == 1 && valores.get(0).isEmpty()) {
+                continue;
+            }
+            filas++;
+            if (valores.size() < cabecera.size() || !"Text".equals(valores.get(columnaTipo))) {
+                continue;
+            }
+            Long numero = numero(valores.get(columnaNumero));
+            String titulo = ESPACIOS.matcher(valores.get(columnaTitulo).strip()).replaceAll(" ");
+            if (numero == null || titulo.isEmpty()) {
+                continue;
+            }
+            consumidor.accept(new DatosLibros(numero, titulo, autores(valores.get(columnaAutores)),
+                    idiomas(valores.get(columnaIdiomas)), null));
+            libros++;
+        }
+        return new ResultadoLectura(filas, libros, filas - libros);
+    }
+
+    // "en; fr" -> [en, fr]
+    static List<String> idiomas(String campo) {
+        Set<String> idiomas = new LinkedHashSet<>();
+        for (String idioma : campo.split(";")) {
+            if (!idioma.isBlank()) {
+                idiomas.add(idioma.strip().toLowerCase());
+            }
+        }
+        return List.copyOf(idiomas);
+    }
+
+    // "Shelley, Mary Wollstonecraft, 1797-1851; Guston, David H. [Editor]" -> [Shelley, Mary Wollstonecraft (1797-1851)]
+    static List<DatosAutor> autores(String campo) {
+        List<DatosAutor> autores = new ArrayList<>();
+        for (String entrada : campo.split(";")) {
+            String autor = entrada.strip();
+            if (autor.isEmpty() || ROL.matcher(autor).find()) {
+                continue;
+            }
+            Matcher fechas = FECHAS.matcher(autor);
+            if (fechas.find() && (fechas.group(1) != null || fechas.group(3) != null)) {
+                autores.add(new DatosAutor(autor.substring(0, fechas.start()).strip(),
+                        anio(fechas.group(1), fechas.group(2)), anio(fechas.group(3), fechas.group(4))));
+            } else {
+                autores.add(new DatosAutor(autor, null, null));
+            }
+        }
+        return autores;
+    }
+
+    // Gutendex da los años antes de Cristo como negativos
+    private static Integer anio(String digitos, String antesDeCristo) {
+        if (digitos == null) {
+            return null;
+        }
+        int anio = Integer.parseInt(digitos);
+        return antesDeCristo == null ? anio : -anio;
+    }
+
+    private static Long numero(String texto) {
+        try {
+            return Long.valueOf(texto.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int columna(List<String> cabecera, String nombre) throws IOException {
+        int indice = cabecera.indexOf(nombre);
+        if (indice < 0) {
+            throw new IOException("El catálogo no tiene la columna " + nombre + " (¿es pg_catalog.csv?)");
+        }
+        return indice;
+    }
+
+    // Deja en fila los campos del siguiente registro; false al final del archivo
+    private boolean leerFila() throws IOException {
+        fila.clear();
+        int c = leer();
+        if (c == -1) {
+            return false;
+        }
+        while (true) {
+            campo.setLength(0);
+            if (c == '"') {
+                while (true) {
+                    c = leer();
+                    if (c == -1) {
+                        throw new IOException("Comillas sin cerrar en la fila " + fila);
+                    }
+                    if (c == '"') {
+                        c = leer();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    campo.append((char) c);
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    campo.append((char) c);
+                    c = leer();
+                }
+            }
+            fila.add(campo.toString());
+            if (c == ',') {
+                c = leer();
+                continue;
+            }
+            if (c == '\r' && posicion < limite && bufer[posicion] == '\n') {
+                posicion++;
+            }
+            return true;
+        }
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite) {
+            limite = Math.max(entrada.read(bufer), 0);
+            posicion = 0;
+            if (limite == 0) {
+                return -1;
+            }
+        }
+        return bufer[posicion++];
+    }
+}
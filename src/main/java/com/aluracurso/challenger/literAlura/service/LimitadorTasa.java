@@ -0,0 +1,81 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cubeta de fichas: admite ráfagas de hasta 'capacidad' peticiones y después 'porSegundo' peticiones
+// por segundo. Quien no obtiene ficha espera como mucho 'esperaMaxima'; si haría falta más, se rechaza.
+public class LimitadorTasa {
+
+    private final double capacidad;
+    private final double fichasPorNano;
+    private final long esperaMaximaNanos;
+    private double fichas;
+    private long ultimaRecarga = System.nanoTime();
+
+    private final AtomicLong concedidas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public LimitadorTasa(double porSegundo, int capacidad, Duration esperaMaxima) {
+        this.capacidad = capacidad;
+        this.fichasPorNano = porSegundo / 1_000_000_000.0;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.fichas = capacidad;
+    }
+
+    // porSegundo <= 0 desactiva el límite
+    public boolean adquirir() {
+        long espera = reservarFicha();
+        if (espera < 0) {
+            return false;
+        }
+        if (espera > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(espera));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rechazadas.incrementAndGet();
+                return false;
+            }
+        }
+        concedidas.incrementAndGet();
+        return true;
+    }
+
+    // Sin bloquear, para quien no puede dormir el hilo: reserva una ficha y devuelve los nanosegundos
+    // que hay que esperar antes de usarla, o -1 si la espera superaría el máximo
+    public long reservar() {
+        long espera = reservarFicha();
+        if (espera >= 0) {
+            concedidas.incrementAndGet();
+        }
+        return espera;
+    }
+
+    private long reservarFicha() {
+        if (fichasPorNano <= 0) {
+            return 0;
+        }
+        synchronized (this) {
+            long ahora = System.nanoTime();
+            fichas = Math.min(capacidad, fichas + (ahora - ultimaRecarga) * fichasPorNano);
+            ultimaRecarga = ahora;
+            long espera = fichas >= 1 ? 0 : (long) Math.ceil((1 - fichas) / fichasPorNano);
+            if (espera > esperaMaximaNanos) {
+                rechazadas.incrementAndGet();
+                return -1;
+            }
+            // La ficha queda reservada (saldo negativo) para que quienes llegan después esperen su turno
+            fichas -= 1;
+            return espera;
+        }
+    }
+
+    public long getConcedidas() {
+        return concedidas.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+}
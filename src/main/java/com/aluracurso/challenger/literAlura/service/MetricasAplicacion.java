@@ -0,0 +1,204 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+// Registro de métricas propio (contadores, histogramas de tiempos y medidores) con salida en el
+// formato de texto de Prometheus. Cada serie se identifica por su nombre y sus etiquetas, que se
+// pasan como pares clave, valor; registrar un valor solo suma sobre adders, sin bloquear.
+@Component
+public class MetricasAplicacion {
+
+    // Límites de los cubos de los histogramas de tiempos, en segundos
+    static final double[] LIMITES_SEGUNDOS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private enum Tipo {
+        COUNTER, HISTOGRAM, GAUGE
+    }
+
+    private record Familia(Tipo tipo, Map<String, Object> series) {
+    }
+
+    private static final class Histograma {
+        private final LongAdder[] cubos = new LongAdder[LIMITES_SEGUNDOS.length];
+        private final DoubleAdder suma = new DoubleAdder();
+        private final LongAdder cuenta = new LongAdder();
+
+        private Histograma() {
+            for (int i = 0; i < cubos.length; i++) {
+                cubos[i] = new LongAdder();
+            }
+        }
+
+        private void registrar(double segundos) {
+            for (int i = 0; i < LIMITES_SEGUNDOS.length; i++) {
+                if (segundos <= LIMITES_SEGUNDOS[i]) {
+                    cubos[i].increment();
+                    break;
+                }
+            }
+            suma.add(segundos);
+            cuenta.increment();
+        }
+    }
+
+    // Ordenadas por nombre para que la salida sea estable entre llamadas
+    private final Map<String, Familia> familias = new ConcurrentSkipListMap<>();
+
+    public void contar(String nombre, String... etiquetas) {
+        contar(nombre, 1, etiquetas);
+    }
+
+    public void contar(String nombre, double cantidad, String... etiquetas) {
+        ((DoubleAdder) serie(nombre, Tipo.COUNTER, etiquetas, DoubleAdder::new)).add(cantidad);
+    }
+
+    public void registrarTiempo(String nombre, long nanos, String... etiquetas) {
+        ((Histograma) serie(nombre, Tipo.HISTOGRAM, etiquetas, Histograma::new)).registrar(nanos / 1e9);
+    }
+
+    // Mide la acción y añade la etiqueta resultado=ok o resultado=error según termine
+    public <T> T medir(String nombre, Supplier<T> accion, String... etiquetas) {
+        long inicio = System.nanoTime();
+        String resultado = "error";
+        try {
+            T valor = accion.get();
+            resultado = "ok";
+            return valor;
+        } finally {
+            registrarTiempo(nombre, System.nanoTime() - inicio, conEtiqueta(etiquetas, "resultado", resultado));
+        }
+    }
+
+    public void medir(String nombre, Runnable accion, String... etiquetas) {
+        medir(nombre, () -> {
+            accion.run();
+            return null;
+        }, etiquetas);
+    }
+
+    // Medidor que se lee en cada exportación (tamaño de la caché, estado del circuito, conexiones...)
+    public void medidor(String nombre, DoubleSupplier valor, String... etiquetas) {
+        familia(nombre, Tipo.GAUGE).series().put(etiquetas(etiquetas), valor);
+    }
+
+    public double valorContador(String nombre, String... etiquetas) {
+        Familia familia = familias.get(nombre);
+        Object serie = familia == null ? null : familia.series().get(etiquetas(etiquetas));
+        return serie instanceof DoubleAdder contador ? contador.sum() : 0;
+    }
+
+    public long cuentaTiempos(String nombre, String... etiquetas) {
+        Familia familia = familias.get(nombre);
+        Object serie = familia == null ? null : familia.series().get(etiquetas(etiquetas));
+        return serie instanceof Histograma histograma ? histograma.cuenta.sum() : 0;
+    }
+
+    // Formato de exposición de texto de Prometheus 0.0.4
+    public String formatoPrometheus() {
+        StringBuilder salida = new StringBuilder();
+        familias.forEach((nombre, familia) -> {
+            salida.append("# TYPE ").append(nombre).append(' ')
+                    .append(familia.tipo().name().toLowerCase(Locale.ROOT)).append('\n');
+            familia.series().forEach((etiquetas, serie) -> {
+                switch (familia.tipo()) {
+                    case COUNTER -> linea(salida, nombre, etiquetas, ((DoubleAdder) serie).sum());
+                    case GAUGE -> linea(salida, nombre, etiquetas, leer((DoubleSupplier) serie));
+                    case HISTOGRAM -> {
+                        Histograma histograma = (Histograma) serie;
+                        long acumulado = 0;
+                        for (int i = 0; i < LIMITES_SEGUNDOS.length; i++) {
+                            acumulado += histograma.cubos[i].sum();
+                            linea(salida, nombre + "_bucket", conLimite(etiquetas, numero(LIMITES_SEGUNDOS[i])), acumulado);
+                        }
+                        long cuenta = histograma.cuenta.sum();
+                        linea(salida, nombre + "_bucket", conLimite(etiquetas, "+Inf"), cuenta);
+                        linea(salida, nombre + "_sum", etiquetas, histograma.suma.sum());
+                        linea(salida, nombre + "_count", etiquetas, cuenta);
+                    }
+                }
+            });
+        });
+        return salida.toString();
+    }
+
+    private Object serie(String nombre, Tipo tipo, String[] etiquetas, Supplier<Object> nueva) {
+        return familia(nombre, tipo).series().computeIfAbsent(etiquetas(etiquetas), clave -> nueva.get());
+    }
+
+    private Familia familia(String nombre, Tipo tipo) {
+        Familia familia = familias.computeIfAbsent(nombre, clave -> new Familia(tipo, new ConcurrentSkipListMap<>()));
+        if (familia.tipo() != tipo) {
+            throw new IllegalArgumentException("La métrica " + nombre + " ya está registrada como " + familia.tipo());
+        }
+        return familia;
+    }
+
+    // Etiquetas ya formateadas ({clave="valor",...}), que sirven también de clave de la serie
+    private static String etiquetas(String[] pares) {
+        if (pares.length % 2 != 0) {
+            throw new IllegalArgumentException("Las etiquetas deben ir en pares clave, valor");
+        }
+        if (pares.length == 0) {
+            return "";
+        }
+        StringBuilder texto = new StringBuilder("{");
+        for (int i = 0; i < pares.length; i += 2) {
+            if (i > 0) {
+                texto.append(',');
+            }
+            texto.append(pares[i]).append("=\"").append(escapar(pares[i + 1])).append('"');
+        }
+        return texto.append('}').toString();
+    }
+
+    private static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    static String[] conEtiqueta(String[] etiquetas, String clave, String valor) {
+        String[] todas = new String[etiquetas.length + 2];
+        System.arraycopy(etiquetas, 0, todas, 0, etiquetas.length);
+        todas[etiquetas.length] = clave;
+        todas[etiquetas.length + 1] = valor;
+        return todas;
+    }
+
+    private static String conLimite(String etiquetas, String limite) {
+        String le = "le=\"" + limite + "\"";
+        return etiquetas.isEmpty() ? "{" + le + "}" : etiquetas.substring(0, etiquetas.length() - 1) + "," + le + "}";
+    }
+
+    private static void linea(StringBuilder salida, String nombre, String etiquetas, double valor) {
+        salida.append(nombre).append(etiquetas).append(' ').append(numero(valor)).append('\n');
+    }
+
+    private static String numero(double valor) {
+        if (Double.isNaN(valor)) {
+            return "NaN";
+        }
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            return Long.toString((long) valor);
+        }
+        return Double.toString(valor);
+    }
+
+    // Un medidor que falla no debe impedir exportar el resto
+    private static double leer(DoubleSupplier medidor) {
+        try {
+            return medidor.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tiempo de cada método de los repositorios y de la conversión de JSON, sin tocar sus firmas.
+// Los repositorios de Spring Data son proxies: el nombre se toma de la interfaz del paquete
+// repository que implementan, así los métodos heredados (findById, saveAll...) quedan bajo su repositorio.
+@Aspect
+@Component
+public class MetricasComponentes {
+
+    private static final String PAQUETE_REPOSITORIOS = "com.aluracurso.challenger.literAlura.repository.";
+
+    private final MetricasAplicacion metricas;
+    private final Map<Class<?>, String> nombres = new ConcurrentHashMap<>();
+
+    public MetricasComponentes(MetricasAplicacion metricas) {
+        this.metricas = metricas;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint punto) throws Throwable {
+        return medir(punto, "literalura_repositorio_segundos",
+                "repositorio", nombres.computeIfAbsent(punto.getThis().getClass(), clase -> repositorio(punto.getThis())),
+                "metodo", punto.getSignature().getName());
+    }
+
+    @Around("execution(* com.aluracurso.challenger.literAlura.service.IConvierteDatos+.*(..))")
+    public Object medirConversion(ProceedingJoinPoint punto) throws Throwable {
+        return medir(punto, "literalura_conversion_segundos", "metodo", punto.getSignature().getName());
+    }
+
+    private Object medir(ProceedingJoinPoint punto, String nombre, String... etiquetas) throws Throwable {
+        long inicio = System.nanoTime();
+        String resultado = "error";
+        try {
+            Object valor = punto.proceed();
+            resultado = "ok";
+            return valor;
+        } finally {
+            metricas.registrarTiempo(nombre, System.nanoTime() - inicio,
+                    MetricasAplicacion.conEtiqueta(etiquetas, "resultado", resultado));
+        }
+    }
+
+    private static String repositorio(Object proxy) {
+        for (Class<?> interfaz : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (interfaz.getName().startsWith(PAQUETE_REPOSITORIOS)) {
+                return interfaz.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
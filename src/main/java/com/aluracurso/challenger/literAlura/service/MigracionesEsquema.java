@@ -0,0 +1,165 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Migraciones versionadas del esquema de PostgreSQL: archivos V<versión>__<descripción>.sql en
+// classpath:db/migracion. Al arrancar se aplican en orden las que no figuran en esquema_migraciones,
+// todas en una transacción y con esa tabla bloqueada, así dos instancias que arrancan a la vez no
+// aplican la misma migración dos veces. Una migración aplicada no se edita: si su CRC32 ya no coincide
+// con el registrado, el arranque se detiene. En otras bases de datos (H2 en las pruebas) no hace nada
+// y el esquema sigue saliendo de Hibernate.
+public class MigracionesEsquema {
+
+    private static final Pattern NOMBRE = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String ubicacion;
+
+    public MigracionesEsquema(DataSource dataSource, String ubicacion) {
+        this.dataSource = dataSource;
+        this.ubicacion = ubicacion;
+    }
+
+    record Migracion(int version, String descripcion, List<String> sentencias, long sumaVerificacion) {
+    }
+
+    // Devuelve las versiones aplicadas en esta llamada
+    public List<Integer> migrar() {
+        List<Migracion> migraciones = leerMigraciones(ubicacion);
+        try (Connection conexion = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexion.getMetaData().getDatabaseProductName())) {
+                return List.of();
+            }
+            boolean autoCommit = conexion.getAutoCommit();
+            conexion.setAutoCommit(false);
+            try {
+                List<Integer> aplicadas = aplicarPendientes(conexion, migraciones);
+                conexion.commit();
+                if (!aplicadas.isEmpty()) {
+                    System.out.println("Esquema migrado a la versión " + aplicadas.get(aplicadas.size() - 1)
+                            + " (migraciones aplicadas: " + aplicadas + ")");
+                }
+                return aplicadas;
+            } catch (SQLException | RuntimeException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("No se pudo migrar el esquema de la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Integer> aplicarPendientes(Connection conexion, List<Migracion> migraciones) throws SQLException {
+        Map<Integer, Long> registradas = new HashMap<>();
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("""
+                    CREATE TABLE IF NOT EXISTS esquema_migraciones (
+                        version integer PRIMARY KEY,
+                        descripcion varchar(255) NOT NULL,
+                        suma_verificacion bigint NOT NULL,
+                        aplicada_en timestamp NOT NULL DEFAULT now()
+                    )""");
+            sentencia.execute("LOCK TABLE esquema_migraciones IN EXCLUSIVE MODE");
+            try (ResultSet filas = sentencia.executeQuery("SELECT version, suma_verificacion FROM esquema_migraciones")) {
+                while (filas.next()) {
+                    registradas.put(filas.getInt(1), filas.getLong(2));
+                }
+            }
+        }
+
+        List<Integer> aplicadas = new ArrayList<>();
+        for (Migracion migracion : migraciones) {
+            Long suma = registradas.get(migracion.version());
+            if (suma != null) {
+                if (suma != migracion.sumaVerificacion()) {
+                    throw new IllegalStateException("La migración V" + migracion.version() + "__" + migracion.descripcion()
+                            + " cambió después de aplicarse; crea una migración nueva en lugar de editarla");
+                }
+                continue;
+            }
+            try (Statement sentencia = conexion.createStatement()) {
+                for (String sql : migracion.sentencias()) {
+                    sentencia.execute(sql);
+                }
+            }
+            try (PreparedStatement registro = conexion.prepareStatement(
+                    "INSERT INTO esquema_migraciones (version, descripcion, suma_verificacion) VALUES (?, ?, ?)")) {
+                registro.setInt(1, migracion.version());
+                registro.setString(2, migracion.descripcion());
+                registro.setLong(3, migracion.sumaVerificacion());
+                registro.executeUpdate();
+            }
+            aplicadas.add(migracion.version());
+        }
+        return aplicadas;
+    }
+
+    static List<Migracion> leerMigraciones(String ubicacion) {
+        List<Migracion> migraciones = new ArrayList<>();
+        try {
+            for (Resource recurso : new PathMatchingResourcePatternResolver().getResources("classpath*:" + ubicacion + "/*.sql")) {
+                Matcher nombre = NOMBRE.matcher(recurso.getFilename());
+                if (!nombre.matches()) {
+                    throw new IllegalStateException("Nombre de migración no válido: " + recurso.getFilename()
+                            + " (se espera V<versión>__<descripción>.sql)");
+                }
+                byte[] contenido = recurso.getContentAsByteArray();
+                CRC32 crc = new CRC32();
+                crc.update(contenido);
+                migraciones.add(new Migracion(Integer.parseInt(nombre.group(1)), nombre.group(2),
+                        sentencias(new String(contenido, StandardCharsets.UTF_8)), crc.getValue()));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudieron leer las migraciones de " + ubicacion, e);
+        }
+        migraciones.sort(Comparator.comparingInt(Migracion::version));
+        for (int i = 1; i < migraciones.size(); i++) {
+            if (migraciones.get(i).version() == migraciones.get(i - 1).version()) {
+                throw new IllegalStateException("Hay dos migraciones con la versión " + migraciones.get(i).version());
+            }
+        }
+        return migraciones;
+    }
+
+    // Separa el script en sentencias por el ';' final de línea y descarta los comentarios de línea completa;
+    // basta para DDL sin funciones ni bloques DO
+    static List<String> sentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String linea : script.split("\\R")) {
+            String recortada = linea.strip();
+            if (recortada.isEmpty() || recortada.startsWith("--")) {
+                continue;
+            }
+            actual.append(linea).append('\n');
+            if (recortada.endsWith(";")) {
+                sentencias.add(actual.substring(0, actual.lastIndexOf(";")).strip());
+                actual.setLength(0);
+            }
+        }
+        if (!actual.isEmpty()) {
+            sentencias.add(actual.toString().strip());
+        }
+        return sentencias;
+    }
+}
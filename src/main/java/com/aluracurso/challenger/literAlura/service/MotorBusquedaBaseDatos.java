@@ -0,0 +1,53 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Alternativa al índice en memoria: consulta directamente los índices de texto completo de PostgreSQL.
+// plainto_tsquery ya combina las palabras con AND; los prefijos ('*') no se admiten y se ignoran.
+@Service
+@ConditionalOnProperty(name = "literalura.busqueda.motor", havingValue = "base-datos")
+public class MotorBusquedaBaseDatos implements IMotorBusqueda {
+
+    private final LibroRepository libroRepository;
+    private final AutorRepository autorRepository;
+    private final ConsultaCatalogo consultaCatalogo;
+
+    public MotorBusquedaBaseDatos(LibroRepository libroRepository, AutorRepository autorRepository,
+                                  ConsultaCatalogo consultaCatalogo) {
+        this.libroRepository = libroRepository;
+        this.autorRepository = autorRepository;
+        this.consultaCatalogo = consultaCatalogo;
+    }
+
+    @Override
+    public List<LibroResumen> buscarLibros(String consulta, int limite) {
+        // Primero los ids por el índice de texto completo y después los libros con sus autores en una consulta
+        return consultaCatalogo.librosPorId(libroRepository.findIdsPorPalabra(consulta.replace("*", ""))).stream()
+                .sorted(Comparator.comparing(LibroResumen::numeroDeDescargas,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public List<AutorResumen> buscarAutores(String consulta, int limite) {
+        return autorRepository.findAutoresPorPalabra(consulta.replace("*", "")).stream()
+                .map(AutorResumen::de)
+                .sorted(Comparator.comparing(AutorResumen::nombre))
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public List<LibroResumen> librosDeAutor(Long autorId) {
+        return consultaCatalogo.librosDeAutor(autorId);
+    }
+}
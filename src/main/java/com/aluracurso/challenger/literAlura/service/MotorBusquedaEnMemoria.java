@@ -0,0 +1,284 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria de títulos y nombres de autor. Cada libro y cada autor recibe
+// un número de documento (su posición en las listas) y las listas de publicación guardan
+// esos números como int ordenados, así las intersecciones no crean objetos por documento.
+@Service
+@ConditionalOnProperty(name = "literalura.busqueda.motor", havingValue = "memoria", matchIfMissing = true)
+public class MotorBusquedaEnMemoria implements IMotorBusqueda, IndiceCatalogo {
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final List<LibroResumen> libros = new ArrayList<>();
+    private double[] descargas = new double[1024];
+    private final Map<Long, Integer> documentoPorLibro = new HashMap<>();
+    private final TreeMap<String, ListaEnteros> indiceTitulos = new TreeMap<>();
+
+    private final List<AutorResumen> autores = new ArrayList<>();
+    private final List<ListaEnteros> librosPorAutor = new ArrayList<>();
+    private final Map<Long, Integer> documentoPorAutor = new HashMap<>();
+    private final TreeMap<String, ListaEnteros> indiceAutores = new TreeMap<>();
+
+    @Override
+    public void cargar(Collection<LibroResumen> catalogo) {
+        candado.writeLock().lock();
+        try {
+            libros.clear();
+            descargas = new double[Math.max(1024, catalogo.size())];
+            documentoPorLibro.clear();
+            indiceTitulos.clear();
+            autores.clear();
+            librosPorAutor.clear();
+            documentoPorAutor.clear();
+            indiceAutores.clear();
+            catalogo.forEach(this::agregar);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexar(LibroResumen libro) {
+        candado.writeLock().lock();
+        try {
+            agregar(libro);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Las descargas cambian el orden de los resultados; título y autores no cambian
+    @Override
+    public void actualizar(LibroResumen libro) {
+        candado.writeLock().lock();
+        try {
+            Integer documento = documentoPorLibro.get(libro.id());
+            if (documento != null) {
+                libros.set(documento, libro);
+                descargas[documento] = libro.numeroDeDescargas() == null ? 0 : libro.numeroDeDescargas();
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LibroResumen> buscarLibros(String consulta, int limite) {
+        candado.readLock().lock();
+        try {
+            int[] documentos = mejoresPorDescargas(coincidencias(indiceTitulos, consulta), limite);
+            List<LibroResumen> resultado = new ArrayList<>(documentos.length);
+            for (int documento : documentos) {
+                resultado.add(libros.get(documento));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<AutorResumen> buscarAutores(String consulta, int limite) {
+        candado.readLock().lock();
+        try {
+            int[] documentos = coincidencias(indiceAutores, consulta);
+            List<AutorResumen> resultado = new ArrayList<>(documentos.length);
+            for (int documento : documentos) {
+                resultado.add(autores.get(documento));
+            }
+            resultado.sort(Comparator.comparing(AutorResumen::nombre));
+            return resultado.size() > limite ? resultado.subList(0, limite) : resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LibroResumen> librosDeAutor(Long autorId) {
+        candado.readLock().lock();
+        try {
+            Integer documentoAutor = documentoPorAutor.get(autorId);
+            if (documentoAutor == null) {
+                return List.of();
+            }
+            ListaEnteros documentos = librosPorAutor.get(documentoAutor);
+            List<LibroResumen> resultado = new ArrayList<>(documentos.tamano);
+            for (int i = 0; i < documentos.tamano; i++) {
+                resultado.add(libros.get(documentos.datos[i]));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Minúsculas, sin acentos y separado en cualquier carácter que no sea letra o dígito
+    static List<String> tokenizar(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esPalabra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esPalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esPalabra && inicio >= 0) {
+                tokens.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void agregar(LibroResumen libro) {
+        if (documentoPorLibro.containsKey(libro.id())) {
+            return;
+        }
+        int documento = libros.size();
+        libros.add(libro);
+        if (documento == descargas.length) {
+            descargas = Arrays.copyOf(descargas, documento * 2);
+        }
+        descargas[documento] = libro.numeroDeDescargas() == null ? 0 : libro.numeroDeDescargas();
+        documentoPorLibro.put(libro.id(), documento);
+        for (String token : tokenizar(libro.titulo())) {
+            publicar(indiceTitulos, token, documento);
+        }
+
+        for (AutorResumen autor : libro.autores()) {
+            Integer documentoAutor = documentoPorAutor.get(autor.id());
+            if (documentoAutor == null) {
+                documentoAutor = autores.size();
+                autores.add(autor);
+                librosPorAutor.add(new ListaEnteros());
+                documentoPorAutor.put(autor.id(), documentoAutor);
+                for (String token : tokenizar(autor.nombre())) {
+                    publicar(indiceAutores, token, documentoAutor);
+                }
+            }
+            librosPorAutor.get(documentoAutor).agregar(documento);
+        }
+    }
+
+    // Los documentos se agregan en orden creciente, así cada lista queda ordenada sin reordenar
+    private static void publicar(TreeMap<String, ListaEnteros> indice, String token, int documento) {
+        ListaEnteros lista = indice.computeIfAbsent(token, t -> new ListaEnteros());
+        if (lista.tamano == 0 || lista.datos[lista.tamano - 1] != documento) {
+            lista.agregar(documento);
+        }
+    }
+
+    private record Termino(String texto, boolean prefijo) {
+    }
+
+    private static List<Termino> terminos(String consulta) {
+        List<Termino> terminos = new ArrayList<>();
+        if (consulta == null) {
+            return terminos;
+        }
+        for (String parte : consulta.trim().split("\\s+")) {
+            boolean prefijo = parte.endsWith("*");
+            List<String> tokens = tokenizar(prefijo ? parte.substring(0, parte.length() - 1) : parte);
+            for (int i = 0; i < tokens.size(); i++) {
+                terminos.add(new Termino(tokens.get(i), prefijo && i == tokens.size() - 1));
+            }
+        }
+        return terminos;
+    }
+
+    private static int[] coincidencias(TreeMap<String, ListaEnteros> indice, String consulta) {
+        int[] resultado = null;
+        for (Termino termino : terminos(consulta)) {
+            int[] documentos;
+            if (termino.prefijo()) {
+                BitSet union = new BitSet();
+                for (ListaEnteros lista : indice.subMap(termino.texto(), true, termino.texto() + Character.MAX_VALUE, false).values()) {
+                    for (int i = 0; i < lista.tamano; i++) {
+                        union.set(lista.datos[i]);
+                    }
+                }
+                documentos = union.stream().toArray();
+            } else {
+                ListaEnteros lista = indice.get(termino.texto());
+                documentos = lista == null ? new int[0] : Arrays.copyOf(lista.datos, lista.tamano);
+            }
+            resultado = resultado == null ? documentos : interseccion(resultado, documentos);
+            if (resultado.length == 0) {
+                break;
+            }
+        }
+        return resultado == null ? new int[0] : resultado;
+    }
+
+    private static int[] interseccion(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    // Selección de los k documentos con más descargas por inserción en un arreglo acotado
+    private int[] mejoresPorDescargas(int[] documentos, int limite) {
+        int k = Math.min(limite, documentos.length);
+        int[] mejores = new int[k];
+        int n = 0;
+        for (int documento : documentos) {
+            double valor = descargas[documento];
+            if (n == k && (k == 0 || valor <= descargas[mejores[k - 1]])) {
+                continue;
+            }
+            int i = n < k ? n++ : k - 1;
+            while (i > 0 && descargas[mejores[i - 1]] < valor) {
+                mejores[i] = mejores[i - 1];
+                i--;
+            }
+            mejores[i] = documento;
+        }
+        return mejores;
+    }
+
+    private static final class ListaEnteros {
+        private int[] datos = new int[4];
+        private int tamano;
+
+        private void agregar(int valor) {
+            if (tamano == datos.length) {
+                datos = Arrays.copyOf(datos, tamano * 2);
+            }
+            datos[tamano++] = valor;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Comprobación de palabra completa con la que se filtran los resultados de la API en la opción 1.
+// La palabra clave se prepara una vez con de(...) y después coincide(...) recorre cada texto en su
+// sitio, sin separar en palabras ni crear objetos: las palabras son secuencias de letras y dígitos
+// Unicode, y se comparan sin distinguir mayúsculas ni acentos ("Dostoïevski" = "dostoievski"),
+// con el mismo criterio que MotorBusquedaEnMemoria.tokenizar. Una clave de varias palabras
+// coincide si aparecen seguidas en el texto ("don quijote" en "Don Quijote de la Mancha").
+public final class PalabrasCompletas {
+
+    // Separa las palabras de la clave preparada
+    private static final int SEPARADOR = -1;
+
+    // Letra base en minúsculas de los caracteres latinos más comunes, calculada con la misma
+    // normalización NFD que el índice en memoria; el resto se pasa a minúsculas sin más
+    private static final char[] PLEGADO = new char[0x250];
+
+    static {
+        for (char c = 0; c < PLEGADO.length; c++) {
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase(Locale.ROOT);
+            PLEGADO[c] = base.length() == 1 ? base.charAt(0) : Character.toLowerCase(c);
+        }
+    }
+
+    private final int[] clave;
+
+    private PalabrasCompletas(int[] clave) {
+        this.clave = clave;
+    }
+
+    public static PalabrasCompletas de(String palabraClave) {
+        int[] clave = new int[palabraClave == null ? 0 : palabraClave.length() + 1];
+        int n = 0;
+        if (palabraClave != null) {
+            boolean enPalabra = false;
+            for (int i = 0; i < palabraClave.length(); ) {
+                int punto = palabraClave.codePointAt(i);
+                i += Character.charCount(punto);
+                if (esMarca(punto)) {
+                    continue;
+                }
+                if (Character.isLetterOrDigit(punto)) {
+                    if (!enPalabra && n > 0) {
+                        clave[n++] = SEPARADOR;
+                    }
+                    clave[n++] = plegar(punto);
+                    enPalabra = true;
+                } else {
+                    enPalabra = false;
+                }
+            }
+        }
+        return new PalabrasCompletas(Arrays.copyOf(clave, n));
+    }
+
+    public static boolean contiene(String texto, String palabraClave) {
+        return de(palabraClave).coincide(texto);
+    }
+
+    public boolean coincide(CharSequence texto) {
+        if (texto == null || clave.length == 0) {
+            return false;
+        }
+        int longitud = texto.length();
+        boolean anteriorEsPalabra = false;
+        for (int i = 0; i < longitud; ) {
+            int punto = Character.codePointAt(texto, i);
+            boolean esPalabra = esParteDePalabra(punto);
+            if (esPalabra && !anteriorEsPalabra && coincideDesde(texto, i)) {
+                return true;
+            }
+            anteriorEsPalabra = esPalabra;
+            i += Character.charCount(punto);
+        }
+        return false;
+    }
+
+    // Compara la clave con las palabras que empiezan en inicio; entre dos palabras de la clave
+    // el texto puede tener cualquier separación, pero ninguna otra palabra
+    private boolean coincideDesde(CharSequence texto, int inicio) {
+        int longitud = texto.length();
+        int i = inicio;
+        int j = 0;
+        while (j < clave.length) {
+            if (clave[j] == SEPARADOR) {
+                // la palabra del texto tiene que terminar aquí y la siguiente empezar tras la separación
+                i = saltarMarcas(texto, i);
+                if (i < longitud && esParteDePalabra(Character.codePointAt(texto, i))) {
+                    return false;
+                }
+                while (i < longitud && !esParteDePalabra(Character.codePointAt(texto, i))) {
+                    i += Character.charCount(Character.codePointAt(texto, i));
+                }
+                j++;
+                continue;
+            }
+            if (i >= longitud) {
+                return false;
+            }
+            int punto = Character.codePointAt(texto, i);
+            i += Character.charCount(punto);
+            if (esMarca(punto)) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(punto) || plegar(punto) != clave[j]) {
+                return false;
+            }
+            j++;
+        }
+        i = saltarMarcas(texto, i);
+        return i >= longitud || !esParteDePalabra(Character.codePointAt(texto, i));
+    }
+
+    // Las marcas que siguen a una letra son parte de ella
+    private static int saltarMarcas(CharSequence texto, int i) {
+        while (i < texto.length() && esMarca(Character.codePointAt(texto, i))) {
+            i += Character.charCount(Character.codePointAt(texto, i));
+        }
+        return i;
+    }
+
+    private static boolean esParteDePalabra(int punto) {
+        return Character.isLetterOrDigit(punto) || esMarca(punto);
+    }
+
+    // Acentos combinantes (texto ya descompuesto, como "ï"): no cuentan al comparar
+    private static boolean esMarca(int punto) {
+        int tipo = Character.getType(punto);
+        return tipo == Character.NON_SPACING_MARK || tipo == Character.COMBINING_SPACING_MARK
+                || tipo == Character.ENCLOSING_MARK;
+    }
+
+    private static int plegar(int punto) {
+        return punto < PLEGADO.length ? PLEGADO[punto] : Character.toLowerCase(punto);
+    }
+}
@@ -0,0 +1,224 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Clasificación local de los libros más descargados: general, por idioma y por autor.
+// Cada tabla guarda solo los mejores "capacidad" libros ordenados y se actualiza con cada libro
+// registrado o cada cambio de descargas, así consultar el top N no toca la red ni la base de datos.
+// Si un libro de una tabla llena baja sus descargas, otro que quedó fuera podría superarlo:
+// esa tabla se marca incompleta y se reconstruye desde el índice idx_libros_descargas al consultarla.
+@Component
+public class RankingDescargas implements IndiceCatalogo {
+
+    static final Comparator<LibroResumen> POR_DESCARGAS = Comparator
+            .comparingDouble((LibroResumen libro) -> descargas(libro)).reversed()
+            .thenComparing(LibroResumen::id);
+
+    private final ConsultaCatalogo consultaCatalogo;
+    private final int capacidad;
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private Tabla general;
+    private final Map<String, Tabla> porIdioma = new HashMap<>();
+    private final Map<Long, Tabla> porAutor = new HashMap<>();
+
+    public RankingDescargas(ConsultaCatalogo consultaCatalogo,
+                            @Value("${literalura.ranking.capacidad:100}") int capacidad) {
+        this.consultaCatalogo = consultaCatalogo;
+        this.capacidad = capacidad;
+        this.general = new Tabla();
+    }
+
+    @Override
+    public void cargar(Collection<LibroResumen> libros) {
+        candado.writeLock().lock();
+        try {
+            general = new Tabla();
+            porIdioma.clear();
+            porAutor.clear();
+            libros.forEach(this::ofrecer);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Libro nuevo o con descargas actualizadas (mismo id)
+    @Override
+    public void indexar(LibroResumen libro) {
+        candado.writeLock().lock();
+        try {
+            ofrecer(libro);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actualizar(LibroResumen libro) {
+        indexar(libro);
+    }
+
+    public List<LibroResumen> top(int n) {
+        return consultar(() -> general, n, () -> consultaCatalogo.masDescargados(capacidad));
+    }
+
+    public List<LibroResumen> topPorIdioma(String idioma, int n) {
+        return consultar(() -> porIdioma.get(idioma), n, () -> consultaCatalogo.masDescargadosPorIdioma(idioma, capacidad));
+    }
+
+    public List<LibroResumen> topPorAutor(Long autorId, int n) {
+        return consultar(() -> porAutor.get(autorId), n, () -> consultaCatalogo.masDescargadosPorAutor(autorId, capacidad));
+    }
+
+    private List<LibroResumen> consultar(Supplier<Tabla> tabla, int n, Supplier<List<LibroResumen>> desdeBaseDatos) {
+        candado.readLock().lock();
+        try {
+            Tabla actual = tabla.get();
+            if (actual == null) {
+                return List.of();
+            }
+            if (!actual.incompleta) {
+                return actual.primeros(n);
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+
+        Tabla actual;
+        int desde;
+        candado.writeLock().lock();
+        try {
+            actual = tabla.get();
+            if (actual == null) {
+                return List.of();
+            }
+            if (!actual.incompleta) {
+                return actual.primeros(n);
+            }
+            desde = actual.empezarReconstruccion();
+        } finally {
+            candado.writeLock().unlock();
+        }
+
+        // La lectura va fuera del candado para no bloquear los registros mientras responde la base de datos;
+        // lo que se indexe o actualice mientras tanto se vuelve a aplicar sobre lo leído
+        List<LibroResumen> reconstruida;
+        try {
+            reconstruida = desdeBaseDatos.get();
+        } catch (RuntimeException e) {
+            candado.writeLock().lock();
+            try {
+                actual.terminarReconstruccion();
+            } finally {
+                candado.writeLock().unlock();
+            }
+            throw e;
+        }
+        candado.writeLock().lock();
+        try {
+            // Una carga completa (cargar) pudo sustituir la tabla mientras tanto: lo leído ya no le sirve
+            if (tabla.get() == actual && actual.incompleta) {
+                actual.reconstruir(reconstruida, desde);
+            }
+            actual.terminarReconstruccion();
+            Tabla vigente = tabla.get();
+            return vigente == null ? List.of() : vigente.primeros(n);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void ofrecer(LibroResumen libro) {
+        general.ofrecer(libro);
+        for (String idioma : libro.idiomas()) {
+            porIdioma.computeIfAbsent(idioma, clave -> new Tabla()).ofrecer(libro);
+        }
+        for (AutorResumen autor : libro.autores()) {
+            porAutor.computeIfAbsent(autor.id(), clave -> new Tabla()).ofrecer(libro);
+        }
+    }
+
+    private static double descargas(LibroResumen libro) {
+        return libro.numeroDeDescargas() == null ? 0 : libro.numeroDeDescargas();
+    }
+
+    private final class Tabla {
+        private final TreeSet<LibroResumen> orden = new TreeSet<>(POR_DESCARGAS);
+        private final Map<Long, LibroResumen> porId = new HashMap<>();
+        // Algún libro quedó fuera por falta de capacidad: ya no se conoce todo el conjunto
+        private boolean desbordada;
+        private boolean incompleta;
+        // Mientras haya reconstrucciones leyendo de la base de datos, los libros que llegan, en orden
+        private int reconstrucciones;
+        private final List<LibroResumen> recibidos = new ArrayList<>();
+
+        private void ofrecer(LibroResumen libro) {
+            if (reconstrucciones > 0) {
+                recibidos.add(libro);
+            }
+            colocar(libro);
+        }
+
+        private void colocar(LibroResumen libro) {
+            LibroResumen anterior = porId.remove(libro.id());
+            if (anterior != null) {
+                orden.remove(anterior);
+                if (desbordada && descargas(libro) < descargas(anterior)) {
+                    incompleta = true;
+                }
+            }
+            orden.add(libro);
+            porId.put(libro.id(), libro);
+            if (orden.size() > capacidad) {
+                porId.remove(orden.pollLast().id());
+                desbordada = true;
+            }
+        }
+
+        // Devuelve desde qué posición de recibidos llegan los libros posteriores al inicio de esta reconstrucción
+        private int empezarReconstruccion() {
+            reconstrucciones++;
+            return recibidos.size();
+        }
+
+        private void terminarReconstruccion() {
+            if (--reconstrucciones == 0) {
+                recibidos.clear();
+            }
+        }
+
+        // Los libros recibidos durante la lectura son tan o más recientes que lo leído: se aplican encima
+        private void reconstruir(List<LibroResumen> mejores, int desde) {
+            orden.clear();
+            porId.clear();
+            incompleta = false;
+            desbordada = mejores.size() >= capacidad;
+            mejores.forEach(this::colocar);
+            recibidos.subList(desde, recibidos.size()).forEach(this::colocar);
+        }
+
+        private List<LibroResumen> primeros(int n) {
+            List<LibroResumen> resultado = new ArrayList<>(Math.min(n, orden.size()));
+            Iterator<LibroResumen> iterador = orden.iterator();
+            while (resultado.size() < n && iterador.hasNext()) {
+                resultado.add(iterador.next());
+            }
+            return resultado;
+        }
+    }
+}
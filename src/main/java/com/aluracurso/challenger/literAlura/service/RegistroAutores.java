@@ -0,0 +1,132 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Traduce los autores que llegan de la API o del catálogo a ids de autores guardados por su clave
+// canónica. Casi siempre basta ClavesAutores; los que faltan se buscan en la base de datos y, si no
+// están, se crean en una transacción propia que se confirma antes de soltar las franjas de sus claves:
+// así el siguiente hilo que pida la misma clave ya encuentra el id y no inserta otro autor.
+// En PostgreSQL las franjas no bastan (solo valen dentro de este proceso): los que faltan se insertan con
+// InsercionesIdempotentes en la transacción del llamante y pasan a ClavesAutores cuando se confirma.
+@Service
+public class RegistroAutores {
+
+    private final AutorRepository autorRepository;
+    private final ClavesAutores clavesAutores;
+    private final InsercionesIdempotentes inserciones;
+    private final TransactionTemplate transaccionPropia;
+
+    public RegistroAutores(AutorRepository autorRepository, ClavesAutores clavesAutores,
+                           InsercionesIdempotentes inserciones, PlatformTransactionManager transactionManager) {
+        this.autorRepository = autorRepository;
+        this.clavesAutores = clavesAutores;
+        this.inserciones = inserciones;
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Nombre tal como llegó -> id del autor
+    public Map<String, Long> resolver(Collection<DatosAutor> autores) {
+        Map<String, DatosAutor> porClave = new LinkedHashMap<>();
+        Map<String, String> clavePorNombre = new HashMap<>();
+        for (DatosAutor autor : autores) {
+            String clave = clavePorNombre.computeIfAbsent(autor.nombre(), ClavesAutores::clave);
+            porClave.putIfAbsent(clave, autor);
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        List<String> faltan = new ArrayList<>();
+        porClave.keySet().forEach(clave -> {
+            Long id = clavesAutores.id(clave);
+            if (id != null) {
+                ids.put(clave, id);
+            } else {
+                faltan.add(clave);
+            }
+        });
+        if (!faltan.isEmpty() && inserciones.disponibles()) {
+            insertarFaltantes(faltan, porClave, ids);
+        } else if (!faltan.isEmpty()) {
+            clavesAutores.bloqueando(faltan, () -> {
+                crearFaltantes(faltan, porClave, ids);
+                return null;
+            });
+        }
+
+        Map<String, Long> porNombre = new HashMap<>();
+        clavePorNombre.forEach((nombre, clave) -> porNombre.put(nombre, ids.get(clave)));
+        return porNombre;
+    }
+
+    private void insertarFaltantes(List<String> faltan, Map<String, DatosAutor> porClave, Map<String, Long> ids) {
+        Map<String, DatosAutor> pedidos = new LinkedHashMap<>();
+        faltan.forEach(clave -> pedidos.put(clave, porClave.get(clave)));
+        Map<String, Long> encontrados = inserciones.insertarAutores(pedidos);
+        ids.putAll(encontrados);
+        InsercionesIdempotentes.trasElCommit(() -> encontrados.forEach(clavesAutores::registrar));
+    }
+
+    private void crearFaltantes(List<String> faltan, Map<String, DatosAutor> porClave, Map<String, Long> ids) {
+        // Otro hilo pudo crearlos mientras se esperaban las franjas
+        List<String> pendientes = new ArrayList<>();
+        for (String clave : faltan) {
+            Long id = clavesAutores.id(clave);
+            if (id != null) {
+                ids.put(clave, id);
+            } else {
+                pendientes.add(clave);
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        List<Autor> nuevos = transaccionPropia.execute(estado -> {
+            Set<String> nombres = pendientes.stream()
+                    .map(clave -> normalizarNombre(porClave.get(clave)))
+                    .collect(Collectors.toSet());
+            for (Autor guardado : autorRepository.findByClaveInOrNombreIn(pendientes, nombres)) {
+                String clave = guardado.getClave() != null ? guardado.getClave() : ClavesAutores.clave(guardado.getNombre());
+                if (porClave.containsKey(clave)) {
+                    ids.merge(clave, guardado.getId(), Math::min);
+                }
+            }
+            List<Autor> creados = new ArrayList<>();
+            for (String clave : pendientes) {
+                if (!ids.containsKey(clave)) {
+                    DatosAutor datos = porClave.get(clave);
+                    Autor autor = new Autor(datos.nombre(), datos.fechaDeNacimiento(), datos.fechaDeFallecimiento());
+                    autor.setClave(clave);
+                    creados.add(autor);
+                }
+            }
+            return autorRepository.saveAll(creados);
+        });
+
+        // Ya confirmados: visibles para cualquier otra transacción
+        for (Autor autor : nuevos) {
+            ids.put(autor.getClave(), autor.getId());
+        }
+        pendientes.forEach(clave -> clavesAutores.registrar(clave, ids.get(clave)));
+    }
+
+    // Igual que el constructor de Autor
+    static String normalizarNombre(DatosAutor datosAutor) {
+        return datosAutor.nombre().toLowerCase().trim();
+    }
+}
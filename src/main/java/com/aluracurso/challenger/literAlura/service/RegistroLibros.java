@@ -0,0 +1,154 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class RegistroLibros {
+
+    private static final int LONGITUD_MAXIMA_TITULO = 1024;
+
+    private final LibroRepository libroRepository;
+    private final AutorRepository autorRepository;
+    private final IndicesCatalogo indicesCatalogo;
+    private final RegistroAutores registroAutores;
+    private final InsercionesIdempotentes inserciones;
+
+    public RegistroLibros(LibroRepository libroRepository, AutorRepository autorRepository, IndicesCatalogo indicesCatalogo,
+                          RegistroAutores registroAutores, InsercionesIdempotentes inserciones) {
+        this.libroRepository = libroRepository;
+        this.autorRepository = autorRepository;
+        this.indicesCatalogo = indicesCatalogo;
+        this.registroAutores = registroAutores;
+        this.inserciones = inserciones;
+    }
+
+    public enum EstadoRegistro {
+        REGISTRADO, DUPLICADO, INVALIDO
+    }
+
+    public record ResultadoRegistro(String titulo, EstadoRegistro estado) {
+    }
+
+    // Devuelve true si el libro se guardó, false si ya existía o no pudo registrarse
+    @Transactional
+    public boolean registrar(DatosLibros datosLibro) {
+        return registrarLote(List.of(datosLibro)).get(0).estado() == EstadoRegistro.REGISTRADO;
+    }
+
+    // Registra un lote completo en una sola transacción: una consulta IN para los títulos existentes,
+    // los autores resueltos por su clave canónica (RegistroAutores) y los INSERT agrupados en lotes JDBC.
+    // Devuelve el resultado de cada libro en el mismo orden que la entrada.
+    // En PostgreSQL los libros se insertan con ON CONFLICT DO NOTHING (InsercionesIdempotentes): si otro
+    // hilo u otra instancia guarda el mismo título entre la consulta de títulos y el INSERT, ese libro
+    // sale como DUPLICADO y el resto del lote se registra igual.
+    @Transactional
+    public List<ResultadoRegistro> registrarLote(List<DatosLibros> lote) {
+        Set<String> titulos = new HashSet<>();
+        for (DatosLibros datosLibro : lote) {
+            if (datosLibro.titulo() != null) {
+                titulos.add(datosLibro.titulo().toLowerCase());
+            }
+        }
+        Set<String> titulosRegistrados = titulos.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(libroRepository.findTitulosExistentes(titulos));
+
+        List<ResultadoRegistro> resultados = new ArrayList<>(lote.size());
+        List<DatosLibros> aRegistrar = new ArrayList<>();
+        List<DatosAutor> datosAutores = new ArrayList<>();
+        for (DatosLibros datosLibro : lote) {
+            String titulo = datosLibro.titulo();
+            if (titulo == null || titulo.isBlank() || titulo.length() > LONGITUD_MAXIMA_TITULO) {
+                resultados.add(new ResultadoRegistro(titulo, EstadoRegistro.INVALIDO));
+                continue;
+            }
+            // add() también descarta títulos repetidos dentro del mismo lote
+            if (!titulosRegistrados.add(titulo.toLowerCase())) {
+                resultados.add(new ResultadoRegistro(titulo, EstadoRegistro.DUPLICADO));
+                continue;
+            }
+            aRegistrar.add(datosLibro);
+            if (datosLibro.autor() != null) {
+                datosAutores.addAll(datosLibro.autor());
+            }
+            resultados.add(new ResultadoRegistro(titulo, EstadoRegistro.REGISTRADO));
+        }
+
+        // Solo se crean autores de libros que sí se registran
+        Map<String, Long> idsAutores = registroAutores.resolver(datosAutores);
+        Map<Long, Autor> autores = new HashMap<>();
+        if (!idsAutores.isEmpty()) {
+            autorRepository.findAllById(new HashSet<>(idsAutores.values())).forEach(autor -> autores.put(autor.getId(), autor));
+        }
+
+        if (inserciones.disponibles()) {
+            return insertarSinConflictos(aRegistrar, idsAutores, autores, resultados);
+        }
+
+        List<Libro> librosNuevos = new ArrayList<>(aRegistrar.size());
+        for (DatosLibros datosLibro : aRegistrar) {
+            List<Autor> autoresLibro = new ArrayList<>();
+            if (datosLibro.autor() != null) {
+                for (DatosAutor datosAutor : datosLibro.autor()) {
+                    Autor autor = autores.get(idsAutores.get(datosAutor.nombre()));
+                    if (!autoresLibro.contains(autor)) {
+                        autoresLibro.add(autor);
+                    }
+                }
+            }
+            Libro libro = new Libro(datosLibro);
+            libro.setAutores(autoresLibro);
+            librosNuevos.add(libro);
+        }
+
+        libroRepository.saveAll(librosNuevos);
+        indicesCatalogo.indexar(librosNuevos.stream().map(LibroResumen::de).toList());
+        return resultados;
+    }
+
+    private List<ResultadoRegistro> insertarSinConflictos(List<DatosLibros> aRegistrar, Map<String, Long> idsAutores,
+                                                          Map<Long, Autor> autores, List<ResultadoRegistro> resultados) {
+        Map<String, Long> insertados = aRegistrar.isEmpty() ? Map.of() : inserciones.insertarLibros(aRegistrar, idsAutores);
+        List<ResultadoRegistro> definitivos = new ArrayList<>(resultados.size());
+        for (ResultadoRegistro resultado : resultados) {
+            boolean ganado = resultado.estado() != EstadoRegistro.REGISTRADO || insertados.containsKey(resultado.titulo());
+            definitivos.add(ganado ? resultado : new ResultadoRegistro(resultado.titulo(), EstadoRegistro.DUPLICADO));
+        }
+
+        List<LibroResumen> librosNuevos = new ArrayList<>(insertados.size());
+        for (DatosLibros datosLibro : aRegistrar) {
+            Long id = insertados.get(datosLibro.titulo());
+            if (id == null) {
+                continue;
+            }
+            Set<AutorResumen> autoresLibro = new LinkedHashSet<>();
+            if (datosLibro.autor() != null) {
+                for (DatosAutor datosAutor : datosLibro.autor()) {
+                    autoresLibro.add(AutorResumen.de(autores.get(idsAutores.get(datosAutor.nombre()))));
+                }
+            }
+            List<String> idiomas = datosLibro.idiomas() == null ? List.of() : List.copyOf(new LinkedHashSet<>(datosLibro.idiomas()));
+            librosNuevos.add(new LibroResumen(id, datosLibro.titulo(), idiomas, datosLibro.numeroDeDescargas(),
+                    List.copyOf(autoresLibro)));
+        }
+        indicesCatalogo.indexar(librosNuevos);
+        return definitivos;
+    }
+}
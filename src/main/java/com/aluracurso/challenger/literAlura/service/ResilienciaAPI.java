@@ -0,0 +1,25 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ResilienciaAPI {
+
+    @Bean
+    public LimitadorTasa limitadorGutendex(@Value("${literalura.api.peticiones-por-segundo:5}") double porSegundo,
+                                           @Value("${literalura.api.rafaga:10}") int rafaga,
+                                           @Value("${literalura.api.espera-maxima-limite:PT2S}") Duration esperaMaxima) {
+        return new LimitadorTasa(porSegundo, rafaga, esperaMaxima);
+    }
+
+    @Bean
+    public CircuitoInterruptor circuitoGutendex(@Value("${literalura.api.circuito.umbral-fallos:5}") int umbralFallos,
+                                                @Value("${literalura.api.circuito.tiempo-abierto:PT30S}") Duration tiempoAbierto,
+                                                @Value("${literalura.api.circuito.pruebas:1}") int pruebas) {
+        return new CircuitoInterruptor("gutendex", umbralFallos, tiempoAbierto, pruebas);
+    }
+}
@@ -0,0 +1,42 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Ids para las filas que se insertan por JDBC (ImportadorVolcado, InsercionesIdempotentes) sin
+// chocar con los que asigna Hibernate a las entidades
+final class SecuenciasAgrupadas {
+
+    // Igual que el allocationSize de las entidades: cada valor de la secuencia reserva un bloque de 50 ids
+    private static final int IDS_POR_VALOR = 50;
+
+    private SecuenciasAgrupadas() {
+    }
+
+    // Reserva cantidad ids con el mismo esquema que el optimizador pooled de Hibernate: cada valor V
+    // de la secuencia es dueño de los ids V-49..V, así los ids no chocan con los que asigne Hibernate
+    static long[] reservar(Connection conexion, String secuencia, int cantidad) throws SQLException {
+        long[] ids = new long[cantidad];
+        int asignados = 0;
+        try (PreparedStatement sentencia = conexion.prepareStatement("SELECT nextval(?::regclass) FROM generate_series(1, ?)")) {
+            while (asignados < cantidad) {
+                sentencia.setString(1, secuencia);
+                sentencia.setInt(2, (cantidad - asignados + IDS_POR_VALOR - 1) / IDS_POR_VALOR);
+                try (ResultSet valores = sentencia.executeQuery()) {
+                    while (valores.next() && asignados < cantidad) {
+                        long valor = valores.getLong(1);
+                        // El primer valor de una secuencia nueva no tiene un bloque completo por debajo
+                        for (long id = valor - IDS_POR_VALOR + 1; id <= valor && asignados < cantidad; id++) {
+                            if (id > 0) {
+                                ids[asignados++] = id;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,9 @@
+package com.aluracurso.challenger.literAlura.service;
+
+// La API externa se rechazó localmente (circuito abierto o límite de peticiones) sin llegar a llamarla
+public class ServicioNoDisponibleException extends RuntimeException {
+
+    public ServicioNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,31 @@
+-- Tablas y secuencias que antes creaba Hibernate con ddl-auto=update (ver Autor, Libro y Bibliografia).
+-- Con IF NOT EXISTS, una base de datos creada por versiones anteriores se adopta tal como está.
+CREATE SEQUENCE IF NOT EXISTS autores_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS libros_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bibliografias_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS autores (
+    id bigint NOT NULL PRIMARY KEY,
+    nombre varchar(255) NOT NULL UNIQUE,
+    fecha_de_nacimiento integer,
+    fecha_de_fallecimiento integer
+);
+
+CREATE TABLE IF NOT EXISTS libros (
+    id bigint NOT NULL PRIMARY KEY,
+    id_gutendex bigint UNIQUE,
+    titulo varchar(1024) NOT NULL UNIQUE,
+    numero_de_descargas float(53)
+);
+
+CREATE TABLE IF NOT EXISTS idiomas_libro (
+    libro_id bigint NOT NULL REFERENCES libros (id),
+    idioma varchar(255)
+);
+CREATE INDEX IF NOT EXISTS idx_idiomas_libro_idioma ON idiomas_libro (idioma, libro_id);
+
+CREATE TABLE IF NOT EXISTS bibliografias (
+    id bigint NOT NULL PRIMARY KEY,
+    libro_id bigint REFERENCES libros (id),
+    autor_id bigint REFERENCES autores (id)
+);
@@ -0,0 +1,8 @@
+-- Índices de texto completo para la búsqueda por palabras (opciones 1 y 2 del menú).
+-- La configuración 'simple' solo separa en palabras y pasa a minúsculas, sin stemming,
+-- así que una palabra coincide únicamente con palabras completas del título o nombre.
+CREATE INDEX IF NOT EXISTS idx_libros_titulo_fts ON libros USING GIN (to_tsvector('simple', titulo));
+CREATE INDEX IF NOT EXISTS idx_autores_nombre_fts ON autores USING GIN (to_tsvector('simple', nombre));
+
+-- Libros más descargados (RankingDescargas): arranque en frío y reconstrucción de una tabla incompleta
+CREATE INDEX IF NOT EXISTS idx_libros_descargas ON libros (numero_de_descargas DESC NULLS LAST, id);
@@ -0,0 +1,4 @@
+-- Clave canónica del nombre de cada autor (ClavesAutores.clave): sin acentos, signos ni orden de las palabras.
+-- Los autores anteriores quedan sin clave hasta ejecutar el subcomando fusionar-autores.
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS clave varchar(255);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_autores_clave ON autores (clave);
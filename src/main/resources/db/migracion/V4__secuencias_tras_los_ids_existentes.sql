@@ -0,0 +1,7 @@
+-- V1 crea las secuencias empezando en 1 aunque adopte tablas que ya tienen filas (ids de IDENTITY de versiones
+-- anteriores): se adelantan más allá del id más alto. Con el optimizador pooled de Hibernate (allocationSize 50)
+-- cada valor V de la secuencia es dueño de los ids V-49..V, así que el valor actual debe quedar al menos 50 por
+-- encima del id más alto. GREATEST evita hacer retroceder una secuencia que ya iba por delante.
+SELECT setval('autores_seq', GREATEST((SELECT COALESCE(max(id), 0) FROM autores) + 50, (SELECT last_value FROM autores_seq)));
+SELECT setval('libros_seq', GREATEST((SELECT COALESCE(max(id), 0) FROM libros) + 50, (SELECT last_value FROM libros_seq)));
+SELECT setval('bibliografias_seq', GREATEST((SELECT COALESCE(max(id), 0) FROM bibliografias) + 50, (SELECT last_value FROM bibliografias_seq)));
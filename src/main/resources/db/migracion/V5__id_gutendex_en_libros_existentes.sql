@@ -0,0 +1,7 @@
+-- id_gutendex solo aparece en el CREATE TABLE de V1, que no se aplica a una tabla libros que ya existía: las bases
+-- de datos creadas por versiones anteriores se quedaban sin la columna. Los libros de antes quedan con id_gutendex
+-- vacío: ActualizadorDescargas solo revisa los que lo tienen.
+ALTER TABLE libros ADD COLUMN IF NOT EXISTS id_gutendex bigint;
+-- Un solo índice único con nombre en ambos casos: el de la restricción de V1 se sustituye por este
+CREATE UNIQUE INDEX IF NOT EXISTS idx_libros_id_gutendex ON libros (id_gutendex);
+ALTER TABLE libros DROP CONSTRAINT IF EXISTS libros_id_gutendex_key;
@@ -0,0 +1,6 @@
+-- Los títulos se comparan sin distinguir mayúsculas (LibroRepository.findTitulosExistentes), pero la restricción
+-- única de titulo sí las distingue: dos escritores en paralelo, o ImportadorVolcado, podían guardar "Dracula" y
+-- "DRACULA". Con este índice los INSERT ... ON CONFLICT DO NOTHING descartan también esa variante, y la consulta
+-- LOWER(titulo) IN (...) de cada lote lo usa en lugar de recorrer la tabla. Si ya hay títulos que solo se
+-- diferencian en mayúsculas la migración falla y detiene el arranque: hay que unir esos libros a mano antes.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_libros_titulo_minusculas ON libros (lower(titulo));
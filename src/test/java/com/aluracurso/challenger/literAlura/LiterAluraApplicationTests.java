@@ -1,9 +1,11 @@
 package com.aluracurso.challenger.literAlura;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"literalura.consola.habilitada=false", "spring.sql.init.mode=never"})
+@AutoConfigureTestDatabase
 class LiterAluraApplicationTests {
 
 	@Test
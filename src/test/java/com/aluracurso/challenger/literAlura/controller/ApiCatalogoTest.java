@@ -0,0 +1,115 @@
+package com.aluracurso.challenger.literAlura.controller;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import com.aluracurso.challenger.literAlura.service.IndicesCatalogo;
+import com.aluracurso.challenger.literAlura.service.RegistroLibros;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "literalura.descargas.habilitada=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ApiCatalogoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @BeforeEach
+    void registrarCatalogo() {
+        DatosAutor cervantes = new DatosAutor("Cervantes Saavedra, Miguel de", 1547, 1616);
+        DatosAutor austen = new DatosAutor("Austen, Jane", 1775, 1817);
+        List<DatosLibros> libros = new ArrayList<>();
+        libros.add(new DatosLibros(2000L, "Don Quijote", List.of(cervantes), List.of("es"), 15000.0));
+        libros.add(new DatosLibros(1342L, "Pride and Prejudice", List.of(austen), List.of("en"), 80000.0));
+        libros.add(new DatosLibros(161L, "Sense and Sensibility", List.of(austen), List.of("en"), 20000.0));
+        libros.add(new DatosLibros(5946L, "Novelas ejemplares", List.of(cervantes), List.of("es"), 900.0));
+        registroLibros.registrarLote(libros);
+    }
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void listaPorPaginasConLaClaveDeLaSiguiente() throws Exception {
+        mockMvc.perform(get("/api/libros").param("tamano", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[*].titulo",
+                        contains("Don Quijote", "Novelas ejemplares", "Pride and Prejudice")))
+                .andExpect(jsonPath("$.siguiente").value("Pride and Prejudice"));
+
+        mockMvc.perform(get("/api/libros").param("tamano", "3").param("despuesDe", "Pride and Prejudice"))
+                .andExpect(jsonPath("$.contenido[*].titulo", contains("Sense and Sensibility")))
+                .andExpect(jsonPath("$.siguiente").value(nullValue()));
+
+        mockMvc.perform(get("/api/libros").param("tamano", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void respondeNoModificadoSiElEtagCoincide() throws Exception {
+        String etag = mockMvc.perform(get("/api/libros/top").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].titulo", contains("Pride and Prejudice", "Sense and Sensibility")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/libros/top").param("n", "2").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    void exponeBusquedaIdiomasYAutores() throws Exception {
+        mockMvc.perform(get("/api/libros/buscar").param("q", "quijote"))
+                .andExpect(jsonPath("$[*].titulo", contains("Don Quijote")));
+
+        mockMvc.perform(get("/api/libros/idiomas"))
+                .andExpect(jsonPath("$.en").value(2))
+                .andExpect(jsonPath("$.es").value(2));
+
+        mockMvc.perform(get("/api/libros/por-idioma").param("idiomas", "es").param("tamano", "1"))
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.siguiente").isNotEmpty())
+                .andExpect(jsonPath("$.conteos.es").value(2));
+
+        mockMvc.perform(get("/api/autores/vivos").param("ano", "1600"))
+                .andExpect(jsonPath("$[*].nombre", contains("cervantes saavedra, miguel de")));
+
+        mockMvc.perform(get("/api/autores/vivos").param("desde", "1900").param("hasta", "1800"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,116 @@
+package com.aluracurso.challenger.literAlura.principal;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import com.aluracurso.challenger.literAlura.service.IndicesCatalogo;
+import com.aluracurso.challenger.literAlura.service.RegistroLibros;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false"
+})
+@AutoConfigureTestDatabase
+class LineaDeComandosTest {
+
+    @Autowired
+    private LineaDeComandos lineaDeComandos;
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @BeforeEach
+    void registrarLibros() {
+        registroLibros.registrar(new DatosLibros(84L, "Frankenstein; Or, The Modern Prometheus",
+                List.of(new DatosAutor("Shelley, Mary Wollstonecraft", 1797, 1851)), List.of("en"), 1200.0));
+        registroLibros.registrar(new DatosLibros(2000L, "Don Quijote",
+                List.of(new DatosAutor("Cervantes Saavedra, Miguel de", 1547, 1616)), List.of("es"), 900.0));
+    }
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void procesaCadaLineaEnParaleloYEscribeUnaLineaJsonPorConsulta() throws IOException {
+        String entrada = """
+                buscar frankenstein
+                autores-vivos 1600
+
+                por-idioma es, en
+                top es
+                top autor:shelley
+                autores-vivos no-es-un-año
+                """;
+        StringWriter salida = new StringWriter();
+
+        LineaDeComandos.Resumen resumen = lineaDeComandos.ejecutar("lote", new BufferedReader(new StringReader(entrada)), 3, salida);
+
+        assertThat(resumen.consultas()).isEqualTo(6);
+        assertThat(resumen.errores()).isEqualTo(1);
+        List<JsonNode> respuestas = new ArrayList<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String linea : salida.toString().split("\n")) {
+            respuestas.add(mapper.readTree(linea));
+        }
+        respuestas.sort(Comparator.comparingLong(respuesta -> respuesta.get("linea").asLong()));
+
+        assertThat(respuestas).extracting(respuesta -> respuesta.get("linea").asInt()).containsExactly(1, 2, 4, 5, 6, 7);
+        assertThat(respuestas).allSatisfy(respuesta -> assertThat(respuesta.get("milisegundos").asDouble()).isNotNegative());
+        assertThat(respuestas.get(0).get("datos").get(0).get("titulo").asText()).startsWith("Frankenstein");
+        assertThat(respuestas.get(1).get("resultados").asInt()).isEqualTo(1);
+        assertThat(respuestas.get(2).get("datos").get("conteos").get("es").asInt()).isEqualTo(1);
+        assertThat(respuestas.get(3).get("resultados").asInt()).isEqualTo(1);
+        assertThat(respuestas.get(4).get("datos").get(0).get("titulo").asText()).startsWith("Frankenstein");
+        assertThat(respuestas.get(5).has("error")).isTrue();
+        assertThat(respuestas.get(5).has("datos")).isFalse();
+    }
+
+    @Test
+    void unNumeroDeHilosNoValidoEsUnErrorDeUsoYCeroUsaUnSoloHilo() throws IOException {
+        lineaDeComandos.ejecutar("buscar", "frankenstein", "--hilos=abc");
+        assertThat(lineaDeComandos.getExitCode()).isEqualTo(2);
+
+        StringWriter salida = new StringWriter();
+        LineaDeComandos.Resumen resumen = lineaDeComandos.ejecutar("buscar",
+                new BufferedReader(new StringReader("frankenstein\nquijote\n")), 0, salida);
+        assertThat(resumen.consultas()).isEqualTo(2);
+        assertThat(resumen.errores()).isZero();
+        assertThat(salida.toString().lines()).hasSize(2);
+    }
+
+    @Test
+    void elPrimerArgumentoQueNoEsOpcionEligeElModoPorLotes() {
+        assertThat(LineaDeComandos.esSubcomando("--spring.profiles.active=prod", "buscar", "quijote")).isTrue();
+        assertThat(LineaDeComandos.esSubcomando("top")).isTrue();
+        assertThat(LineaDeComandos.esSubcomando("--hilos=2")).isFalse();
+        assertThat(LineaDeComandos.esSubcomando("otra-cosa")).isFalse();
+    }
+}
@@ -0,0 +1,110 @@
+package com.aluracurso.challenger.literAlura.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compara la búsqueda por palabra completa con índice GIN frente al LIKE '%x%' + filtro en Java
+// sobre 100.000 libros. Necesita Docker y se activa con -Dliteralura.benchmark=true.
+@SpringBootTest(properties = "literalura.consola.habilitada=false")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "literalura.benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BusquedaPorPalabraBenchmarkTest {
+
+    private static final int LIBROS = 100_000;
+    private static final int PALABRAS_VOCABULARIO = 5_000;
+    private static final int CONSULTAS = 200;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random aleatorio = new Random(42);
+    private final List<String> vocabulario = new ArrayList<>();
+
+    @BeforeAll
+    void cargarCatalogo() {
+        for (int i = 0; i < PALABRAS_VOCABULARIO; i++) {
+            vocabulario.add("palabra" + Integer.toString(i, 36));
+        }
+        List<Object[]> filas = new ArrayList<>(LIBROS);
+        for (int i = 1; i <= LIBROS; i++) {
+            StringBuilder titulo = new StringBuilder();
+            int palabras = 3 + aleatorio.nextInt(6);
+            for (int j = 0; j < palabras; j++) {
+                titulo.append(vocabulario.get(aleatorio.nextInt(vocabulario.size()))).append(j == 0 ? ", " : " ");
+            }
+            titulo.append("volumen ").append(i);
+            filas.add(new Object[]{i, titulo.toString(), (double) aleatorio.nextInt(100_000)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO libros (id, titulo, numero_de_descargas) VALUES (?, ?, ?)", filas);
+        jdbcTemplate.execute("ANALYZE libros");
+    }
+
+    @Test
+    void indiceDeTextoCompletoFrenteALike() {
+        String palabra = vocabulario.get(7);
+        assertThat(jdbcTemplate.queryForList("EXPLAIN " + consultaIndice(), String.class, palabra))
+                .anyMatch(linea -> linea.contains("idx_libros_titulo_fts"));
+        assertThat(buscarConIndice(palabra)).isEqualTo(buscarConLike(palabra));
+
+        medir("GIN to_tsvector", this::buscarConIndice);
+        medir("LIKE + filtro Java", this::buscarConLike);
+    }
+
+    private String consultaIndice() {
+        return "SELECT id FROM libros WHERE to_tsvector('simple', titulo) @@ plainto_tsquery('simple', ?)";
+    }
+
+    private Set<Long> buscarConIndice(String palabra) {
+        return new HashSet<>(jdbcTemplate.queryForList(consultaIndice(), Long.class, palabra));
+    }
+
+    // Reproduce la búsqueda anterior: candidatos por LIKE y palabras completas comprobadas en Java
+    private Set<Long> buscarConLike(String palabra) {
+        Set<Long> ids = new HashSet<>();
+        jdbcTemplate.query("SELECT id, titulo FROM libros WHERE LOWER(titulo) LIKE ?",
+                fila -> {
+                    if (Arrays.stream(fila.getString("titulo").split("[\\s,]+"))
+                            .anyMatch(p -> p.equalsIgnoreCase(palabra))) {
+                        ids.add(fila.getLong("id"));
+                    }
+                }, "%" + palabra + "%");
+        return ids;
+    }
+
+    private void medir(String nombre, Function<String, Set<Long>> busqueda) {
+        long[] tiempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String palabra = vocabulario.get(aleatorio.nextInt(vocabulario.size()));
+            long inicio = System.nanoTime();
+            busqueda.apply(palabra);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("%-20s %d libros: p50=%.2f ms p95=%.2f ms max=%.2f ms%n", nombre, LIBROS,
+                tiempos[CONSULTAS / 2] / 1e6, tiempos[CONSULTAS * 95 / 100] / 1e6, tiempos[CONSULTAS - 1] / 1e6);
+    }
+}
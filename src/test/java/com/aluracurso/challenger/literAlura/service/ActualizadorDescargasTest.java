@@ -0,0 +1,186 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// Gutendex se sustituye por un doble que responde al filtro ids= con las descargas de "remotas"
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.descargas.hilos=1",
+        "literalura.descargas.tamano-lote=2",
+        "literalura.descargas.peticiones-por-minuto=60000",
+        "literalura.descargas.checkpoint=target/descargas-prueba.checkpoint"
+})
+@AutoConfigureTestDatabase
+class ActualizadorDescargasTest {
+
+    private static final Path CHECKPOINT = Path.of("target/descargas-prueba.checkpoint");
+
+    @MockBean
+    private ConsumoAPI consumoAPI;
+
+    @Autowired
+    private ActualizadorDescargas actualizador;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private RankingDescargas rankingDescargas;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    private final Map<Long, Double> remotas = new HashMap<>();
+    private final List<String> urls = new ArrayList<>();
+    private Long idGutendexQueFalla;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void prepararGutendex() throws Exception {
+        Files.deleteIfExists(CHECKPOINT);
+        when(consumoAPI.obtenerFlujo(anyString(), any())).thenAnswer(invocacion -> {
+            String url = invocacion.getArgument(0);
+            urls.add(url);
+            List<Long> ids = Arrays.stream(url.substring(url.indexOf("ids=") + 4).split(","))
+                    .map(Long::valueOf)
+                    .toList();
+            if (ids.contains(idGutendexQueFalla)) {
+                throw new RuntimeException("Gutendex no responde");
+            }
+            Function<InputStream, Object> lector = invocacion.getArgument(1);
+            return lector.apply(new ByteArrayInputStream(pagina(ids).getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    @AfterEach
+    void limpiar() throws Exception {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+        Files.deleteIfExists(CHECKPOINT);
+    }
+
+    @Test
+    void escribeSoloLasFilasQueCambiaronYActualizaLosIndices() {
+        List<Libro> libros = registrar(5);
+        remotas.put(101L, 10.0);
+        remotas.put(102L, 999.0);
+        remotas.put(103L, 30.0);
+        remotas.put(104L, 5.0);
+        // el 105 ya no está en Gutendex: se deja como estaba
+        indicesCatalogo.cargar();
+
+        ActualizadorDescargas.ResultadoSincronizacion resultado = actualizador.sincronizar();
+
+        assertThat(resultado.completa()).isTrue();
+        assertThat(resultado.librosRevisados()).isEqualTo(5);
+        assertThat(resultado.filasCambiadas()).isEqualTo(2);
+        assertThat(urls).containsExactly(
+                "https://gutendex.com/books/?ids=101,102",
+                "https://gutendex.com/books/?ids=103,104",
+                "https://gutendex.com/books/?ids=105");
+        assertThat(libroRepository.findById(libros.get(1).getId()).orElseThrow().getNumeroDeDescargas()).isEqualTo(999.0);
+        assertThat(libroRepository.findById(libros.get(3).getId()).orElseThrow().getNumeroDeDescargas()).isEqualTo(5.0);
+        assertThat(libroRepository.findById(libros.get(4).getId()).orElseThrow().getNumeroDeDescargas()).isEqualTo(50.0);
+        assertThat(rankingDescargas.top(1)).extracting(LibroResumen::id).containsExactly(libros.get(1).getId());
+        assertThat(CHECKPOINT).doesNotExist();
+    }
+
+    @Test
+    void unLoteFallidoDejaElCheckpointEnElUltimoConfirmadoYLaSiguientePasadaReanuda() {
+        List<Libro> libros = registrar(5);
+        for (long id = 101; id <= 105; id++) {
+            remotas.put(id, 1000.0 + id);
+        }
+        idGutendexQueFalla = 103L;
+
+        ActualizadorDescargas.ResultadoSincronizacion fallida = actualizador.sincronizar();
+
+        assertThat(fallida.completa()).isFalse();
+        assertThat(fallida.filasCambiadas()).isEqualTo(2);
+        assertThat(CHECKPOINT).hasContent(Long.toString(libros.get(1).getId()));
+
+        idGutendexQueFalla = null;
+        urls.clear();
+        ActualizadorDescargas.ResultadoSincronizacion reanudada = actualizador.sincronizar();
+
+        assertThat(reanudada.completa()).isTrue();
+        assertThat(reanudada.filasCambiadas()).isEqualTo(3);
+        assertThat(urls).containsExactly(
+                "https://gutendex.com/books/?ids=103,104",
+                "https://gutendex.com/books/?ids=105");
+        assertThat(actualizador.getRetraso()).isLessThan(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void sinTurnoDelLimitadorElLoteNoSePideYLaPasadaSeDetiene(@Autowired JdbcTemplate jdbcTemplate,
+                                                              @Autowired ConvierteDatos conversor,
+                                                              @Autowired ConsultaCatalogo consultaCatalogo,
+                                                              @Autowired EntityManagerFactory entityManagerFactory) {
+        List<Libro> libros = registrar(3);
+        // Una petición cada casi siete días: tras la primera, la espera supera el día de espera máxima
+        ActualizadorDescargas lento = new ActualizadorDescargas(jdbcTemplate, consumoAPI, conversor, consultaCatalogo,
+                indicesCatalogo, entityManagerFactory, false, 1, 1, 0.0001, CHECKPOINT);
+        try {
+            ActualizadorDescargas.ResultadoSincronizacion resultado = lento.sincronizar();
+
+            assertThat(resultado.completa()).isFalse();
+            assertThat(resultado.lotesFallidos()).isEqualTo(1);
+            assertThat(resultado.librosRevisados()).isEqualTo(1);
+            assertThat(urls).containsExactly("https://gutendex.com/books/?ids=101");
+            assertThat(CHECKPOINT).hasContent(Long.toString(libros.get(0).getId()));
+        } finally {
+            lento.cerrar();
+        }
+    }
+
+    // Libros con id de Gutendex 101, 102... y 10, 20, 30... descargas
+    private List<Libro> registrar(int cantidad) {
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            libros.add(new Libro(new DatosLibros(100L + i, "Libro " + i, List.of(), List.of("en"), 10.0 * i)));
+        }
+        return libroRepository.saveAll(libros);
+    }
+
+    private String pagina(List<Long> ids) {
+        String resultados = ids.stream()
+                .filter(remotas::containsKey)
+                .map(id -> "{\"id\":%d,\"title\":\"Libro %d\",\"authors\":[],\"languages\":[\"en\"],\"download_count\":%s}"
+                        .formatted(id, id, remotas.get(id)))
+                .collect(Collectors.joining(","));
+        return "{\"count\":" + ids.size() + ",\"next\":null,\"results\":[" + resultados + "]}";
+    }
+}
@@ -0,0 +1,144 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false"
+})
+@AutoConfigureTestDatabase
+class AutoresDuplicadosTest {
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private FusionAutores fusionAutores;
+
+    @Autowired
+    private ClavesAutores clavesAutores;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        autorRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void lasVariantesDeUnNombreCompartenClave() {
+        assertThat(ClavesAutores.clave("Twain, Mark")).isEqualTo("mark twain");
+        assertThat(ClavesAutores.clave("Mark Twain")).isEqualTo("mark twain");
+        assertThat(ClavesAutores.clave("TWAIN, MARK.")).isEqualTo("mark twain");
+        assertThat(ClavesAutores.clave("García Márquez, Gabriel")).isEqualTo(ClavesAutores.clave("Gabriel Garcia Marquez"));
+        assertThat(ClavesAutores.clave("Lovecraft, H. P. (Howard Phillips)")).isEqualTo(ClavesAutores.clave("H.P. Lovecraft"));
+        assertThat(ClavesAutores.clave("Shelley, Mary")).isNotEqualTo(ClavesAutores.clave("Shelley, Percy"));
+    }
+
+    @Test
+    void registrarLibrosEnParaleloNoRepiteAutores() throws Exception {
+        List<String> variantes = List.of("Twain, Mark", "Mark Twain", "TWAIN, MARK.", "Twain, Mark");
+        int hilos = 8;
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                int n = i;
+                tareas.add(ejecutor.submit(() -> {
+                    salida.await();
+                    registroLibros.registrar(new DatosLibros(1000L + n, "Libro " + n,
+                            List.of(new DatosAutor(variantes.get(n % variantes.size()), 1835, 1910)), List.of("en"), 10.0));
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        assertThat(autorRepository.count()).isEqualTo(1);
+        assertThat(libroRepository.count()).isEqualTo(hilos);
+        Autor autor = autorRepository.findAll().get(0);
+        assertThat(autor.getClave()).isEqualTo("mark twain");
+        assertThat(clavesAutores.id("mark twain")).isEqualTo(autor.getId());
+    }
+
+    @Test
+    void laFusionUneLosAutoresRepetidosGuardadosSinClave() {
+        // Como quedaron antes de la clave: dos filas para el mismo autor y un libro con ambas
+        Autor primero = autorRepository.save(new Autor("Twain, Mark", null, 1910));
+        Autor segundo = autorRepository.save(new Autor("Mark Twain", 1835, null));
+        Autor otro = autorRepository.save(new Autor("Shelley, Mary Wollstonecraft", 1797, 1851));
+        guardarLibro(1L, "Tom Sawyer", primero);
+        guardarLibro(2L, "Huckleberry Finn", segundo);
+        guardarLibro(3L, "Obras reunidas", primero, segundo);
+        guardarLibro(4L, "Frankenstein", otro);
+
+        FusionAutores.ResultadoFusion resultado = fusionAutores.fusionar();
+
+        assertThat(resultado.autores()).isEqualTo(3);
+        assertThat(resultado.grupos()).isEqualTo(1);
+        assertThat(resultado.autoresFusionados()).isEqualTo(1);
+        assertThat(resultado.bibliografiasMovidas()).isEqualTo(1);
+        assertThat(resultado.clavesAsignadas()).isEqualTo(2);
+
+        assertThat(autorRepository.findAll()).extracting(Autor::getId).containsExactlyInAnyOrder(primero.getId(), otro.getId());
+        Autor unido = autorRepository.findById(primero.getId()).orElseThrow();
+        assertThat(unido.getClave()).isEqualTo("mark twain");
+        assertThat(unido.getFechaDeNacimiento()).isEqualTo(1835);
+        assertThat(unido.getFechaDeFallecimiento()).isEqualTo(1910);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bibliografias WHERE autor_id = ?", Integer.class, primero.getId()))
+                .isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bibliografias", Integer.class)).isEqualTo(4);
+        assertThat(clavesAutores.id("mark twain")).isEqualTo(primero.getId());
+
+        // Una vez unidos, los libros nuevos de cualquier variante van al mismo autor
+        registroLibros.registrar(new DatosLibros(5L, "Life on the Mississippi",
+                List.of(new DatosAutor("TWAIN, MARK.", 1835, 1910)), List.of("en"), 10.0));
+        assertThat(autorRepository.count()).isEqualTo(2);
+        assertThat(fusionAutores.fusionar().autoresFusionados()).isZero();
+    }
+
+    private void guardarLibro(long idGutendex, String titulo, Autor... autores) {
+        Libro libro = new Libro(new DatosLibros(idGutendex, titulo, List.of(), List.of("en"), 10.0));
+        libro.setAutores(List.of(autores));
+        libroRepository.save(libro);
+    }
+}
@@ -0,0 +1,113 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin @Transactional: cada consulta confirma su propia transacción, como en la aplicación,
+// y solo entonces Hibernate guarda entidades y resultados en la caché
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.cache-entidades.maximo-consultas=4"
+})
+@AutoConfigureTestDatabase
+class CacheSegundoNivelTest {
+
+    private static final String REGION_CONSULTAS = "default-query-results-region";
+
+    @Autowired
+    private ConsultaCatalogo consultaCatalogo;
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @Autowired
+    private MetricasAplicacion metricas;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void prepararEstadisticas() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 1; i <= 5; i++) {
+            registrar("Libro " + i, List.of("es"));
+        }
+    }
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void laSegundaConsultaIdenticaNoEjecutaSql() {
+        List<LibroResumen> primera = consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, 10).libros();
+
+        estadisticas.clear();
+        List<LibroResumen> segunda = consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, 10).libros();
+
+        assertThat(segunda).isEqualTo(primera).hasSize(5);
+        assertThat(segunda.get(0).autores()).extracting(AutorResumen::nombre).containsExactly("autor de libro 1");
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(metricas.formatoPrometheus())
+                .contains("literalura_hibernate_cache_consultas_aciertos 2")
+                .contains("literalura_cache_entidades_entradas{region=\"" + REGION_CONSULTAS + "\"}");
+    }
+
+    @Test
+    void guardarUnLibroInvalidaLasConsultasDeSusTablas() {
+        consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, 10);
+
+        registrar("Libro 6", List.of("es"));
+        estadisticas.clear();
+        List<LibroResumen> despues = consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, 10).libros();
+
+        assertThat(despues).extracting(LibroResumen::titulo).contains("Libro 6").hasSize(6);
+        assertThat(estadisticas.getPrepareStatementCount()).isPositive();
+    }
+
+    @Test
+    void laCacheDeConsultasDesalojaLasMenosUsadasAlLlenarse() {
+        long antes = cacheSegundoNivel.getDesalojos(REGION_CONSULTAS);
+        for (int tamano = 1; tamano <= 5; tamano++) {
+            consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, tamano);
+        }
+
+        assertThat(cacheSegundoNivel.getEntradas(REGION_CONSULTAS)).isEqualTo(4);
+        assertThat(cacheSegundoNivel.getDesalojos(REGION_CONSULTAS)).isGreaterThan(antes);
+    }
+
+    private void registrar(String titulo, List<String> idiomas) {
+        DatosAutor autor = new DatosAutor("Autor de " + titulo, 1900, 1980);
+        registroLibros.registrar(new DatosLibros(null, titulo, List.of(autor), idiomas, 10.0));
+    }
+}
@@ -0,0 +1,121 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// Gutendex se sustituye por un doble que responde a ?search= con los libros de "resultados" para ese texto
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.descargas.peticiones-por-minuto=60000"
+})
+@AutoConfigureTestDatabase
+class CompletarIdsGutendexTest {
+
+    @MockBean
+    private ConsumoAPI consumoAPI;
+
+    @Autowired
+    private CompletarIdsGutendex completarIds;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    // Texto buscado -> (id de Gutendex, título) de los libros que devuelve
+    private final Map<String, Map<Long, String>> resultados = new HashMap<>();
+    private final List<String> busquedas = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void prepararGutendex() {
+        when(consumoAPI.obtenerFlujo(anyString(), any())).thenAnswer(invocacion -> {
+            String url = invocacion.getArgument(0);
+            String buscado = URLDecoder.decode(url.substring(url.indexOf("search=") + 7), StandardCharsets.UTF_8);
+            busquedas.add(buscado);
+            Function<InputStream, Object> lector = invocacion.getArgument(1);
+            return lector.apply(new ByteArrayInputStream(
+                    pagina(resultados.getOrDefault(buscado, Map.of())).getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void asignaElIdSoloCuandoUnUnicoResultadoTieneElMismoTitulo() {
+        Libro dracula = registrar(null, "Dracula");
+        Libro carmilla = registrar(null, "Carmilla");
+        Libro frankenstein = registrar(null, "Frankenstein");
+        Libro inventado = registrar(null, "Un libro que no está en Gutendex");
+        registrar(84L, "Frankenstein; Or, The Modern Prometheus");
+        // Coincidencia sin distinguir mayúsculas, entre resultados que solo contienen las palabras
+        resultados.put("Dracula", Map.of(345L, "DRACULA", 19797L, "Dracula's Guest"));
+        // Dos ediciones con el mismo título: no se elige ninguna
+        resultados.put("Carmilla", Map.of(10007L, "Carmilla", 60000L, "Carmilla"));
+        // El único con ese título ya es de otro libro
+        resultados.put("Frankenstein", Map.of(84L, "Frankenstein"));
+        assertThat(completarIds.getLibrosSinIdGutendex()).isEqualTo(4);
+
+        CompletarIdsGutendex.ResultadoCompletado resultado = completarIds.completar();
+
+        assertThat(resultado).isEqualTo(new CompletarIdsGutendex.ResultadoCompletado(4, 1, 1, 1, 1, true));
+        assertThat(busquedas).containsExactly("Dracula", "Carmilla", "Frankenstein", "Un libro que no está en Gutendex");
+        assertThat(idGutendex(dracula)).isEqualTo(345L);
+        assertThat(idGutendex(carmilla)).isNull();
+        assertThat(idGutendex(frankenstein)).isNull();
+        assertThat(idGutendex(inventado)).isNull();
+        assertThat(completarIds.getLibrosSinIdGutendex()).isEqualTo(3);
+
+        // Una segunda pasada solo vuelve a buscar los que siguen sin id
+        busquedas.clear();
+        completarIds.completar();
+        assertThat(busquedas).containsExactly("Carmilla", "Frankenstein", "Un libro que no está en Gutendex");
+    }
+
+    private Libro registrar(Long idGutendex, String titulo) {
+        return libroRepository.save(new Libro(new DatosLibros(idGutendex, titulo, List.of(), List.of("en"), 10.0)));
+    }
+
+    private Long idGutendex(Libro libro) {
+        return libroRepository.findById(libro.getId()).orElseThrow().getIdGutendex();
+    }
+
+    private static String pagina(Map<Long, String> libros) {
+        String resultados = libros.entrySet().stream()
+                .map(libro -> "{\"id\":%d,\"title\":\"%s\",\"authors\":[],\"languages\":[\"en\"],\"download_count\":1.0}"
+                        .formatted(libro.getKey(), libro.getValue()))
+                .collect(Collectors.joining(","));
+        return "{\"count\":" + libros.size() + ",\"next\":null,\"results\":[" + resultados + "]}";
+    }
+}
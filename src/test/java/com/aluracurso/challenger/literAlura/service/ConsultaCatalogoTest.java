@@ -0,0 +1,192 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Autor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Comprueba que los planes de carga no dependen del tamaño del catálogo (sin N+1).
+// Usa H2 en memoria; las consultas nativas de texto completo de PostgreSQL no se ejercitan aquí.
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase
+@Transactional
+class ConsultaCatalogoTest {
+
+    @Autowired
+    private ConsultaCatalogo consultaCatalogo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void prepararEstadisticas(@Autowired EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void elListadoUsaLasMismasConsultasConPocosYMuchosLibros() {
+        Autor primero = registrarCatalogo(0, 5);
+        long conPocos = contarConsultas(() -> consultaCatalogo.listarLibros());
+        long conPocosDelAutor = contarConsultas(() -> consultaCatalogo.librosDeAutor(primero.getId()));
+
+        registrarCatalogo(5, 60);
+        List<LibroResumen> libros = consultaCatalogo.listarLibros();
+        long conMuchos = contarConsultas(() -> consultaCatalogo.listarLibros());
+        long conMuchosDelAutor = contarConsultas(() -> consultaCatalogo.librosDeAutor(primero.getId()));
+
+        assertThat(libros).hasSize(60);
+        assertThat(libros.get(0).autores()).hasSize(2);
+        assertThat(libros.get(0).idiomas()).containsExactly("en", "es");
+        assertThat(conMuchos).isEqualTo(conPocos).isLessThanOrEqualTo(2);
+        assertThat(conMuchosDelAutor).isEqualTo(conPocosDelAutor).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void laBusquedaPorIdsTraeLosAutoresSinConsultasExtra() {
+        registrarCatalogo(0, 40);
+        List<Long> ids = consultaCatalogo.listarLibros().stream().map(LibroResumen::id).toList();
+        entityManager.clear();
+
+        long consultas = contarConsultas(() -> consultaCatalogo.librosPorId(ids).forEach(libro ->
+                assertThat(libro.autores()).isNotEmpty()));
+
+        assertThat(consultas).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void lasPaginasPorTituloRecorrenTodoElCatalogoSinRepetir() {
+        registrarCatalogo(0, 45);
+
+        List<String> titulos = new ArrayList<>();
+        List<LibroResumen> pagina = consultaCatalogo.paginaPorTitulo("", 20);
+        while (!pagina.isEmpty()) {
+            pagina.forEach(libro -> titulos.add(libro.titulo()));
+            pagina = consultaCatalogo.paginaPorTitulo(pagina.get(pagina.size() - 1).titulo(), 20);
+        }
+        List<Long> ids = new ArrayList<>();
+        List<LibroResumen> paginaIdioma = consultaCatalogo.paginaPorIdiomas(Set.of("es"), 0, 20).libros();
+        while (!paginaIdioma.isEmpty()) {
+            paginaIdioma.forEach(libro -> ids.add(libro.id()));
+            paginaIdioma = consultaCatalogo.paginaPorIdiomas(Set.of("es"),
+                    paginaIdioma.get(paginaIdioma.size() - 1).id(), 20).libros();
+        }
+
+        assertThat(titulos).hasSize(45).doesNotHaveDuplicates().isSorted();
+        assertThat(ids).hasSize(45).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void elFiltroPorIdiomasEsExactoYAdmiteVariosIdiomas() {
+        registrarLibro("Libro en francés", List.of("fr"));
+        registrarLibro("Libro en inglés y francés", List.of("en", "fr"));
+        registrarLibro("Libro en tagalo", List.of("tl"));
+        registrarLibro("Libro en inglés antiguo", List.of("ang"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(consultaCatalogo.paginaPorIdiomas(Set.of("en"), 0, 20).libros())
+                .extracting(LibroResumen::titulo)
+                .containsExactly("Libro en inglés y francés");
+        assertThat(consultaCatalogo.paginaPorIdiomas(Set.of("fr", "tl"), 0, 20).libros())
+                .extracting(LibroResumen::titulo)
+                .containsExactly("Libro en francés", "Libro en inglés y francés", "Libro en tagalo");
+    }
+
+    @Test
+    void losMasDescargadosSalenOrdenadosDesdeElIndice() {
+        Autor comun = registrarCatalogo(0, 30);
+
+        assertThat(consultaCatalogo.masDescargados(3)).extracting(LibroResumen::titulo)
+                .containsExactly("Libro 29", "Libro 28", "Libro 27");
+        assertThat(consultaCatalogo.masDescargadosPorIdioma("es", 1)).extracting(LibroResumen::titulo)
+                .containsExactly("Libro 29");
+        assertThat(consultaCatalogo.masDescargadosPorAutor(comun.getId(), 2)).extracting(LibroResumen::titulo)
+                .containsExactly("Libro 29", "Libro 28");
+    }
+
+    @Test
+    void elRecorridoConCursorNoHaceConsultasPorLibro() {
+        registrarCatalogo(0, 5);
+        long conPocos = contarConsultas(() -> consultaCatalogo.recorrerLibros(libro -> { }));
+
+        registrarCatalogo(5, 60);
+        List<LibroResumen> libros = new ArrayList<>();
+        long conMuchos = contarConsultas(() -> consultaCatalogo.recorrerLibros(libros::add));
+
+        assertThat(libros).hasSize(60).allSatisfy(libro -> {
+            assertThat(libro.autores()).hasSize(2);
+            assertThat(libro.idiomas()).containsExactly("en", "es");
+        });
+        assertThat(conMuchos).isEqualTo(conPocos);
+    }
+
+    @Test
+    void cadaMetodoDelRepositorioQuedaMedidoConSuNombre(@Autowired MetricasAplicacion metricas) {
+        registrarCatalogo(0, 3);
+        long antes = metricas.cuentaTiempos("literalura_repositorio_segundos",
+                "repositorio", "LibroRepository", "metodo", "findIdsMasDescargados", "resultado", "ok");
+
+        consultaCatalogo.masDescargados(2);
+
+        assertThat(metricas.cuentaTiempos("literalura_repositorio_segundos",
+                "repositorio", "LibroRepository", "metodo", "findIdsMasDescargados", "resultado", "ok"))
+                .isEqualTo(antes + 1);
+        assertThat(metricas.formatoPrometheus())
+                .contains("literalura_repositorio_segundos_count{repositorio=\"LibroRepository\",metodo=\"findConAutoresByIdIn\",resultado=\"ok\"}")
+                .contains("literalura_hibernate_sentencias_preparadas ");
+    }
+
+    // Registra libros [desde, hasta) con dos autores cada uno; el primer autor es común a todos
+    private Autor registrarCatalogo(int desde, int hasta) {
+        Autor comun = entityManager.createQuery("SELECT a FROM Autor a WHERE a.nombre = 'autor comun'", Autor.class)
+                .getResultStream().findFirst()
+                .orElseGet(() -> {
+                    Autor nuevo = new Autor("autor comun", 1800, 1870);
+                    entityManager.persist(nuevo);
+                    return nuevo;
+                });
+        for (int i = desde; i < hasta; i++) {
+            Autor propio = new Autor("autor " + i, 1900, null);
+            entityManager.persist(propio);
+            Libro libro = new Libro(new DatosLibros((long) i, "Libro " + i, List.of(), List.of("en", "es"), (double) i));
+            libro.setAutores(List.of(comun, propio));
+            entityManager.persist(libro);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return comun;
+    }
+
+    private void registrarLibro(String titulo, List<String> idiomas) {
+        entityManager.persist(new Libro(new DatosLibros(null, titulo, List.of(), idiomas, 0.0)));
+    }
+
+    private long contarConsultas(Runnable consulta) {
+        entityManager.clear();
+        estadisticas.clear();
+        consulta.run();
+        return estadisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,218 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsumoAPITest {
+
+    private static final String CUERPO = "{\"count\":1,\"results\":[]}";
+
+    private HttpServer servidor;
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final AtomicInteger intentosInestable = new AtomicInteger();
+    private final List<String> etagsRecibidos = new CopyOnWriteArrayList<>();
+    private volatile boolean servidorCaido;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/books/", intercambio -> {
+            peticiones.incrementAndGet();
+            if (servidorCaido) {
+                intercambio.sendResponseHeaders(503, -1);
+                intercambio.close();
+                return;
+            }
+            String etag = intercambio.getRequestHeaders().getFirst("If-None-Match");
+            etagsRecibidos.add(String.valueOf(etag));
+            if ("\"v1\"".equals(etag)) {
+                intercambio.sendResponseHeaders(304, -1);
+            } else {
+                byte[] cuerpo = CUERPO.getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().add("ETag", "\"v1\"");
+                intercambio.sendResponseHeaders(200, cuerpo.length);
+                intercambio.getResponseBody().write(cuerpo);
+            }
+            intercambio.close();
+        });
+        servidor.createContext("/inestable/", intercambio -> {
+            peticiones.incrementAndGet();
+            if (intentosInestable.incrementAndGet() == 1) {
+                intercambio.sendResponseHeaders(503, -1);
+            } else {
+                ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                    gzip.write(CUERPO.getBytes(StandardCharsets.UTF_8));
+                }
+                intercambio.getResponseHeaders().add("Content-Encoding", "gzip");
+                intercambio.sendResponseHeaders(200, comprimido.size());
+                intercambio.getResponseBody().write(comprimido.toByteArray());
+            }
+            intercambio.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    private String url(String consulta) {
+        return "http://localhost:" + servidor.getAddress().getPort() + "/books/?" + consulta;
+    }
+
+    @Test
+    void sirveDesdeCacheMientrasNoVence() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ofMinutes(5), "");
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache);
+
+        assertThat(consumoAPI.obtenerDatos(url("search=quijote"))).isEqualTo(CUERPO);
+        assertThat(consumoAPI.obtenerDatos(url("search=quijote"))).isEqualTo(CUERPO);
+
+        assertThat(peticiones).hasValue(1);
+        assertThat(cache.getAciertos()).isEqualTo(1);
+        assertThat(cache.getFallos()).isEqualTo(1);
+    }
+
+    @Test
+    void revalidaConEtagCuandoVence() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ZERO, "");
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache);
+
+        consumoAPI.obtenerDatos(url("page=1"));
+        assertThat(consumoAPI.obtenerDatos(url("page=1"))).isEqualTo(CUERPO);
+
+        assertThat(etagsRecibidos).containsExactly("null", "\"v1\"");
+        assertThat(cache.getRevalidaciones()).isEqualTo(1);
+    }
+
+    @Test
+    void desalojaLaEntradaMenosUsada() {
+        CacheRespuestas cache = new CacheRespuestas(2, 1 << 20, Duration.ofMinutes(5), "");
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache);
+
+        consumoAPI.obtenerDatos(url("page=1"));
+        consumoAPI.obtenerDatos(url("page=2"));
+        consumoAPI.obtenerDatos(url("page=1"));
+        consumoAPI.obtenerDatos(url("page=3"));
+        consumoAPI.obtenerDatos(url("page=1"));
+
+        assertThat(cache.getDesalojos()).isEqualTo(1);
+        assertThat(cache.getEntradas()).isEqualTo(2);
+        assertThat(peticiones).hasValue(3);
+    }
+
+    @Test
+    void laCacheEnDiscoSobreviveAUnReinicio(@TempDir Path directorio) {
+        new ConsumoAPI(new CacheRespuestas(10, 1 << 20, Duration.ofMinutes(5), directorio.toString()))
+                .obtenerDatos(url("page=1"));
+
+        CacheRespuestas nueva = new CacheRespuestas(10, 1 << 20, Duration.ofMinutes(5), directorio.toString());
+        assertThat(new ConsumoAPI(nueva).obtenerDatos(url("page=1"))).isEqualTo(CUERPO);
+
+        assertThat(peticiones).hasValue(1);
+        assertThat(nueva.getAciertos()).isEqualTo(1);
+    }
+
+    @Test
+    void reintentaErroresDelServidorYDescomprimeGzip() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ofMinutes(5), "");
+        MetricasAplicacion metricas = new MetricasAplicacion();
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache, new LimitadorTasa(0, 1, Duration.ZERO),
+                new CircuitoInterruptor("prueba", 5, Duration.ofSeconds(30), 1), metricas,
+                Duration.ofSeconds(1), Duration.ofSeconds(5), 4, 2, Duration.ofMillis(10));
+        String url = "http://localhost:" + servidor.getAddress().getPort() + "/inestable/";
+
+        assertThat(consumoAPI.obtenerDatosAsync(url).join()).isEqualTo(CUERPO);
+        assertThat(peticiones).hasValue(2);
+        assertThat(metricas.valorContador("literalura_api_intentos_total", "estado", "503")).isEqualTo(1);
+        assertThat(metricas.valorContador("literalura_api_intentos_total", "estado", "200")).isEqualTo(1);
+        assertThat(metricas.cuentaTiempos("literalura_api_peticion_segundos", "operacion", "datos", "estado", "200")).isEqualTo(1);
+    }
+
+    @Test
+    void conElCircuitoAbiertoFallaRapidoYUsaLaCopiaVencida() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ZERO, "");
+        CircuitoInterruptor circuito = new CircuitoInterruptor("prueba", 1, Duration.ofMinutes(1), 1);
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache, new LimitadorTasa(0, 1, Duration.ZERO), circuito, new MetricasAplicacion(),
+                Duration.ofSeconds(1), Duration.ofSeconds(5), 4, 0, Duration.ofMillis(10));
+        String inestable = "http://localhost:" + servidor.getAddress().getPort() + "/inestable/";
+
+        consumoAPI.obtenerDatos(url("page=1"));
+        assertThatThrownBy(() -> consumoAPI.obtenerDatos(inestable)).hasMessageContaining("estado HTTP 503");
+        assertThat(circuito.getEstado()).isEqualTo(CircuitoInterruptor.Estado.ABIERTO);
+
+        assertThat(consumoAPI.obtenerDatos(url("page=1"))).isEqualTo(CUERPO);
+        assertThatThrownBy(() -> consumoAPI.obtenerDatos(inestable)).isInstanceOf(ServicioNoDisponibleException.class);
+        assertThat(peticiones).hasValue(2);
+        assertThat(circuito.getRechazadas()).isEqualTo(2);
+    }
+
+    @Test
+    void unaRespuestaDeErrorNoSeEntregaComoDatosYSeUsaLaCopiaVencida() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ZERO, "");
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache, new LimitadorTasa(0, 1, Duration.ZERO),
+                new CircuitoInterruptor("prueba", 5, Duration.ofSeconds(30), 1), new MetricasAplicacion(),
+                Duration.ofSeconds(1), Duration.ofSeconds(5), 4, 0, Duration.ofMillis(10));
+        String noExiste = "http://localhost:" + servidor.getAddress().getPort() + "/no-existe/";
+        String caido = url("caido=1");
+
+        assertThatThrownBy(() -> consumoAPI.obtenerDatos(noExiste)).hasMessageContaining("estado HTTP 404");
+        assertThat(cache.getEntradas()).isZero();
+
+        // La copia vencida se guardó con un 200; cuando el servidor pasa a responder 503 se usa ella
+        assertThat(consumoAPI.obtenerDatos(caido)).isEqualTo(CUERPO);
+        servidorCaido = true;
+        assertThat(consumoAPI.obtenerDatosAsync(caido).join()).isEqualTo(CUERPO);
+    }
+
+    @Test
+    void laVersionAsincronaNoBloqueaAunqueHayaQueEsperarAlLimitadorOAUnTurno() {
+        CacheRespuestas cache = new CacheRespuestas(10, 1 << 20, Duration.ofMinutes(5), "");
+        LimitadorTasa limitador = new LimitadorTasa(5, 1, Duration.ofSeconds(5));
+        ConsumoAPI consumoAPI = new ConsumoAPI(cache, limitador, new CircuitoInterruptor("prueba", 5, Duration.ofSeconds(30), 1),
+                new MetricasAplicacion(), Duration.ofSeconds(1), Duration.ofSeconds(5), 1, 0, Duration.ofMillis(10));
+
+        long inicio = System.nanoTime();
+        List<CompletableFuture<String>> respuestas = IntStream.rangeClosed(1, 4)
+                .mapToObj(pagina -> consumoAPI.obtenerDatosAsync(url("page=" + pagina)))
+                .toList();
+        // Las tres últimas esperan 200, 400 y 600 ms al limitador; bloqueando, el bucle tardaría 600 ms
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(500));
+        assertThat(respuestas.get(3)).isNotDone();
+
+        assertThat(respuestas).allSatisfy(respuesta -> assertThat(respuesta.join()).isEqualTo(CUERPO));
+        assertThat(peticiones).hasValue(4);
+        assertThat(limitador.getConcedidas()).isEqualTo(4);
+    }
+
+    @Test
+    void elLimitadorRechazaCuandoLaEsperaSuperaElMaximo() {
+        LimitadorTasa limitador = new LimitadorTasa(1, 2, Duration.ofMillis(10));
+
+        assertThat(limitador.adquirir()).isTrue();
+        assertThat(limitador.adquirir()).isTrue();
+        assertThat(limitador.adquirir()).isFalse();
+        assertThat(limitador.getRechazadas()).isEqualTo(1);
+    }
+}
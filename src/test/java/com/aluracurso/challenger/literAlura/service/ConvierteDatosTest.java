@@ -0,0 +1,39 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.Datos;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.DatosPagina;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConvierteDatosTest {
+
+    private static final String PAGINA = """
+            {"count": 75000, "next": "https://gutendex.com/books/?page=2", "previous": null,
+             "results": [
+               {"id": 84, "title": "Frankenstein", "authors": [{"name": "Shelley, Mary", "birth_year": 1797, "death_year": 1851}],
+                "subjects": ["Horror tales"], "languages": ["en"], "formats": {"text/html": "x"}, "download_count": 90000},
+               {"id": 2000, "title": "Don Quijote", "authors": [], "languages": ["es"], "download_count": 1500}
+             ]}
+            """;
+
+    private final ConvierteDatos conversor = new ConvierteDatos();
+
+    @Test
+    void laLecturaEnStreamingEntregaLoMismoQueLaCompleta() {
+        List<DatosLibros> libros = new ArrayList<>();
+        DatosPagina pagina = conversor.obtenerLibros(
+                new ByteArrayInputStream(PAGINA.getBytes(StandardCharsets.UTF_8)), libros::add);
+        Datos completa = conversor.obtenerDatos(PAGINA, Datos.class);
+
+        assertThat(pagina.total()).isEqualTo(75000);
+        assertThat(pagina.siguiente()).isEqualTo(completa.siguiente());
+        assertThat(libros).isEqualTo(completa.resultados());
+    }
+}
@@ -0,0 +1,36 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetaIdiomasTest {
+
+    private static LibroResumen libro(long id, String... idiomas) {
+        return new LibroResumen(id, "Libro " + id, List.of(idiomas), 0.0, List.of());
+    }
+
+    @Test
+    void cuentaLosLibrosDeCadaIdiomaYSeActualizaConCadaRegistro() {
+        FacetaIdiomas faceta = new FacetaIdiomas();
+        faceta.cargar(List.of(libro(1, "en"), libro(2, "en", "fr"), libro(3, "es")));
+
+        faceta.indexar(libro(4, "fr"));
+
+        assertThat(faceta.conteos()).containsExactly(Map.entry("en", 2), Map.entry("es", 1), Map.entry("fr", 2));
+        assertThat(faceta.conteo("de")).isZero();
+    }
+
+    @Test
+    void recargarReemplazaLosConteosAnteriores() {
+        FacetaIdiomas faceta = new FacetaIdiomas();
+        faceta.cargar(List.of(libro(1, "en")));
+        faceta.cargar(List.of(libro(2, "es")));
+
+        assertThat(faceta.conteos()).containsOnlyKeys("es");
+    }
+}
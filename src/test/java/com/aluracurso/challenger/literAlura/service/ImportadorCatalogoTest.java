@@ -0,0 +1,151 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+// Gutendex se sustituye por un doble que sirve "paginas" páginas de "librosPorPagina" libros
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.importacion.paginas-en-vuelo=2",
+        "literalura.importacion.tamano-lote=2",
+        "literalura.importacion.checkpoint=target/importacion-prueba.checkpoint"
+})
+@AutoConfigureTestDatabase
+class ImportadorCatalogoTest {
+
+    private static final Path CHECKPOINT = Path.of("target/importacion-prueba.checkpoint");
+
+    @MockBean
+    private ConsumoAPI consumoAPI;
+
+    @SpyBean
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private ImportadorCatalogo importador;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    private final List<String> urls = new CopyOnWriteArrayList<>();
+    private final Set<Integer> paginasQueFallan = ConcurrentHashMap.newKeySet();
+    private int paginas = 3;
+    private int librosPorPagina = 2;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void prepararGutendex() throws Exception {
+        Files.deleteIfExists(CHECKPOINT);
+        when(consumoAPI.obtenerFlujo(anyString(), any())).thenAnswer(invocacion -> {
+            String url = invocacion.getArgument(0);
+            urls.add(url);
+            int pagina = Integer.parseInt(url.substring(url.indexOf("page=") + 5));
+            if (paginasQueFallan.contains(pagina)) {
+                throw new RuntimeException("Gutendex no responde");
+            }
+            Function<InputStream, Object> lector = invocacion.getArgument(1);
+            return lector.apply(new ByteArrayInputStream(pagina(pagina).getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    @AfterEach
+    void limpiar() throws Exception {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+        Files.deleteIfExists(CHECKPOINT);
+    }
+
+    @Test
+    void importaTodasLasPaginasEnOrdenAscendenteYBorraElCheckpoint() {
+        ImportadorCatalogo.ResultadoImportacion resultado = importador.importarCatalogo();
+
+        assertThat(resultado.completa()).isTrue();
+        assertThat(resultado.paginasProcesadas()).isEqualTo(3);
+        assertThat(resultado.librosRegistrados()).isEqualTo(6);
+        assertThat(libroRepository.count()).isEqualTo(6);
+        assertThat(urls).allSatisfy(url -> assertThat(url).startsWith("https://gutendex.com/books/?sort=ascending&page="));
+        assertThat(CHECKPOINT).doesNotExist();
+    }
+
+    @Test
+    void elCheckpointSoloAvanzaPorPaginasContiguasYLaSiguienteImportacionReanuda() {
+        paginasQueFallan.add(2);
+
+        ImportadorCatalogo.ResultadoImportacion fallida = importador.importarCatalogo();
+
+        assertThat(fallida.completa()).isFalse();
+        assertThat(fallida.paginasFallidas()).isEqualTo(1);
+        assertThat(fallida.librosRegistrados()).isEqualTo(4);
+        // La página 3 se guardó, pero tras la 2 fallida el checkpoint no puede pasar de la 1
+        assertThat(CHECKPOINT).hasContent("1");
+
+        paginasQueFallan.clear();
+        urls.clear();
+        ImportadorCatalogo.ResultadoImportacion reanudada = importador.importarCatalogo();
+
+        assertThat(reanudada.completa()).isTrue();
+        assertThat(reanudada.paginasProcesadas()).isEqualTo(2);
+        assertThat(reanudada.librosRegistrados()).isEqualTo(2);
+        assertThat(urls).containsExactlyInAnyOrder(
+                "https://gutendex.com/books/?sort=ascending&page=2",
+                "https://gutendex.com/books/?sort=ascending&page=3");
+        assertThat(libroRepository.count()).isEqualTo(6);
+        assertThat(CHECKPOINT).doesNotExist();
+    }
+
+    @Test
+    void siFallaLaEscrituraLaImportacionTerminaConErrorSinQuedarseColgada() {
+        // Páginas grandes: las descargas en vuelo llenan la cola mientras el escritor falla
+        paginas = 10;
+        librosPorPagina = 32;
+        doThrow(new RuntimeException("La base de datos no responde")).when(registroLibros).registrarLote(any());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () ->
+                assertThatThrownBy(importador::importarCatalogo).hasMessageContaining("La base de datos no responde"));
+        assertThat(CHECKPOINT).doesNotExist();
+    }
+
+    private String pagina(int pagina) {
+        String resultados = IntStream.rangeClosed(1, librosPorPagina)
+                .map(i -> (pagina - 1) * librosPorPagina + i)
+                .mapToObj(id -> "{\"id\":%d,\"title\":\"Libro %d\",\"authors\":[],\"languages\":[\"en\"],\"download_count\":%d}"
+                        .formatted(id, id, id))
+                .collect(Collectors.joining(","));
+        String siguiente = pagina < paginas ? "\"https://gutendex.com/books/?page=" + (pagina + 1) + "\"" : "null";
+        return "{\"count\":" + paginas * 32 + ",\"next\":" + siguiente + ",\"results\":[" + resultados + "]}";
+    }
+}
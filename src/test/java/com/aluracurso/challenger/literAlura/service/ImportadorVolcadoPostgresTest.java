@@ -0,0 +1,74 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Carga con COPY en lotes paralelos sobre PostgreSQL real. Necesita Docker.
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "literalura.descargas.habilitada=false",
+        "literalura.volcado.hilos=3",
+        "literalura.volcado.tamano-lote=2"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class ImportadorVolcadoPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    Path directorio;
+
+    @Autowired
+    private ImportadorVolcado importador;
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private IMotorBusqueda motorBusqueda;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cargaConCopyEsIdempotenteYConviveConLosIdsDeHibernate() throws IOException {
+        Path archivo = directorio.resolve("pg_catalog.csv");
+        Files.writeString(archivo, LectorCatalogoGutenbergTest.CATALOGO);
+
+        ImportadorVolcado.ResultadoVolcado primera = importador.importar(archivo);
+        ImportadorVolcado.ResultadoVolcado segunda = importador.importar(archivo);
+
+        assertThat(primera.conCopy()).isTrue();
+        assertThat(primera.librosRegistrados()).isEqualTo(5);
+        assertThat(primera.lotesFallidos()).isZero();
+        assertThat(segunda.librosRegistrados()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM libros", Integer.class)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bibliografias", Integer.class)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT idioma FROM idiomas_libro i JOIN libros l ON l.id = i.libro_id WHERE l.id_gutendex = 6130 ORDER BY idioma",
+                String.class)).containsExactly("en", "grc");
+        assertThat(motorBusqueda.buscarAutores("shelley", 10)).singleElement()
+                .satisfies(autor -> assertThat(autor.fechaDeNacimiento()).isEqualTo(1797));
+
+        // Los ids reservados por el importador no chocan con los que asigna Hibernate después
+        assertThat(registroLibros.registrar(
+                new DatosLibros(1L, "Otro libro", List.of(), List.of("en"), 1.0))).isTrue();
+    }
+}
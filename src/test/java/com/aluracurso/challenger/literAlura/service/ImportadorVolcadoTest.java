@@ -0,0 +1,79 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// En H2 no hay COPY: los lotes pasan por RegistroLibros. La carga con COPY se prueba en ImportadorVolcadoPostgresTest.
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.volcado.tamano-lote=2"
+})
+@AutoConfigureTestDatabase
+class ImportadorVolcadoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Autowired
+    private ImportadorVolcado importador;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IMotorBusqueda motorBusqueda;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void importaElCatalogoComprimidoYUnaSegundaPasadaNoDuplica() throws IOException {
+        Path archivo = directorio.resolve("pg_catalog.csv.gz");
+        try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(archivo))) {
+            salida.write(LectorCatalogoGutenbergTest.CATALOGO.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ImportadorVolcado.ResultadoVolcado primera = importador.importar(archivo);
+
+        assertThat(primera.conCopy()).isFalse();
+        assertThat(primera.librosLeidos()).isEqualTo(5);
+        assertThat(primera.librosRegistrados()).isEqualTo(5);
+        assertThat(primera.lotesFallidos()).isZero();
+        assertThat(libroRepository.count()).isEqualTo(5);
+        assertThat(motorBusqueda.buscarLibros("iliad", 10)).singleElement().satisfies(libro -> {
+            assertThat(libro.idiomas()).containsExactly("en", "grc");
+            assertThat(libro.autores()).extracting(AutorResumen::nombre).containsExactly("homer");
+        });
+
+        ImportadorVolcado.ResultadoVolcado segunda = importador.importar(archivo);
+
+        assertThat(segunda.librosRegistrados()).isZero();
+        assertThat(libroRepository.count()).isEqualTo(5);
+        assertThat(motorBusqueda.buscarLibros("frankenstein", 10)).extracting(LibroResumen::titulo)
+                .containsExactly("Frankenstein; Or, The Modern Prometheus");
+    }
+}
@@ -0,0 +1,77 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorNombre;
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceVidasAutoresTest {
+
+    private static LibroResumen libroDe(AutorResumen autor) {
+        return new LibroResumen(autor.id(), "Libro " + autor.id(), List.of("en"), 0.0, List.of(autor));
+    }
+
+    private static List<AutorResumen> autoresAleatorios(Random aleatorio, long primerId, int cantidad) {
+        List<AutorResumen> autores = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int nacimiento = 1400 + aleatorio.nextInt(600);
+            Integer fallecimiento = aleatorio.nextInt(10) == 0 ? null : nacimiento + aleatorio.nextInt(100);
+            autores.add(new AutorResumen(primerId + i, "autor " + (primerId + i), nacimiento, fallecimiento));
+        }
+        return autores;
+    }
+
+    private static boolean vivoEntre(AutorResumen autor, int desde, int hasta) {
+        return autor.fechaDeNacimiento() <= hasta
+                && (autor.fechaDeFallecimiento() == null || autor.fechaDeFallecimiento() >= desde);
+    }
+
+    private static List<Long> ids(List<AutorNombre> autores) {
+        return autores.stream().map(AutorNombre::id).sorted().toList();
+    }
+
+    @Test
+    void coincideConElRecorridoCompletoTambienConAutoresPendientes() {
+        Random aleatorio = new Random(7);
+        List<AutorResumen> autores = autoresAleatorios(aleatorio, 1, 5_000);
+        IndiceVidasAutores indice = new IndiceVidasAutores();
+        indice.cargar(autores.stream().map(IndiceVidasAutoresTest::libroDe).toList());
+
+        List<AutorResumen> nuevos = autoresAleatorios(aleatorio, 10_000, 300);
+        nuevos.forEach(autor -> indice.indexar(libroDe(autor)));
+        autores.addAll(nuevos);
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            int desde = 1350 + aleatorio.nextInt(700);
+            int hasta = desde + aleatorio.nextInt(60);
+            List<Long> esperados = autores.stream()
+                    .filter(autor -> vivoEntre(autor, desde, hasta))
+                    .map(AutorResumen::id).sorted().toList();
+            List<Long> duranteTodo = autores.stream()
+                    .filter(autor -> vivoEntre(autor, desde, desde) && vivoEntre(autor, hasta, hasta))
+                    .map(AutorResumen::id).sorted().toList();
+
+            assertThat(ids(indice.vivosEntre(desde, hasta))).isEqualTo(esperados);
+            assertThat(ids(indice.vivosDuranteTodo(desde, hasta))).isEqualTo(duranteTodo);
+        }
+        assertThat(indice.histogramaPorDecada(1700, 1790)).allSatisfy((decada, vivos) ->
+                assertThat(vivos).isEqualTo(autores.stream().filter(autor -> vivoEntre(autor, decada, decada + 9)).count()));
+    }
+
+    @Test
+    void ignoraAutoresSinNacimientoYRepetidos() {
+        IndiceVidasAutores indice = new IndiceVidasAutores();
+        AutorResumen cervantes = new AutorResumen(1L, "cervantes", 1547, 1616);
+        indice.cargar(List.of(libroDe(cervantes), libroDe(new AutorResumen(2L, "anónimo", null, null))));
+        indice.indexar(new LibroResumen(3L, "Otro", List.of("es"), 0.0, List.of(cervantes)));
+
+        assertThat(indice.vivosEnAno(1600)).containsExactly(new AutorNombre(1L, "cervantes"));
+        assertThat(indice.vivosEnAno(1700)).isEmpty();
+    }
+}
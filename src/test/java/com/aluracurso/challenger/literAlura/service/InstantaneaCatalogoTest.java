@@ -0,0 +1,146 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.model.Libro;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "literalura.instantanea.archivo=target/instantanea-prueba.bin"
+})
+@AutoConfigureTestDatabase
+class InstantaneaCatalogoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Autowired
+    private InstantaneaCatalogo instantanea;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private FacetaIdiomas facetaIdiomas;
+
+    @Autowired
+    private RankingDescargas rankingDescargas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limpiar() throws IOException {
+        libroRepository.deleteAll();
+        indicesCatalogo.cargar();
+        Files.deleteIfExists(Path.of("target/instantanea-prueba.bin"));
+    }
+
+    @Test
+    void leeLoQueEscribeConNulosYAutoresCompartidos() throws IOException {
+        AutorResumen shelley = new AutorResumen(7L, "Shelley, Mary Wollstonecraft", 1797, 1851);
+        AutorResumen homero = new AutorResumen(9L, "Homer", -751, null);
+        List<LibroResumen> catalogo = List.of(
+                new LibroResumen(3L, "Frankenstein", List.of("en"), 1200.0, List.of(shelley)),
+                new LibroResumen(5L, "Ιλιάς", List.of("grc", "en"), null, List.of(homero, shelley)),
+                new LibroResumen(8L, "Anónimo", List.of(), 0.0, List.of()));
+        Path archivo = directorio.resolve("indices.bin");
+
+        InstantaneaCatalogo.escribir(archivo, catalogo);
+        InstantaneaCatalogo.Instantanea leida = InstantaneaCatalogo.leer(archivo);
+
+        assertThat(leida.marcaDeAgua()).isEqualTo(8);
+        assertThat(leida.libros()).isEqualTo(catalogo);
+        assertThat(leida.libros().get(0).autores().get(0))
+                .isSameAs(leida.libros().get(1).autores().get(1));
+    }
+
+    @Test
+    void unaInstantaneaDanadaSeDescarta() throws IOException {
+        registrar("Libro 1", List.of("es"));
+        instantanea.guardar();
+        Path archivo = Path.of("target/instantanea-prueba.bin");
+        byte[] bytes = Files.readAllBytes(archivo);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(archivo, bytes);
+
+        assertThat(instantanea.leer()).isEmpty();
+    }
+
+    @Test
+    void alArrancarCompletaLaInstantaneaConLosLibrosNuevos() {
+        registrar("Libro 1", List.of("es"));
+        registrar("Libro 2", List.of("es", "en"));
+        instantanea.guardar();
+        // Escrito sin pasar por RegistroLibros: ningún índice lo conoce
+        libroRepository.save(new Libro(new DatosLibros(null, "Libro 3", List.of(), List.of("es"), 3.0)));
+
+        indicesCatalogo.cargarAlArrancar();
+
+        assertThat(facetaIdiomas.conteo("es")).isEqualTo(3);
+        assertThat(facetaIdiomas.conteo("en")).isEqualTo(1);
+    }
+
+    @Test
+    void alArrancarLasDescargasYLosAutoresSalenDeLaBaseDeDatosYNoDeLaInstantanea() {
+        registrar("Libro 1", List.of("es"));
+        registrar("Libro 2", List.of("es"));
+        instantanea.guardar();
+        // Como ActualizadorDescargas o fusionar-autores en otro proceso: mismos ids, otros datos
+        Long primero = jdbcTemplate.queryForObject("SELECT id FROM libros WHERE titulo = 'Libro 1'", Long.class);
+        Long autorDelSegundo = jdbcTemplate.queryForObject(
+                "SELECT autor_id FROM bibliografias b JOIN libros l ON l.id = b.libro_id WHERE l.titulo = 'Libro 2'", Long.class);
+        jdbcTemplate.update("UPDATE libros SET numero_de_descargas = 500 WHERE id = ?", primero);
+        jdbcTemplate.update("UPDATE bibliografias SET autor_id = ? WHERE libro_id = ?", autorDelSegundo, primero);
+        jdbcTemplate.update("UPDATE autores SET fecha_de_nacimiento = 1901 WHERE id = ?", autorDelSegundo);
+
+        indicesCatalogo.cargarAlArrancar();
+
+        LibroResumen libro = rankingDescargas.top(1).get(0);
+        assertThat(libro.id()).isEqualTo(primero);
+        assertThat(libro.numeroDeDescargas()).isEqualTo(500.0);
+        assertThat(libro.autores()).containsExactly(new AutorResumen(autorDelSegundo, "autor de libro 2", 1901, 1980));
+    }
+
+    @Test
+    void siFaltanLibrosDeLaInstantaneaSeCargaTodoDesdeLaBaseDeDatos() {
+        registrar("Libro 1", List.of("es"));
+        registrar("Libro 2", List.of("en"));
+        instantanea.guardar();
+        libroRepository.delete(libroRepository.findAll().get(0));
+
+        indicesCatalogo.cargarAlArrancar();
+
+        assertThat(facetaIdiomas.conteo("es") + facetaIdiomas.conteo("en")).isEqualTo(1);
+    }
+
+    private void registrar(String titulo, List<String> idiomas) {
+        DatosAutor autor = new DatosAutor("Autor de " + titulo, 1900, 1980);
+        registroLibros.registrar(new DatosLibros(null, titulo, List.of(autor), idiomas, 10.0));
+    }
+}
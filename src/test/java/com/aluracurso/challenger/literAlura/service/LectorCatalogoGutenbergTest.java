@@ -0,0 +1,70 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LectorCatalogoGutenbergTest {
+
+    // Extracto con el formato real de pg_catalog.csv: títulos de varias líneas, comillas dobladas,
+    // roles entre corchetes, años antes de Cristo y filas de audiolibros
+    static final String CATALOGO = """
+            Text#,Type,Issued,Title,Language,Authors,Subjects,LoCC,Bookshelves
+            84,Text,1993-10-01,"Frankenstein; Or, The Modern Prometheus",en,"Shelley, Mary Wollstonecraft, 1797-1851","Science fiction; Horror tales",PR,"Gothic Fiction"
+            1342,Text,1998-06-01,"Pride and Prejudice",en,"Austen, Jane, 1775-1817",,PR,
+            2000,Text,1999-12-01,"Don Quijote",es,"Cervantes Saavedra, Miguel de, 1547-1616; Doré, Gustave, 1832-1883 [Illustrator]",,PQ,
+            6130,Text,2004-06-01,"The Iliad
+            (Translated into English Blank Verse)",en; grc,"Homer, 751? BCE-651? BCE; Cowper, William, 1731-1800 [Translator]",,PA,
+            9999,Sound,2005-01-01,"Frankenstein (audio)",en,"Shelley, Mary Wollstonecraft, 1797-1851",,,
+            100,Text,1994-01-01,"The ""Complete"" Works",en,"Anonymous",,,
+            """;
+
+    @Test
+    void entregaLosLibrosDeTextoConSusAutoresEIdiomas() throws IOException {
+        List<DatosLibros> libros = new ArrayList<>();
+
+        LectorCatalogoGutenberg.ResultadoLectura resultado =
+                LectorCatalogoGutenberg.leer(new StringReader(CATALOGO), libros::add);
+
+        assertThat(resultado.filas()).isEqualTo(6);
+        assertThat(resultado.libros()).isEqualTo(5);
+        assertThat(resultado.descartadas()).isEqualTo(1);
+        assertThat(libros).extracting(DatosLibros::idGutendex).containsExactly(84L, 1342L, 2000L, 6130L, 100L);
+
+        DatosLibros frankenstein = libros.get(0);
+        assertThat(frankenstein.titulo()).isEqualTo("Frankenstein; Or, The Modern Prometheus");
+        assertThat(frankenstein.idiomas()).containsExactly("en");
+        assertThat(frankenstein.autor()).containsExactly(new DatosAutor("Shelley, Mary Wollstonecraft", 1797, 1851));
+        assertThat(frankenstein.numeroDeDescargas()).isNull();
+
+        // El ilustrador y el traductor no cuentan como autores
+        assertThat(libros.get(2).autor()).extracting(DatosAutor::nombre).containsExactly("Cervantes Saavedra, Miguel de");
+        DatosLibros iliada = libros.get(3);
+        assertThat(iliada.titulo()).isEqualTo("The Iliad (Translated into English Blank Verse)");
+        assertThat(iliada.idiomas()).containsExactly("en", "grc");
+        assertThat(iliada.autor()).containsExactly(new DatosAutor("Homer", -751, -651));
+
+        assertThat(libros.get(4).titulo()).isEqualTo("The \"Complete\" Works");
+        assertThat(libros.get(4).autor()).containsExactly(new DatosAutor("Anonymous", null, null));
+    }
+
+    @Test
+    void aceptaFinesDeLineaDeWindowsYRechazaOtrosArchivos() throws IOException {
+        List<DatosLibros> libros = new ArrayList<>();
+        LectorCatalogoGutenberg.leer(new StringReader(CATALOGO.replace("\n", "\r\n")), libros::add);
+
+        assertThat(libros).hasSize(5);
+        assertThat(libros.get(3).titulo()).isEqualTo("The Iliad (Translated into English Blank Verse)");
+        assertThatThrownBy(() -> LectorCatalogoGutenberg.leer(new StringReader("id,title\n1,Libro\n"), libro -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Text#");
+    }
+}
@@ -0,0 +1,49 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricasAplicacionTest {
+
+    private final MetricasAplicacion metricas = new MetricasAplicacion();
+
+    @Test
+    void exportaContadoresMedidoresEHistogramasEnFormatoPrometheus() {
+        AtomicInteger entradas = new AtomicInteger(3);
+        metricas.contar("literalura_api_bytes_total", 512, "operacion", "datos");
+        metricas.contar("literalura_api_bytes_total", 256, "operacion", "datos");
+        metricas.medidor("literalura_cache_entradas", entradas::get);
+        metricas.registrarTiempo("literalura_repositorio_segundos", 3_000_000, "metodo", "findById");
+        metricas.registrarTiempo("literalura_repositorio_segundos", 2_000_000_000L, "metodo", "findById");
+        entradas.set(4);
+
+        assertThat(metricas.formatoPrometheus()).contains(
+                "# TYPE literalura_api_bytes_total counter\nliteralura_api_bytes_total{operacion=\"datos\"} 768\n",
+                "# TYPE literalura_cache_entradas gauge\nliteralura_cache_entradas 4\n",
+                "# TYPE literalura_repositorio_segundos histogram\n",
+                "literalura_repositorio_segundos_bucket{metodo=\"findById\",le=\"0.001\"} 0\n",
+                "literalura_repositorio_segundos_bucket{metodo=\"findById\",le=\"0.005\"} 1\n",
+                "literalura_repositorio_segundos_bucket{metodo=\"findById\",le=\"2.5\"} 2\n",
+                "literalura_repositorio_segundos_bucket{metodo=\"findById\",le=\"+Inf\"} 2\n",
+                "literalura_repositorio_segundos_sum{metodo=\"findById\"} 2.003\n",
+                "literalura_repositorio_segundos_count{metodo=\"findById\"} 2\n");
+    }
+
+    @Test
+    void medirEtiquetaElResultadoYEscapaLosValores() {
+        metricas.medir("literalura_menu_segundos", () -> { }, "opcion", "listar \"libros\"");
+        assertThatThrownBy(() -> metricas.medir("literalura_menu_segundos", () -> {
+            throw new IllegalStateException("fallo");
+        }, "opcion", "importar"));
+
+        assertThat(metricas.cuentaTiempos("literalura_menu_segundos", "opcion", "importar", "resultado", "error")).isEqualTo(1);
+        assertThat(metricas.formatoPrometheus())
+                .contains("literalura_menu_segundos_count{opcion=\"listar \\\"libros\\\"\",resultado=\"ok\"} 1\n");
+        assertThatThrownBy(() -> metricas.contar("literalura_menu_segundos"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Con ddl-auto=validate el contexto solo arranca si las migraciones crean exactamente lo que esperan
+// las entidades. Necesita Docker.
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "literalura.descargas.habilitada=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class MigracionesEsquemaPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MigracionesEsquema migraciones;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lasMigracionesCreanElEsquemaDeLasEntidadesUnaSolaVez() {
+        assertThat(jdbcTemplate.queryForList("SELECT version FROM esquema_migraciones ORDER BY version", Integer.class))
+                .containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_libros_titulo_fts'", Integer.class)).isEqualTo(1);
+
+        assertThat(migraciones.migrar()).isEmpty();
+    }
+
+    // La consulta de LibroRepository.findTitulosExistentes, tal como la genera Hibernate, va por el índice de V6.
+    // Con la tabla casi vacía el planificador prefiere recorrerla, así que se le quita esa opción en la conexión.
+    @Test
+    void losTitulosExistentesDeUnLoteSeBuscanPorElIndiceSinMayusculas() {
+        List<String> plan = jdbcTemplate.execute((ConnectionCallback<List<String>>) conexion -> {
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("SET enable_seqscan = off");
+                List<String> lineas = new ArrayList<>();
+                try (ResultSet filas = sentencia.executeQuery(
+                        "EXPLAIN SELECT lower(l1_0.titulo) FROM libros l1_0 WHERE lower(l1_0.titulo) IN ('dracula', 'carmilla')")) {
+                    while (filas.next()) {
+                        lineas.add(filas.getString(1));
+                    }
+                }
+                sentencia.execute("RESET enable_seqscan");
+                return lineas;
+            }
+        });
+
+        assertThat(String.join("\n", plan)).contains("idx_libros_titulo_minusculas").doesNotContain("Seq Scan");
+    }
+
+    // Esquema que generaba Hibernate (ddl-auto=update) en la versión anterior a las migraciones: ids con
+    // IDENTITY, sin secuencias, sin libros.id_gutendex ni autores.clave
+    private static final String[] ESQUEMA_ANTERIOR = {
+            "CREATE TABLE autores (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " fecha_de_fallecimiento integer, fecha_de_nacimiento integer, nombre varchar(255) NOT NULL UNIQUE)",
+            "CREATE TABLE libros (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " numero_de_descargas float(53), titulo varchar(1024) NOT NULL UNIQUE)",
+            "CREATE TABLE idiomas_libro (libro_id bigint NOT NULL REFERENCES libros (id), idioma varchar(255))",
+            "CREATE TABLE bibliografias (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " autor_id bigint REFERENCES autores (id), libro_id bigint REFERENCES libros (id))"
+    };
+
+    // Una base de datos con filas de la versión anterior, en un esquema aparte: tras migrar tiene las columnas que
+    // esperan las entidades y el primer bloque que reserve Hibernate empieza por encima del id más alto
+    @Test
+    void alAdoptarUnaBaseDeDatosDeLaVersionAnteriorLaCompletaYLasSecuenciasEmpiezanTrasSusIds() {
+        jdbcTemplate.execute("CREATE SCHEMA adoptada");
+        DriverManagerDataSource adoptada = new DriverManagerDataSource(
+                postgres.getJdbcUrl() + "&currentSchema=adoptada", postgres.getUsername(), postgres.getPassword());
+        JdbcTemplate enAdoptada = new JdbcTemplate(adoptada);
+        for (String sentencia : ESQUEMA_ANTERIOR) {
+            enAdoptada.execute(sentencia);
+        }
+        enAdoptada.update("INSERT INTO autores (id, nombre) VALUES (7, 'twain, mark')");
+        enAdoptada.update("INSERT INTO libros (id, titulo, numero_de_descargas) VALUES (1234, 'Tom Sawyer', 10)");
+        enAdoptada.update("INSERT INTO idiomas_libro (libro_id, idioma) VALUES (1234, 'en')");
+        enAdoptada.update("INSERT INTO bibliografias (id, libro_id, autor_id) VALUES (90, 1234, 7)");
+
+        assertThat(new MigracionesEsquema(adoptada, "db/migracion").migrar()).containsExactly(1, 2, 3, 4, 5, 6);
+
+        // Las columnas que la versión anterior no tenía: lo que leen las consultas de Libro y Autor con ddl-auto=none
+        assertThat(enAdoptada.queryForList("SELECT id_gutendex FROM libros", Long.class)).containsExactly((Long) null);
+        assertThat(enAdoptada.queryForList("SELECT clave FROM autores", String.class)).containsExactly((String) null);
+        assertThat(enAdoptada.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE schemaname = 'adoptada' AND indexname = 'idx_libros_id_gutendex'",
+                Integer.class)).isEqualTo(1);
+
+        // Cada valor V es dueño de los ids V-49..V
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('adoptada.autores_seq')", Long.class) - 49).isGreaterThan(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('adoptada.libros_seq')", Long.class) - 49).isGreaterThan(1234);
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('adoptada.bibliografias_seq')", Long.class) - 49).isGreaterThan(90);
+    }
+}
@@ -0,0 +1,34 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MigracionesEsquemaTest {
+
+    @Test
+    void leeLasMigracionesEnOrdenDeVersion() {
+        var migraciones = MigracionesEsquema.leerMigraciones("db/migracion");
+
+        assertThat(migraciones).extracting(MigracionesEsquema.Migracion::version).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(migraciones.get(0).descripcion()).isEqualTo("tablas_del_catalogo");
+        assertThat(migraciones.get(1).sentencias())
+                .hasSize(3)
+                .allSatisfy(sentencia -> assertThat(sentencia).startsWith("CREATE INDEX IF NOT EXISTS").doesNotEndWith(";"));
+    }
+
+    @Test
+    void separaLasSentenciasSinComentariosAunqueOcupenVariasLineas() {
+        String script = """
+                -- comentario
+                CREATE TABLE t (
+                    id bigint
+                );
+
+                CREATE INDEX i ON t (id);
+                """;
+
+        assertThat(MigracionesEsquema.sentencias(script))
+                .containsExactly("CREATE TABLE t (\n    id bigint\n)", "CREATE INDEX i ON t (id)");
+    }
+}
@@ -0,0 +1,54 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MotorBusquedaEnMemoriaTest {
+
+    private final AutorResumen cervantes = new AutorResumen(1L, "cervantes saavedra, miguel de", 1547, 1616);
+    private final AutorResumen melville = new AutorResumen(2L, "melville, herman", 1819, 1891);
+    private final MotorBusquedaEnMemoria motor = new MotorBusquedaEnMemoria();
+
+    @BeforeEach
+    void cargar() {
+        motor.cargar(List.of(
+                new LibroResumen(10L, "Don Quijote", List.of("es"), 900.0, List.of(cervantes)),
+                new LibroResumen(11L, "Novelas ejemplares", List.of("es"), 150.0, List.of(cervantes)),
+                new LibroResumen(12L, "Moby Dick; Or, The Whale", List.of("en"), 5000.0, List.of(melville)),
+                new LibroResumen(13L, "The Quijote Companion", List.of("en"), 2000.0, List.of(melville))));
+    }
+
+    @Test
+    void buscaPalabrasCompletasOrdenadasPorDescargas() {
+        assertThat(motor.buscarLibros("quijote", 10)).extracting(LibroResumen::id).containsExactly(13L, 10L);
+        assertThat(motor.buscarLibros("quij", 10)).isEmpty();
+        assertThat(motor.buscarLibros("QUIJOTE,", 1)).extracting(LibroResumen::id).containsExactly(13L);
+    }
+
+    @Test
+    void combinaPalabrasConAndYPrefijos() {
+        assertThat(motor.buscarLibros("don quijote", 10)).extracting(LibroResumen::id).containsExactly(10L);
+        assertThat(motor.buscarLibros("quij* the", 10)).extracting(LibroResumen::id).containsExactly(13L);
+        assertThat(motor.buscarLibros("nove*", 10)).extracting(LibroResumen::id).containsExactly(11L);
+    }
+
+    @Test
+    void buscaAutoresYSusLibros() {
+        assertThat(motor.buscarAutores("herman", 10)).containsExactly(melville);
+        assertThat(motor.librosDeAutor(1L)).extracting(LibroResumen::id).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void indexaLibrosNuevosSinRecargar() {
+        motor.indexar(new LibroResumen(14L, "Viaje del Parnaso", List.of("es"), 10.0, List.of(cervantes)));
+
+        assertThat(motor.buscarLibros("parnaso", 10)).extracting(LibroResumen::id).containsExactly(14L);
+        assertThat(motor.librosDeAutor(1L)).extracting(LibroResumen::id).containsExactly(10L, 11L, 14L);
+    }
+}
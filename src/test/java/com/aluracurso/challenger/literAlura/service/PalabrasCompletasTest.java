@@ -0,0 +1,62 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PalabrasCompletasTest {
+
+    @Test
+    void comparaPalabrasCompletasSinMayusculasNiAcentos() {
+        PalabrasCompletas quijote = PalabrasCompletas.de("Quijote");
+        assertThat(quijote.coincide("El ingenioso hidalgo don Quijote, de la Mancha")).isTrue();
+        assertThat(quijote.coincide("DON QUIJOTE")).isTrue();
+        assertThat(quijote.coincide("Quijotes y quijotadas")).isFalse();
+        assertThat(quijote.coincide("Antiquijote")).isFalse();
+
+        PalabrasCompletas dostoievski = PalabrasCompletas.de("dostoievski");
+        assertThat(dostoievski.coincide("Dostoïevski, Fédor")).isTrue();
+        // la misma diéresis como carácter combinante
+        assertThat(dostoievski.coincide("Dostoïevski")).isTrue();
+        assertThat(PalabrasCompletas.de("Dostoïevski").coincide("dostoievski")).isTrue();
+        assertThat(PalabrasCompletas.contiene("Les Misérables", "miserables")).isTrue();
+    }
+
+    @Test
+    void unaClaveDeVariasPalabrasCoincideSiAparecenSeguidas() {
+        PalabrasCompletas donQuijote = PalabrasCompletas.de("don quijote");
+        assertThat(donQuijote.coincide("Don Quijote de la Mancha")).isTrue();
+        assertThat(donQuijote.coincide("Historia de don — Quijote")).isTrue();
+        assertThat(donQuijote.coincide("Quijote, don")).isFalse();
+        assertThat(donQuijote.coincide("Don Diego y Quijote")).isFalse();
+
+        assertThat(PalabrasCompletas.de("  ,  ").coincide("cualquier cosa")).isFalse();
+        assertThat(PalabrasCompletas.de("quijote").coincide(null)).isFalse();
+    }
+
+    @Test
+    void noCreaObjetosAlComparar() {
+        PalabrasCompletas palabra = PalabrasCompletas.de("zaragoza");
+        String[] titulos = {
+                "The Adventures of Sherlock Holmes", "Frankenstein; Or, The Modern Prometheus",
+                "Le comte de Monte-Cristo, Tome I", "Dostoïevski: Les Frères Karamazov", "Historia de Zaragozana"};
+        for (int i = 0; i < 20_000; i++) {
+            palabra.coincide(titulos[i % titulos.length]);
+        }
+
+        var hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        long antes = hilos.getThreadAllocatedBytes(hilo);
+        boolean alguna = false;
+        for (int i = 0; i < 100_000; i++) {
+            alguna |= palabra.coincide(titulos[i % titulos.length]);
+        }
+        long asignados = hilos.getThreadAllocatedBytes(hilo) - antes;
+
+        assertThat(alguna).isFalse();
+        // margen para la propia medición; separar en palabras asignaría varios megabytes
+        assertThat(asignados).isLessThan(64 * 1024);
+    }
+}
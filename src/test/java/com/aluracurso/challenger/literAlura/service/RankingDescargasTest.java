@@ -0,0 +1,84 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.AutorResumen;
+import com.aluracurso.challenger.literAlura.model.LibroResumen;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RankingDescargasTest {
+
+    private static final AutorResumen CERVANTES = new AutorResumen(1L, "cervantes", 1547, 1616);
+    private static final AutorResumen AUSTEN = new AutorResumen(2L, "austen", 1775, 1817);
+
+    private final ConsultaCatalogo consultaCatalogo = mock(ConsultaCatalogo.class);
+
+    private static LibroResumen libro(long id, double descargas, String idioma, AutorResumen autor) {
+        return new LibroResumen(id, "Libro " + id, List.of(idioma), descargas, List.of(autor));
+    }
+
+    private static List<Long> ids(List<LibroResumen> libros) {
+        return libros.stream().map(LibroResumen::id).toList();
+    }
+
+    @Test
+    void mantieneElTopGeneralPorIdiomaYPorAutorConCadaRegistro() {
+        RankingDescargas ranking = new RankingDescargas(consultaCatalogo, 3);
+        ranking.cargar(List.of(
+                libro(1, 100, "es", CERVANTES),
+                libro(2, 500, "en", AUSTEN),
+                libro(3, 300, "es", CERVANTES)));
+
+        ranking.indexar(libro(4, 400, "en", AUSTEN));
+        ranking.indexar(libro(5, 50, "es", CERVANTES));
+
+        assertThat(ids(ranking.top(10))).containsExactly(2L, 4L, 3L);
+        assertThat(ids(ranking.topPorIdioma("es", 2))).containsExactly(3L, 1L);
+        assertThat(ids(ranking.topPorAutor(2L, 10))).containsExactly(2L, 4L);
+        assertThat(ranking.topPorIdioma("fr", 10)).isEmpty();
+        verifyNoInteractions(consultaCatalogo);
+    }
+
+    @Test
+    void unaSubidaDeDescargasReordenaSinIrALaBaseDeDatos() {
+        RankingDescargas ranking = new RankingDescargas(consultaCatalogo, 2);
+        ranking.cargar(List.of(libro(1, 100, "es", CERVANTES), libro(2, 200, "es", CERVANTES), libro(3, 300, "es", CERVANTES)));
+
+        ranking.indexar(libro(1, 1000, "es", CERVANTES));
+
+        assertThat(ids(ranking.top(10))).containsExactly(1L, 3L);
+        verifyNoInteractions(consultaCatalogo);
+    }
+
+    @Test
+    void unaBajadaEnUnaTablaLlenaLaReconstruyeDesdeLaBaseDeDatos() {
+        RankingDescargas ranking = new RankingDescargas(consultaCatalogo, 2);
+        ranking.cargar(List.of(libro(1, 100, "es", CERVANTES), libro(2, 200, "es", CERVANTES), libro(3, 300, "es", CERVANTES)));
+        when(consultaCatalogo.masDescargados(2)).thenReturn(List.of(libro(2, 200, "es", CERVANTES), libro(1, 100, "es", CERVANTES)));
+
+        ranking.indexar(libro(3, 10, "es", CERVANTES));
+
+        assertThat(ids(ranking.top(10))).containsExactly(2L, 1L);
+        assertThat(ids(ranking.top(10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void loQueSeIndexaMientrasSeLeeLaBaseDeDatosNoSePierdeAlReconstruir() {
+        RankingDescargas ranking = new RankingDescargas(consultaCatalogo, 2);
+        ranking.cargar(List.of(libro(1, 100, "es", CERVANTES), libro(2, 200, "es", CERVANTES), libro(3, 300, "es", CERVANTES)));
+        // La consulta ya leyó sus filas cuando se confirma el registro del libro 4
+        when(consultaCatalogo.masDescargados(2)).thenAnswer(invocacion -> {
+            ranking.indexar(libro(4, 5000, "es", CERVANTES));
+            return List.of(libro(2, 200, "es", CERVANTES), libro(1, 100, "es", CERVANTES));
+        });
+
+        ranking.indexar(libro(3, 10, "es", CERVANTES));
+
+        assertThat(ids(ranking.top(10))).containsExactly(4L, 2L);
+    }
+}
@@ -0,0 +1,163 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Varios escritores registran a la vez los mismos libros, en lotes y en distinto orden, sobre PostgreSQL
+// real: ningún lote falla y cada libro, autor, idioma y bibliografía queda una sola vez. Necesita Docker.
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "literalura.descargas.habilitada=false",
+        "spring.datasource.hikari.maximum-pool-size=12"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class RegistroConcurrentePostgresTest {
+
+    private static final int LIBROS = 400;
+    private static final int AUTORES = 40;
+    private static final int TAMANO_LOTE = 25;
+    private static final int ESCRITORES = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private InsercionesIdempotentes inserciones;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    @Autowired
+    private ClavesAutores clavesAutores;
+
+    @Autowired
+    private IMotorBusqueda motorBusqueda;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void vaciar() {
+        jdbcTemplate.execute("TRUNCATE bibliografias, idiomas_libro, libros, autores");
+        entityManagerFactory.getCache().evictAll();
+        indicesCatalogo.cargar();
+    }
+
+    // Solo comprueba el resultado: el rendimiento con uno y varios escritores, con el mismo trabajo en
+    // total, lo mide RegistroConcurrenteBenchmark en el módulo benchmarks
+    @Test
+    void escritoresEnParaleloSobreLosMismosLibrosNoDuplicanNiPierdenFilas() throws Exception {
+        assertThat(inserciones.disponibles()).isTrue();
+
+        registrar(catalogo(), ESCRITORES);
+
+        comprobarFilas();
+        assertThat(clavesAutores.tamano()).isEqualTo(AUTORES);
+        assertThat(motorBusqueda.buscarLibros("libro", LIBROS)).hasSize(LIBROS);
+    }
+
+    // Sin la comprobación previa de RegistroLibros, que es lo que ve el escritor que llega segundo cuando los
+    // dos lotes se solapan: el índice sobre lower(titulo) descarta el título escrito con otras mayúsculas
+    @Test
+    void unTituloQueSoloCambiaEnMayusculasNoEntraDosVeces() {
+        assertThat(inserciones.insertarLibros(
+                List.of(new DatosLibros(345L, "Dracula", null, null, 10.0)), Map.of())).containsOnlyKeys("Dracula");
+        assertThat(inserciones.insertarLibros(
+                List.of(new DatosLibros(null, "DRACULA", null, null, 10.0)), Map.of())).isEmpty();
+
+        assertThat(jdbcTemplate.queryForList("SELECT titulo FROM libros", String.class)).containsExactly("Dracula");
+    }
+
+    // Cada escritor registra el catálogo entero, barajado con su propia semilla y en lotes
+    private void registrar(List<DatosLibros> catalogo, int escritores) throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(escritores);
+        List<Future<Integer>> tareas = new ArrayList<>();
+        for (int escritor = 0; escritor < escritores; escritor++) {
+            List<DatosLibros> propio = new ArrayList<>(catalogo);
+            Collections.shuffle(propio, new Random(escritor));
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                int registrados = 0;
+                for (int i = 0; i < propio.size(); i += TAMANO_LOTE) {
+                    registrados += (int) registroLibros.registrarLote(propio.subList(i, Math.min(i + TAMANO_LOTE, propio.size())))
+                            .stream()
+                            .filter(resultado -> resultado.estado() == RegistroLibros.EstadoRegistro.REGISTRADO)
+                            .count();
+                }
+                return registrados;
+            }));
+        }
+        salida.countDown();
+        int registrados = 0;
+        try {
+            for (Future<Integer> tarea : tareas) {
+                registrados += tarea.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // Cada libro lo registra exactamente un escritor; para los demás es un duplicado
+        assertThat(registrados).isEqualTo(LIBROS);
+    }
+
+    private void comprobarFilas() {
+        assertThat(contar("libros")).isEqualTo(LIBROS);
+        assertThat(contar("autores")).isEqualTo(AUTORES);
+        assertThat(contar("idiomas_libro")).isEqualTo(LIBROS + LIBROS / 2);
+        assertThat(contar("bibliografias")).isEqualTo(LIBROS * 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT libro_id, autor_id FROM bibliografias GROUP BY 1, 2 HAVING count(*) > 1) r",
+                Integer.class)).isZero();
+    }
+
+    private int contar(String tabla) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabla, Integer.class);
+    }
+
+    // Dos autores distintos por libro, escritos de varias formas que comparten clave; la mitad de los
+    // libros en dos idiomas
+    private static List<DatosLibros> catalogo() {
+        List<DatosLibros> catalogo = new ArrayList<>(LIBROS);
+        for (int i = 0; i < LIBROS; i++) {
+            int primero = i % AUTORES;
+            int segundo = (i + 1) % AUTORES;
+            List<DatosAutor> autores = List.of(
+                    new DatosAutor(i % 2 == 0 ? "Apellido" + primero + ", Nombre" : "Nombre Apellido" + primero, 1800, 1880),
+                    new DatosAutor(i % 3 == 0 ? "APELLIDO" + segundo + ", NOMBRE." : "Apellido" + segundo + ", Nombre", 1800, 1880));
+            List<String> idiomas = i % 2 == 0 ? List.of("en", "es") : List.of("en");
+            catalogo.add(new DatosLibros((long) i + 1, "Libro " + i, autores, idiomas, (double) i));
+        }
+        return catalogo;
+    }
+}
@@ -0,0 +1,121 @@
+package com.aluracurso.challenger.literAlura.service;
+
+import com.aluracurso.challenger.literAlura.model.DatosAutor;
+import com.aluracurso.challenger.literAlura.model.DatosLibros;
+import com.aluracurso.challenger.literAlura.repository.AutorRepository;
+import com.aluracurso.challenger.literAlura.repository.LibroRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Registro por lotes sobre H2 (el camino de Hibernate; el de PostgreSQL lo cubre RegistroConcurrentePostgresTest)
+@SpringBootTest(properties = {
+        "literalura.consola.habilitada=false",
+        "spring.sql.init.mode=never",
+        "literalura.descargas.habilitada=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase
+class RegistroLibrosTest {
+
+    @Autowired
+    private RegistroLibros registroLibros;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @Autowired
+    private IndicesCatalogo indicesCatalogo;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void prepararEstadisticas(@Autowired EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void limpiar() {
+        libroRepository.deleteAll();
+        autorRepository.deleteAll();
+        indicesCatalogo.cargar();
+    }
+
+    @Test
+    void cadaLibroDelLoteRecibeSuEstadoEnElOrdenDeEntrada() {
+        registroLibros.registrar(libro("Frankenstein", "Shelley, Mary"));
+
+        List<RegistroLibros.ResultadoRegistro> resultados = registroLibros.registrarLote(List.of(
+                libro("Drácula", "Stoker, Bram"),
+                libro("FRANKENSTEIN", "Shelley, Mary"),
+                libro(null, "Anónimo"),
+                libro("   ", "Anónimo"),
+                libro("x".repeat(1025), "Anónimo"),
+                libro("Carmilla", "Le Fanu, Sheridan"),
+                libro("drácula", "Stoker, Bram")));
+
+        assertThat(resultados).extracting(RegistroLibros.ResultadoRegistro::estado).containsExactly(
+                RegistroLibros.EstadoRegistro.REGISTRADO,
+                RegistroLibros.EstadoRegistro.DUPLICADO,
+                RegistroLibros.EstadoRegistro.INVALIDO,
+                RegistroLibros.EstadoRegistro.INVALIDO,
+                RegistroLibros.EstadoRegistro.INVALIDO,
+                RegistroLibros.EstadoRegistro.REGISTRADO,
+                RegistroLibros.EstadoRegistro.DUPLICADO);
+        assertThat(libroRepository.count()).isEqualTo(3);
+        // Los autores de libros descartados no se crean
+        assertThat(autorRepository.findAll()).extracting(autor -> autor.getNombre())
+                .containsExactlyInAnyOrder("shelley, mary", "stoker, bram", "le fanu, sheridan");
+    }
+
+    @Test
+    void unLoteBuscaLosAutoresUnaSolaVezEInsertaEnLotes() {
+        registroLibros.registrarLote(lote("Calentamiento", 2));
+
+        estadisticas.clear();
+        List<RegistroLibros.ResultadoRegistro> resultados = registroLibros.registrarLote(lote("Libro", 40));
+
+        assertThat(resultados).allSatisfy(resultado ->
+                assertThat(resultado.estado()).isEqualTo(RegistroLibros.EstadoRegistro.REGISTRADO));
+        // Títulos existentes, autores que faltan en ClavesAutores y autores por id: una consulta de cada
+        assertThat(estadisticas.getQueryExecutionCount()).isEqualTo(3);
+        assertThat(Arrays.stream(estadisticas.getQueries()).filter(consulta -> consulta.contains("clave in")))
+                .singleElement()
+                .satisfies(consulta -> assertThat(estadisticas.getQueryStatistics(consulta).getExecutionCount()).isEqualTo(1));
+        // 40 libros, 40 autores nuevos y 80 bibliografías, con sus idiomas
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(160);
+        // Las 3 consultas, un INSERT por tabla (autores, libros, idiomas_libro, bibliografias) y como mucho un
+        // nextval por secuencia: sin lotes JDBC serían más de 200 sentencias
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3 + 4 + 3);
+    }
+
+    // Cada libro con un autor propio y uno común a todo el lote
+    private static List<DatosLibros> lote(String prefijo, int libros) {
+        List<DatosLibros> lote = new ArrayList<>(libros);
+        for (int i = 0; i < libros; i++) {
+            lote.add(new DatosLibros(null, prefijo + " " + i,
+                    List.of(new DatosAutor(prefijo + ", Autor " + i, 1800, 1870), new DatosAutor("Común, Autor", 1800, 1870)),
+                    List.of("en", "es"), (double) i));
+        }
+        return lote;
+    }
+
+    private static DatosLibros libro(String titulo, String autor) {
+        return new DatosLibros(null, titulo, List.of(new DatosAutor(autor, 1800, 1870)), List.of("en"), 10.0);
+    }
+}